@@ -0,0 +1,49 @@
+package com.rosscon.llce.components.cartridges.NES;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.memory.MemoryException;
+import com.rosscon.llce.components.memory.RandomAccessMemory;
+
+/**
+ * CHR RAM used by cartridges without CHR ROM. Writes from either the PPU busses or directly invalidate the
+ * tile written to in the cartridge's pattern table cache.
+ */
+public class CharacterRandomAccessMemory extends RandomAccessMemory {
+
+    /**
+     * Cache to invalidate on writes, set once the cache has been created from this memory
+     */
+    private PatternTableCache patternTableCache;
+
+    /**
+     * Creates CHR RAM filling the pattern tables at 0x0000 - 0x1FFF
+     * @param ppuAddressBus PPU address bus
+     * @param ppuDataBus PPU data bus
+     * @param rwFlag PPU R/W flag
+     * @throws MemoryException Thrown when any bus of flag is null
+     */
+    public CharacterRandomAccessMemory(IntegerBus ppuAddressBus, IntegerBus ppuDataBus, RWFlag rwFlag) throws MemoryException {
+        super(ppuAddressBus, ppuDataBus, rwFlag, 0x0000, PatternTableCache.PATTERN_TABLE_SIZE - 1);
+    }
+
+    /**
+     * Sets the cache to invalidate when memory is written
+     * @param patternTableCache cache decoded from this memory
+     */
+    public void setPatternTableCache(PatternTableCache patternTableCache){
+        this.patternTableCache = patternTableCache;
+    }
+
+    /**
+     * Writes to memory and invalidates the tile written to
+     * @param address address to write to
+     * @param value value to write
+     */
+    @Override
+    public void write(int address, int value){
+        super.write(address, value);
+        if (this.patternTableCache != null && addressIsInRange(address))
+            this.patternTableCache.invalidate(address, address);
+    }
+}
@@ -44,6 +44,16 @@ public abstract class NESCartridge extends Cartridge {
     protected final String EX_INVALID_PRG_ROM_SIZE =
             "Provided PRG ROM has an invalid size";
 
+    /**
+     * First address of PRG RAM
+     */
+    protected final int PRG_RAM_START = 0x6000;
+
+    /**
+     * Last address of PRG RAM
+     */
+    protected final int PRG_RAM_END = 0x7FFF;
+
     /**
      * First address of CHR ROM
      */
@@ -54,6 +64,10 @@ public abstract class NESCartridge extends Cartridge {
      */
     protected final int CHR_ROM_END = 0x01FF;
 
+    /**
+     * Decoded pattern data from the CHR ROM/RAM
+     */
+    protected PatternTableCache patternTableCache;
 
 
     /**
@@ -77,4 +91,13 @@ public abstract class NESCartridge extends Cartridge {
     }
 
     public abstract NametableMirror getNametableMirror();
+
+    /**
+     * Gets the decoded pattern data of the cartridge for the PPU to render from directly. Mappers must
+     * invalidate the tiles that change when CHR RAM is written or a CHR bank is switched.
+     * @return pattern table cache, null when the cartridge does not provide one
+     */
+    public PatternTableCache getPatternTableCache(){
+        return this.patternTableCache;
+    }
 }
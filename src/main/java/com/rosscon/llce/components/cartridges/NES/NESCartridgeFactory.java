@@ -7,6 +7,7 @@ import com.rosscon.llce.utils.ByteUtils;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 
@@ -103,13 +104,15 @@ public class NESCartridgeFactory {
      */
 
     /**
-     * Determines the mirroring mode set by the cart (bit 0)
+     * Determines the mirroring mode set by the cart (bit 0), four screen VRAM (bit 3) overrides it
      * unset = horizontal
      * set = vertical
      * @param flag6 flag6
      * @return NESNametableMirroring
      */
     private static NESNametableMirroring getNametableMirroring (byte flag6){
+        if ((flag6 & 0b00001000) != 0)
+            return NESNametableMirroring.FOUR_SCREEN;
         return (flag6 & 0b00000001) != 0 ? NESNametableMirroring.VERTICAL : NESNametableMirroring.HORIZONTAL;
     }
 
@@ -146,6 +149,20 @@ public class NESCartridgeFactory {
     }
 
 
+    /**
+     * Works out where battery backed RAM for a ROM is saved, the ROM file name with a .sav extension
+     * @param filename ROM file name
+     * @return path of the save file
+     */
+    private static Path saveFileFor(String filename){
+        Path romPath = Paths.get(filename);
+        String name = romPath.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        String saveName = (extension > 0 ? name.substring(0, extension) : name) + ".sav";
+        return romPath.resolveSibling(saveName);
+    }
+
+
     public static NESCartridge cartridgeFromINESFile (
             String filename,
             IntegerBus cpuAddressBus, IntegerBus cpuDataBus, RWFlag rwRWFlagCPU,
@@ -184,11 +201,13 @@ public class NESCartridgeFactory {
 
         NESNametableMirroring mirroring = getNametableMirroring(flag6);
 
+        Path saveFile = hasBatteryPrgRam(flag6) ? saveFileFor(filename) : null;
+
         if (mapper == 0){
             return new NESCartridge_001(
                     cpuAddressBus, cpuDataBus, rwRWFlagCPU,
                     ppuAddressBus, ppuDataBus, rwRWFlagPPU,
-                    prgRom, new byte[]{}, chrRom, mirroring);
+                    prgRom, new byte[]{}, chrRom, mirroring, saveFile);
         }
 
 
@@ -8,9 +8,13 @@ import com.rosscon.llce.components.flags.Flag;
 import com.rosscon.llce.components.flags.FlagException;
 import com.rosscon.llce.components.flags.RWFlag;
 import com.rosscon.llce.components.mappers.MirroredMapper;
+import com.rosscon.llce.components.memory.PersistentRandomAccessMemory;
+import com.rosscon.llce.components.memory.RandomAccessMemory;
 import com.rosscon.llce.components.memory.ReadOnlyMemory;
 import com.rosscon.llce.components.memory.MemoryException;
 
+import java.nio.file.Path;
+
 /**
  * This is the most basic type of NES cartridge with no bank switching. Only mirroring
  * https://wiki.nesdev.com/w/index.php/NROM
@@ -32,12 +36,41 @@ public class NESCartridge_001 extends NESCartridge {
      */
     private MirroredMapper internalRAMMapper;
 
+    /**
+     * Program RAM at 0x6000 - 0x7FFF, null when the cartridge has none
+     */
+    private RandomAccessMemory programRAM;
+
 
 
     public NESCartridge_001(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwRWFlagCPU,
                             IntegerBus ppuAddressBus, IntegerBus ppuDataBus, RWFlag rwRWFlagPPU,
                             byte[] prgROM, byte[] prgRAM, byte[] chrROM,
                             NESNametableMirroring mirroring) throws CartridgeException {
+        this(addressBus, dataBus, rwRWFlagCPU, ppuAddressBus, ppuDataBus, rwRWFlagPPU,
+                prgROM, prgRAM, chrROM, mirroring, null);
+    }
+
+    /**
+     * Creates the cartridge with optional program RAM. When a save file is provided the program RAM is
+     * persisted to it, otherwise program RAM is only present when initial contents are provided.
+     * @param addressBus Main CPU address bus
+     * @param dataBus Main CPU data bus
+     * @param rwRWFlagCPU R/W Flag for the main CPU bus
+     * @param ppuAddressBus PPU Address bus
+     * @param ppuDataBus PPU Data Bus
+     * @param rwRWFlagPPU R/W Flag for PPU bus
+     * @param prgROM Program rom as byte array
+     * @param prgRAM Initial contents of program RAM, ignored when a save file is provided
+     * @param chrROM Character ROM
+     * @param mirroring Nametable mirroring mode
+     * @param prgRAMFile Save file to persist program RAM to, null for no persistence
+     * @throws CartridgeException Thrown when the ROM is invalid or memory could not be created
+     */
+    public NESCartridge_001(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwRWFlagCPU,
+                            IntegerBus ppuAddressBus, IntegerBus ppuDataBus, RWFlag rwRWFlagPPU,
+                            byte[] prgROM, byte[] prgRAM, byte[] chrROM,
+                            NESNametableMirroring mirroring, Path prgRAMFile) throws CartridgeException {
         super(addressBus, dataBus, rwRWFlagCPU, ppuAddressBus, ppuDataBus, rwRWFlagPPU, prgROM, prgRAM, chrROM);
 
         this.nametableMirror = new NametableMirror(mirroring);
@@ -49,30 +82,35 @@ public class NESCartridge_001 extends NESCartridge {
 
             int prgEnd = (prgROM.length == this.PRG_ROM_MAX_SIZE) ? this.PRG_ROM_END : this.MIRRORED_MASK;
 
-            /*
-             * Convert program rom to int[]
-             */
-            int[] convertedPrgRom = new int[prgROM.length];
-            for (int i = 0; i < prgROM.length; i++){
-                convertedPrgRom[i] = prgROM[i] & 0x000000FF;
-            }
-
             ReadOnlyMemory programROM = new ReadOnlyMemory(
                     new IntegerBus(16), new IntegerBus(8),
-                    new RWFlag(), this.PRG_ROM_START, prgEnd, convertedPrgRom );
+                    new RWFlag(), this.PRG_ROM_START, prgEnd, prgROM );
 
             internalRAMMapper = new MirroredMapper(this.addressBus, this.dataBus, rwRWFlagCPU, programROM,
                     this.PRG_ROM_START, this.PRG_ROM_END, prgEnd);
 
 
-            int[] convertedCharacterRom = new int[chrROM.length];
-            for (int i = 0; i < chrROM.length; i++) {
-                convertedCharacterRom[i] = chrROM[i] & 0x000000FF;
+            if (chrROM.length == 0) {
+                // No CHR ROM so the cartridge has CHR RAM instead
+                CharacterRandomAccessMemory characterRam = new CharacterRandomAccessMemory(ppuAddressBus,
+                        ppuDataBus, rwRWFlagPPU);
+                this.patternTableCache = new PatternTableCache(characterRam);
+                characterRam.setPatternTableCache(this.patternTableCache);
+            } else {
+                ReadOnlyMemory characterRom = new ReadOnlyMemory(ppuAddressBus,
+                        ppuDataBus, rwRWFlagPPU, 0x0000, 0x1FFF, chrROM);
+                this.patternTableCache = new PatternTableCache(characterRom);
             }
 
-            ReadOnlyMemory characterRom = new ReadOnlyMemory(ppuAddressBus,
-                    ppuDataBus, rwRWFlagPPU, 0x0000, 0x1FFF, convertedCharacterRom);
-
+            if (prgRAMFile != null) {
+                programRAM = new PersistentRandomAccessMemory(this.addressBus, this.dataBus, rwRWFlagCPU,
+                        this.PRG_RAM_START, this.PRG_RAM_END, prgRAMFile);
+            } else if (prgRAM.length > 0) {
+                programRAM = new RandomAccessMemory(this.addressBus, this.dataBus, rwRWFlagCPU,
+                        this.PRG_RAM_START, this.PRG_RAM_END);
+                for (int i = 0; i < prgRAM.length && i <= this.PRG_RAM_END - this.PRG_RAM_START; i++)
+                    programRAM.write(this.PRG_RAM_START + i, prgRAM[i]);
+            }
 
         } catch (MemoryException | InvalidBusWidthException ex) {
             throw new CartridgeException(ex.getMessage());
@@ -1,8 +1,33 @@
 package com.rosscon.llce.components.cartridges.NES;
 
 /**
- * Represents nametable mirroring mode
+ * Represents nametable mirroring mode, each mode maps the four logical nametables at
+ * 0x2000, 0x2400, 0x2800 and 0x2C00 to one of the four physical 1KB nametable banks.
+ * Banks 0 and 1 are the PPU's internal VRAM, banks 2 and 3 are only used for four screen
+ * VRAM provided by the cartridge.
  */
 public enum NESNametableMirroring {
-    HORIZONTAL, VERTICAL
+    HORIZONTAL(0, 0, 1, 1),
+    VERTICAL(0, 1, 0, 1),
+    SINGLE_SCREEN_A(0, 0, 0, 0),
+    SINGLE_SCREEN_B(1, 1, 1, 1),
+    FOUR_SCREEN(0, 1, 2, 3);
+
+    /**
+     * Physical bank of each logical nametable
+     */
+    private final int[] banks;
+
+    NESNametableMirroring(int... banks){
+        this.banks = banks;
+    }
+
+    /**
+     * Gets the physical bank a logical nametable is mapped to
+     * @param nametable logical nametable, 0 - 3
+     * @return physical bank, 0 - 3
+     */
+    public int getBank(int nametable){
+        return this.banks[nametable];
+    }
 }
@@ -3,20 +3,63 @@ package com.rosscon.llce.components.cartridges.NES;
 /**
  * Wrapper for how nametable mirroring is handles. This is to allow for extension
  * in more complex mappers where mirroring can change on the fly.
+ *
+ * Mirroring is held as a table mapping each of the four logical nametables to a physical 1KB bank.
+ * The PPU reads the table on every nametable access, mappers update it when they switch mirroring
+ * either by setting one of the standard modes or by setting banks individually.
  */
 public class NametableMirror {
 
+    /**
+     * Number of logical nametables
+     */
+    public static final int NAMETABLE_COUNT = 4;
+
     private NESNametableMirroring mirrorMode;
 
+    /**
+     * Physical bank of each logical nametable
+     */
+    private final int[] banks = new int[NAMETABLE_COUNT];
+
     public NametableMirror(){
-        this.mirrorMode = NESNametableMirroring.VERTICAL;
+        this(NESNametableMirroring.VERTICAL);
     }
 
     public NametableMirror(NESNametableMirroring mirrorMode){
-        this.mirrorMode = mirrorMode;
+        setMirrorMode(mirrorMode);
     }
 
     public NESNametableMirroring getMirrorMode() {
         return mirrorMode;
     }
+
+    /**
+     * Switches to one of the standard mirroring modes
+     * @param mirrorMode mirroring mode
+     */
+    public void setMirrorMode(NESNametableMirroring mirrorMode){
+        this.mirrorMode = mirrorMode;
+        for (int nametable = 0; nametable < NAMETABLE_COUNT; nametable++)
+            this.banks[nametable] = mirrorMode.getBank(nametable);
+    }
+
+    /**
+     * Maps a single logical nametable to a physical bank, for mappers with layouts other than
+     * the standard modes. The mirror mode is left as the last standard mode set.
+     * @param nametable logical nametable, 0 - 3
+     * @param bank physical bank, 0 - 3
+     */
+    public void setBank(int nametable, int bank){
+        this.banks[nametable & 0x03] = bank & 0x03;
+    }
+
+    /**
+     * Gets the table of physical banks indexed by logical nametable. The table is updated in place
+     * when mirroring changes so it can be held by the PPU.
+     * @return physical bank of each logical nametable
+     */
+    public int[] getBanks(){
+        return this.banks;
+    }
 }
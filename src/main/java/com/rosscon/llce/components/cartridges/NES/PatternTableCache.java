@@ -0,0 +1,141 @@
+package com.rosscon.llce.components.cartridges.NES;
+
+import com.rosscon.llce.components.memory.Memory;
+
+/**
+ * Pattern data from a cartridge's CHR ROM/RAM decoded ready for rendering.
+ *
+ * Each tile row is held in CHR as two bit planes 8 bytes apart, the PPU combines one bit from each plane
+ * to get the 2 bit pixel. Here every byte of CHR is decoded once into its pixel positions of a 16 bit row,
+ * pixel 0 (leftmost) is held in bits 15-14 down to pixel 7 in bits 1-0. The low plane sets the low bit of
+ * each pixel and the high plane the high bit, so a full row is the two decoded planes OR'd together.
+ * A horizontally flipped copy of each byte is also kept for sprites.
+ *
+ * Tiles are decoded when the cache is created, when CHR is written or a bank is switched the tiles that
+ * changed are invalidated and decoded again the next time they are read.
+ */
+public class PatternTableCache {
+
+    /**
+     * Size of the pattern tables on the PPU bus
+     */
+    public static final int PATTERN_TABLE_SIZE = 0x2000;
+
+    /**
+     * Number of bytes used by each tile
+     */
+    private static final int TILE_BYTES = 16;
+
+    /**
+     * Decoded planes for every byte value, indexed by plane (0 low, 1 high), flipped (0 no, 1 yes) then value
+     */
+    private static final int[][][] DECODED = new int[2][2][256];
+
+    static {
+        for (int value = 0; value < 256; value++){
+            for (int column = 0; column < 8; column++){
+                int bit = 0x80 >> column;
+                int position = 14 - (column << 1);
+                if ((value & bit) != 0){
+                    DECODED[0][0][value] |= 0b01 << position;
+                    DECODED[1][0][value] |= 0b10 << position;
+                }
+                if ((value & (0x01 << column)) != 0){
+                    DECODED[0][1][value] |= 0b01 << position;
+                    DECODED[1][1][value] |= 0b10 << position;
+                }
+            }
+        }
+    }
+
+    /**
+     * Memory the pattern data is read from
+     */
+    private final Memory characterMemory;
+
+    /**
+     * Decoded plane for each byte of the pattern tables
+     */
+    private final int[] planes = new int[PATTERN_TABLE_SIZE];
+
+    /**
+     * Horizontally flipped decoded plane for each byte of the pattern tables
+     */
+    private final int[] flippedPlanes = new int[PATTERN_TABLE_SIZE];
+
+    /**
+     * true for each tile that has changed since it was last decoded
+     */
+    private final boolean[] invalidTiles = new boolean[PATTERN_TABLE_SIZE / TILE_BYTES];
+
+    /**
+     * Creates a cache and decodes every tile
+     * @param characterMemory CHR ROM/RAM mapped at 0x0000 - 0x1FFF on the PPU bus
+     */
+    public PatternTableCache(Memory characterMemory){
+        this.characterMemory = characterMemory;
+        for (int tile = 0; tile < this.invalidTiles.length; tile++)
+            decodeTile(tile);
+    }
+
+    /**
+     * Decodes a byte of pattern data
+     * @param address address the byte was read from, bit 3 selects the low or high plane
+     * @param data byte of pattern data
+     * @param flipped true to flip the row horizontally
+     * @return decoded plane
+     */
+    public static int decode(int address, int data, boolean flipped){
+        return DECODED[(address >> 3) & 0x01][flipped ? 1 : 0][data & 0xFF];
+    }
+
+    /**
+     * Gets the decoded plane for a byte of pattern data
+     * @param address address of the byte in the pattern tables
+     * @return decoded plane
+     */
+    public int getPlane(int address){
+        address &= PATTERN_TABLE_SIZE - 1;
+        if (this.invalidTiles[address >> 4])
+            decodeTile(address >> 4);
+        return this.planes[address];
+    }
+
+    /**
+     * Gets the horizontally flipped decoded plane for a byte of pattern data
+     * @param address address of the byte in the pattern tables
+     * @return decoded plane flipped horizontally
+     */
+    public int getFlippedPlane(int address){
+        address &= PATTERN_TABLE_SIZE - 1;
+        if (this.invalidTiles[address >> 4])
+            decodeTile(address >> 4);
+        return this.flippedPlanes[address];
+    }
+
+    /**
+     * Invalidates every tile in an address range, called when CHR RAM is written or a CHR bank is switched
+     * @param firstAddress first address that changed
+     * @param lastAddress last address that changed
+     */
+    public void invalidate(int firstAddress, int lastAddress){
+        int first = Math.max(0, firstAddress) >> 4;
+        int last = Math.min(PATTERN_TABLE_SIZE - 1, lastAddress) >> 4;
+        for (int tile = first; tile <= last; tile++)
+            this.invalidTiles[tile] = true;
+    }
+
+    /**
+     * Decodes all 16 bytes of a tile from character memory
+     * @param tile tile number, 0 - 511
+     */
+    private void decodeTile(int tile){
+        int start = tile * TILE_BYTES;
+        for (int address = start; address < start + TILE_BYTES; address++){
+            int data = this.characterMemory.read(address);
+            this.planes[address] = decode(address, data, false);
+            this.flippedPlanes[address] = decode(address, data, true);
+        }
+        this.invalidTiles[tile] = false;
+    }
+}
@@ -1,28 +1,182 @@
 package com.rosscon.llce.components.clocks;
 
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * Clock that uses threads to keep running
+ *
+ * The clock can either free run, executing ticks as quickly as possible with an optional sleep between them,
+ * or be paced to real time. When paced a frame's worth of ticks is executed and the thread then parks until
+ * the next frame is due, frames are scheduled from a fixed deadline so small delays do not accumulate.
+ * A paused clock parks its thread until resumed and uses no CPU time.
  */
 public class ClockThreaded extends Clock implements Runnable {
 
     /**
-     * Time in milliseconds the clock will wait
+     * Number of frames the clock may fall behind by before it stops trying to catch up
+     */
+    private static final int MAX_FRAMES_BEHIND = 5;
+
+    /**
+     * Time in milliseconds the clock will wait between runs when free running, 0 = no wait
      */
     private int sleepTime;
 
+    /**
+     * Number of ticks executed per run when free running
+     */
+    protected long ticksPerRun;
+
+    /**
+     * Number of ticks in a frame when paced, 0 when free running
+     */
+    private final long ticksPerFrame;
+
+    /**
+     * Length of a frame in nanoseconds when paced
+     */
+    private final long nanosPerFrame;
+
+    /**
+     * Number of frames executed per frame of real time
+     */
+    private volatile int speedMultiplier;
+
+    /**
+     * true while the clock is paused
+     */
+    private volatile boolean paused;
+
+    /**
+     * false once the clock has been asked to stop
+     */
+    private volatile boolean running;
+
+    /**
+     * Thread running the clock, used to wake it when paused
+     */
+    private volatile Thread thread;
+
+    /**
+     * Creates a free running clock
+     * @param sleepTime Time in milliseconds to wait between ticks, 0 = no wait
+     */
     public ClockThreaded(int sleepTime){
         this.sleepTime = sleepTime;
+        this.ticksPerRun = 1;
+        this.ticksPerFrame = 0;
+        this.nanosPerFrame = 0;
+        this.speedMultiplier = 1;
+        this.running = true;
+    }
+
+    /**
+     * Creates a clock paced to real time
+     * @param ticksPerFrame Number of ticks to execute per frame
+     * @param frameRate Number of frames per second
+     */
+    public ClockThreaded(long ticksPerFrame, double frameRate){
+        this.sleepTime = 0;
+        this.ticksPerRun = 1;
+        this.ticksPerFrame = ticksPerFrame;
+        this.nanosPerFrame = Math.round(1_000_000_000d / frameRate);
+        this.speedMultiplier = 1;
+        this.running = true;
+    }
+
+    /**
+     * Sets how many frames are executed per frame of real time, 1 = real time. Only used when paced.
+     * @param speedMultiplier speed multiplier, minimum of 1
+     */
+    public void setSpeedMultiplier(int speedMultiplier){
+        this.speedMultiplier = Math.max(1, speedMultiplier);
+    }
+
+    /**
+     * Get the speed multiplier
+     * @return number of frames executed per frame of real time
+     */
+    public int getSpeedMultiplier(){
+        return this.speedMultiplier;
+    }
+
+    /**
+     * Pauses or resumes the clock. A paused clock finishes the current frame then waits without using any CPU time.
+     * @param paused true = pause, false = resume
+     */
+    public void setPaused(boolean paused){
+        this.paused = paused;
+        if (!paused)
+            LockSupport.unpark(this.thread);
+    }
+
+    /**
+     * Determine if the clock is paused
+     * @return true if paused
+     */
+    public boolean isPaused(){
+        return this.paused;
+    }
+
+    /**
+     * Stops the clock, the thread running it returns once the current frame has finished
+     */
+    public void stop(){
+        this.running = false;
+        LockSupport.unpark(this.thread);
     }
 
     @Override
     public void run() {
-        while(true){
+
+        this.thread = Thread.currentThread();
+        long deadline = System.nanoTime();
+
+        while(this.running){
+
+            if (this.paused){
+                LockSupport.park(this);
+                deadline = System.nanoTime();
+                continue;
+            }
+
             try {
-                this.tick();
+                if (this.ticksPerFrame > 0)
+                    this.tick(this.ticksPerFrame * this.speedMultiplier);
+                else
+                    this.tick(this.ticksPerRun);
             } catch (ClockException e) {
                 System.out.println("ERRRRRRRR");
                 e.printStackTrace();
             }
+
+            if (this.ticksPerFrame > 0){
+                deadline += this.nanosPerFrame;
+                deadline = waitUntil(deadline);
+            } else if (this.sleepTime > 0){
+                LockSupport.parkNanos(this, this.sleepTime * 1_000_000L);
+            }
+        }
+    }
+
+    /**
+     * Parks the thread until a deadline. If the clock has fallen too far behind the deadline is moved to now
+     * so that the clock does not run flat out trying to catch up.
+     * @param deadline time the next frame is due
+     * @return deadline of the next frame
+     */
+    private long waitUntil(long deadline){
+
+        long remaining = deadline - System.nanoTime();
+
+        if (remaining < -this.nanosPerFrame * MAX_FRAMES_BEHIND)
+            return System.nanoTime();
+
+        while (remaining > 0 && this.running && !this.paused){
+            LockSupport.parkNanos(this, remaining);
+            remaining = deadline - System.nanoTime();
         }
+
+        return deadline;
     }
 }
@@ -0,0 +1,311 @@
+package com.rosscon.llce.components.clocks;
+
+import com.rosscon.llce.components.clocks.dividers.Divider;
+import com.rosscon.llce.components.processors.Processor;
+import com.rosscon.llce.components.processors.ProcessorException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Threaded clock that runs processors in batches instead of broadcasting every tick.
+ *
+ * The scheduler expects to drive one or more dividers with processors attached. The processor on the
+ * slowest divider is the lead and is run for as many cycles as possible in one call, processors on the
+ * faster dividers follow behind and are only run when needed:
+ *  - before the lead would pass the next event a follower reports, for example the PPU raising an NMI
+ *  - when a follower is accessed by the lead, followers call synchronise() before touching their state
+ *  - at the end of each batch
+ *
+ * Each follower is always brought up to exactly the number of cycles it would have run if every tick had
+ * been broadcast, including the order dividers were attached in, so results match ticking one at a time.
+ *
+ * Any other arrangement of listeners, or dividers that are not a whole multiple of each other, falls back
+ * to ticking one at a time.
+ */
+public class Scheduler extends ClockThreaded {
+
+    /**
+     * Number of master ticks run per call to tick when free running as a thread
+     */
+    private static final long TICKS_PER_RUN = 1 << 18;
+
+    /**
+     * Maximum number of lead cycles run in a single batch
+     */
+    private static final long MAX_BATCH = 1 << 24;
+
+    /**
+     * Divider the lead processor is attached to
+     */
+    private Divider leadDivider;
+
+    /**
+     * Processor run in large batches
+     */
+    private Processor lead;
+
+    /**
+     * Lead cycle count at the start of the current batch
+     */
+    private long leadBase;
+
+    /**
+     * Processors that follow the lead
+     */
+    private final List<Follower> followers = new ArrayList<>();
+
+    /**
+     * true while a batch is being run
+     */
+    private boolean batching;
+
+    /**
+     * Creates a free running scheduler
+     * @param sleepTime Time in milliseconds to wait between batches, 0 = no wait
+     */
+    public Scheduler(int sleepTime){
+        super(sleepTime);
+        this.ticksPerRun = TICKS_PER_RUN;
+    }
+
+    /**
+     * Creates a scheduler paced to real time
+     * @param ticksPerFrame Number of master ticks to execute per frame
+     * @param frameRate Number of frames per second
+     */
+    public Scheduler(long ticksPerFrame, double frameRate){
+        super(ticksPerFrame, frameRate);
+    }
+
+    /**
+     * Executes a number of master ticks, running whole lead cycles in batches
+     * @param ticks number of ticks to execute
+     * @throws ClockException Thrown when a processor fails
+     */
+    @Override
+    public void tick(long ticks) throws ClockException {
+
+        if (!plan()){
+            super.tick(ticks);
+            return;
+        }
+
+        long remaining = ticks;
+
+        // Batches must start with every divider about to count from zero
+        while (remaining > 0 && !aligned()){
+            tick();
+            remaining--;
+        }
+
+        long leadCycles = remaining / this.leadDivider.getWaitCycles();
+        remaining -= leadCycles * this.leadDivider.getWaitCycles();
+
+        while (leadCycles > 0){
+            long batch = Math.min(leadCycles, MAX_BATCH);
+            runBatch(batch);
+            leadCycles -= batch;
+        }
+
+        for (; remaining > 0; remaining--){
+            tick();
+        }
+    }
+
+    /**
+     * Brings a follower up to the lead cycle currently being executed. Called by processors before their
+     * state is accessed, does nothing outside of a batch.
+     * @param processor Processor being accessed
+     * @throws ProcessorException Thrown when the processor fails while catching up
+     */
+    public void synchronise(Processor processor) throws ProcessorException {
+
+        if (!this.batching)
+            return;
+
+        for (Follower follower : this.followers){
+            if (follower.processor == processor){
+                long leadCycle = this.lead.getCycleCount() - this.leadBase;
+                catchUp(follower, leadCycle * follower.ratio - follower.offset);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Works out the lead and followers from the attached dividers
+     * @return true if the attached devices can be run in batches
+     */
+    private boolean plan(){
+
+        this.leadDivider = null;
+        this.lead = null;
+        this.followers.clear();
+
+        if (this.listeners.isEmpty())
+            return false;
+
+        for (ClockListener listener : this.listeners){
+            if (!(listener instanceof Divider))
+                return false;
+            Divider divider = (Divider) listener;
+            if (this.leadDivider == null || divider.getWaitCycles() > this.leadDivider.getWaitCycles())
+                this.leadDivider = divider;
+        }
+
+        List<ClockListener> leadListeners = this.leadDivider.getListeners();
+        if (leadListeners.size() != 1 || !(leadListeners.get(0) instanceof Processor))
+            return false;
+        this.lead = (Processor) leadListeners.get(0);
+
+        int leadIndex = this.listeners.indexOf(this.leadDivider);
+
+        for (int i = 0; i < this.listeners.size(); i++){
+            Divider divider = (Divider) this.listeners.get(i);
+            if (divider == this.leadDivider)
+                continue;
+            if (this.leadDivider.getWaitCycles() % divider.getWaitCycles() != 0)
+                return false;
+
+            for (ClockListener listener : divider.getListeners()){
+                if (!(listener instanceof Processor))
+                    return false;
+                this.followers.add(new Follower((Processor) listener,
+                        this.leadDivider.getWaitCycles() / divider.getWaitCycles(), i > leadIndex ? 1 : 0));
+            }
+        }
+
+        this.lead.setScheduler(this);
+        for (Follower follower : this.followers)
+            follower.processor.setScheduler(this);
+
+        return true;
+    }
+
+    /**
+     * Determine if every divider is about to start counting from zero
+     * @return true if all dividers are aligned
+     */
+    private boolean aligned(){
+        for (ClockListener listener : this.listeners){
+            if (((Divider) listener).getCurrentCycle() != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Runs the lead for a number of cycles, stopping short of follower events and keeping followers in step
+     * @param leadCycles number of lead cycles to run
+     * @throws ClockException Thrown when a processor fails
+     */
+    private void runBatch(long leadCycles) throws ClockException {
+
+        this.leadBase = this.lead.getCycleCount();
+        for (Follower follower : this.followers)
+            follower.base = follower.processor.getCycleCount();
+
+        this.batching = true;
+
+        try {
+            long done = 0;
+
+            while (done < leadCycles){
+
+                // Followers can always be run up to the point just before the next lead cycle
+                for (Follower follower : this.followers)
+                    catchUp(follower, (done + 1) * follower.ratio - follower.offset);
+
+                // Stop the lead before the cycle that would first see a follower event
+                long budget = leadCycles - done;
+                for (Follower follower : this.followers){
+                    int untilEvent = follower.processor.cyclesUntilNextEvent();
+                    if (untilEvent == Integer.MAX_VALUE)
+                        continue;
+                    long eventCycle = (follower.processor.getCycleCount() - follower.base) + untilEvent;
+                    long lastLeadCycle = (eventCycle - 1 + follower.offset) / follower.ratio;
+                    budget = Math.min(budget, lastLeadCycle - done);
+                }
+
+                this.lead.run((int) Math.max(1, budget));
+                done = this.lead.getCycleCount() - this.leadBase;
+            }
+
+            for (Follower follower : this.followers)
+                catchUp(follower, leadCycles * follower.ratio);
+
+        } catch (ProcessorException ex){
+            ClockException ce = new ClockException(ex.getMessage());
+            ce.addSuppressed(ex);
+            throw ce;
+        } finally {
+            this.batching = false;
+        }
+    }
+
+    /**
+     * Runs a follower until it has run a number of cycles since the start of the batch
+     * @param follower follower to run
+     * @param target number of cycles the follower should have run
+     * @throws ProcessorException Thrown when the follower fails
+     */
+    private void catchUp(Follower follower, long target) throws ProcessorException {
+
+        if (follower.running)
+            return;
+
+        long behind = target - (follower.processor.getCycleCount() - follower.base);
+        if (behind <= 0)
+            return;
+
+        follower.running = true;
+        try {
+            while (behind > 0){
+                int ran = follower.processor.run((int) Math.min(behind, Integer.MAX_VALUE));
+                if (ran <= 0)
+                    break;
+                behind -= ran;
+            }
+        } finally {
+            follower.running = false;
+        }
+    }
+
+    /**
+     * Processor following the lead
+     */
+    private static final class Follower {
+
+        /**
+         * Processor being run
+         */
+        private final Processor processor;
+
+        /**
+         * Number of follower cycles per lead cycle
+         */
+        private final int ratio;
+
+        /**
+         * 1 when the follower's divider ticks after the lead's divider, the lead then runs one follower cycle early
+         */
+        private final int offset;
+
+        /**
+         * Follower cycle count at the start of the current batch
+         */
+        private long base;
+
+        /**
+         * true while the follower is being run, prevents catching up from inside itself
+         */
+        private boolean running;
+
+        private Follower(Processor processor, int ratio, int offset){
+            this.processor = processor;
+            this.ratio = ratio;
+            this.offset = offset;
+        }
+    }
+}
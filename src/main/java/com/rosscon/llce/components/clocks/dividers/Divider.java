@@ -5,18 +5,21 @@ import com.rosscon.llce.components.clocks.ClockException;
 import com.rosscon.llce.components.clocks.ClockListener;
 import com.rosscon.llce.components.processors.ProcessorException;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Basic clock divider, to any observer is a clock
  */
 public class Divider extends Clock implements ClockListener {
 
     /**
-     *
+     * Number of ticks of the source clock per tick of this divider
      */
     private int waitCycles;
 
     /**
-     *
+     * Ticks of the source clock since this divider last ticked
      */
     private int currentCycle;
 
@@ -42,4 +45,28 @@ public class Divider extends Clock implements ClockListener {
         }
 
     }
+
+    /**
+     * Get the number of ticks of the source clock per tick of this divider
+     * @return divide ratio
+     */
+    public int getWaitCycles(){
+        return this.waitCycles;
+    }
+
+    /**
+     * Get the number of ticks of the source clock since this divider last ticked
+     * @return current position within the divide ratio
+     */
+    public int getCurrentCycle(){
+        return this.currentCycle;
+    }
+
+    /**
+     * Get the devices attached to this divider
+     * @return attached listeners
+     */
+    public List<ClockListener> getListeners(){
+        return Collections.unmodifiableList(this.listeners);
+    }
 }
@@ -7,8 +7,9 @@ import com.rosscon.llce.components.flags.Flag;
 import com.rosscon.llce.components.flags.FlagException;
 import com.rosscon.llce.components.flags.RWFlag;
 import com.rosscon.llce.components.flags.FlagListener;
+import com.rosscon.llce.components.memory.MemoryDevice;
 
-public abstract class NESController implements FlagListener {
+public abstract class NESController implements FlagListener, MemoryDevice {
 
     /**
      * Address Constants
@@ -65,7 +66,6 @@ public abstract class NESController implements FlagListener {
 
 
     public NESController(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag, int player){
-        rwFlag.addListener(this);
         this.addressBus = addressBus;
         this.dataBus = dataBus;
         this.player = player;
@@ -76,6 +76,8 @@ public abstract class NESController implements FlagListener {
             this.address = PLAYER_2_ADDRESS;
         else
             this.address = 0;
+
+        rwFlag.addListener(this, this.address, this.address);
     }
 
     @Override
@@ -83,12 +85,9 @@ public abstract class NESController implements FlagListener {
 
         try {
             if (addressBus.readDataFromBus() == this.address && flag.getFlagValue() == RWFlag.WRITE) {
-                snapshotInput();
-                count = 0;
+                write(this.address, dataBus.readDataFromBus());
             } else if (addressBus.readDataFromBus() == this.address && flag.getFlagValue() == RWFlag.READ) {
-                dataBus.writeDataToBus((switchState >>> count) & 0x01);
-                count++;
-                if (count > 7) count = 0;
+                dataBus.writeDataToBus(read(this.address));
             }
         } catch (InvalidBusDataException be) {
             be.printStackTrace();
@@ -100,6 +99,34 @@ public abstract class NESController implements FlagListener {
         }
     }
 
+    /**
+     * Reads the next button from the snapshot, each read shifts to the next button
+     * @param address address to read
+     * @return state of the next button or 0x00 if not the controllers address
+     */
+    @Override
+    public int read(int address) {
+        if (address != this.address) return 0x00;
+
+        int value = (switchState >>> count) & 0x01;
+        count++;
+        if (count > 7) count = 0;
+        return value;
+    }
+
+    /**
+     * Writing to the controller takes a snapshot of the current input
+     * @param address address to write to
+     * @param value value to write
+     */
+    @Override
+    public void write(int address, int value) {
+        if (address != this.address) return;
+
+        snapshotInput();
+        count = 0;
+    }
+
     /**
      * Instructs the controller to store the current state of the controller input
      */
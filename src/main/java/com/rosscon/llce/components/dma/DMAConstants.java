@@ -0,0 +1,29 @@
+package com.rosscon.llce.components.dma;
+
+/**
+ * Constants for DMA
+ */
+public class DMAConstants {
+
+    /**
+     * Size of a page, the unit sources are mapped in
+     */
+    public static final int PAGE_SIZE = 0x100;
+
+    /**
+     * Number of pages in a 16 bit address space
+     */
+    public static final int PAGE_COUNT = 0x100;
+
+    /**
+     * Error Messages
+     */
+    public static final String EX_UNMAPPED_SOURCE =
+            "DMA source address is not mapped to memory and there is no device to read it through";
+
+    public static final String EX_READ_FAIL =
+            "DMA failed to read from the source device";
+
+    public static final String EX_INVALID_PAGES =
+            "DMA pages must be within the address space and backed by a whole number of pages";
+}
@@ -0,0 +1,162 @@
+package com.rosscon.llce.components.dma;
+
+import com.rosscon.llce.components.memory.MemoryDevice;
+import com.rosscon.llce.components.memory.MemoryException;
+import com.rosscon.llce.components.processors.Processor;
+
+/**
+ * Copies blocks of memory on behalf of another component while stealing cycles from the processor that
+ * owns the bus.
+ *
+ * Pages of the processor's address space can be mapped onto the backing store of the memory behind them,
+ * those pages are copied with System.arraycopy. Pages that are not mapped, such as registers or mapper
+ * controlled ROM, are read a byte at a time through a memory device. The bus time a transfer takes is not
+ * spent copying, it is charged to the processor in one step as cycles it must sit out.
+ *
+ * Clients decide how many cycles each transfer steals, NES OAM DMA copies a page and steals 513 or 514
+ * cycles, DMC sample fetches read a single byte and steal a few.
+ */
+public class DMAController {
+
+    /**
+     * Processor whose cycles are stolen
+     */
+    private final Processor processor;
+
+    /**
+     * Device unmapped pages are read through, may be null
+     */
+    private final MemoryDevice device;
+
+    /**
+     * Backing store and offset into it of each mapped page
+     */
+    private final byte[][] pageStores;
+    private final int[] pageOffsets;
+
+    /**
+     * Total cycles stolen from the processor
+     */
+    private long stolenCycles;
+
+    /**
+     * Creates a DMA controller
+     * @param processor processor whose cycles are stolen
+     * @param device device to read unmapped pages through, null if every source page is mapped
+     */
+    public DMAController(Processor processor, MemoryDevice device){
+        this.processor = processor;
+        this.device = device;
+        this.pageStores = new byte[DMAConstants.PAGE_COUNT][];
+        this.pageOffsets = new int[DMAConstants.PAGE_COUNT];
+    }
+
+    /**
+     * Maps a range of pages onto a backing store so they are copied directly from it. Pages are laid out in
+     * order from the start of the store and repeat when the range is larger than the store, so mirrors of the
+     * same memory can be mapped in one call.
+     * @param firstPage first page, 0x00 - 0xFF
+     * @param lastPage last page, 0x00 - 0xFF
+     * @param store memory backing the pages, a whole number of pages long
+     * @throws MemoryException Thrown when the pages are out of range or the store is not a whole number of pages
+     */
+    public void mapPages(int firstPage, int lastPage, byte[] store) throws MemoryException {
+
+        if (firstPage < 0 || lastPage >= DMAConstants.PAGE_COUNT || lastPage < firstPage
+                || store == null || store.length == 0 || (store.length % DMAConstants.PAGE_SIZE) != 0)
+            throw new MemoryException(DMAConstants.EX_INVALID_PAGES);
+
+        for (int page = firstPage; page <= lastPage; page++){
+            this.pageStores[page] = store;
+            this.pageOffsets[page] = ((page - firstPage) * DMAConstants.PAGE_SIZE) % store.length;
+        }
+    }
+
+    /**
+     * Copies a block of memory without stealing any cycles
+     * @param sourceAddress address of the first byte in the processor's address space
+     * @param destination array to copy into
+     * @param destinationOffset index of the first byte copied into
+     * @param length number of bytes to copy
+     * @throws MemoryException Thrown when part of the source can not be read
+     */
+    public void copy(int sourceAddress, byte[] destination, int destinationOffset, int length) throws MemoryException {
+
+        while (length > 0){
+            int page = (sourceAddress >> 8) & (DMAConstants.PAGE_COUNT - 1);
+            int inPage = sourceAddress & (DMAConstants.PAGE_SIZE - 1);
+            int count = Math.min(length, DMAConstants.PAGE_SIZE - inPage);
+
+            byte[] store = this.pageStores[page];
+            if (store != null){
+                System.arraycopy(store, this.pageOffsets[page] + inPage, destination, destinationOffset, count);
+            } else {
+                for (int i = 0; i < count; i++)
+                    destination[destinationOffset + i] = (byte) readDevice(sourceAddress + i);
+            }
+
+            sourceAddress = (sourceAddress + count) & 0xFFFF;
+            destinationOffset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Reads a single byte without stealing any cycles
+     * @param address address in the processor's address space
+     * @return value read
+     * @throws MemoryException Thrown when the address can not be read
+     */
+    public int read(int address) throws MemoryException {
+        int page = (address >> 8) & (DMAConstants.PAGE_COUNT - 1);
+        byte[] store = this.pageStores[page];
+        if (store != null)
+            return store[this.pageOffsets[page] + (address & (DMAConstants.PAGE_SIZE - 1))] & 0xFF;
+        return readDevice(address);
+    }
+
+    /**
+     * Reads a byte from an unmapped page through the device
+     * @param address address to read
+     * @return value read
+     * @throws MemoryException Thrown when there is no device or the read fails
+     */
+    private int readDevice(int address) throws MemoryException {
+        if (this.device == null)
+            throw new MemoryException(DMAConstants.EX_UNMAPPED_SOURCE);
+        try {
+            return this.device.read(address & 0xFFFF) & 0xFF;
+        } catch (MemoryException e){
+            MemoryException me = new MemoryException(DMAConstants.EX_READ_FAIL);
+            me.addSuppressed(e);
+            throw me;
+        }
+    }
+
+    /**
+     * Charges cycles used by a transfer to the processor, it sits them out once its current operation completes
+     * @param cycles number of cycles stolen
+     */
+    public void steal(int cycles){
+        this.processor.stall(cycles);
+        this.stolenCycles += cycles;
+    }
+
+    /**
+     * Determine if the processor is on an odd cycle, transfers that have to line up with the processor's read
+     * and write cycles take an extra cycle to start on an odd one. Only cycles executed through run are
+     * counted, a processor ticked one cycle at a time is always on an even cycle.
+     * @return true if the processor's cycle count is odd
+     */
+    public boolean isOddCycle(){
+        return (this.processor.getCycleCount() & 1) != 0;
+    }
+
+    /**
+     * Get the total cycles stolen from the processor
+     * @return number of cycles
+     */
+    public long getStolenCycles(){
+        return this.stolenCycles;
+    }
+}
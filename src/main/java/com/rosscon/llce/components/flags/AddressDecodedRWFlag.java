@@ -0,0 +1,256 @@
+package com.rosscon.llce.components.flags;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusDataException;
+import com.rosscon.llce.components.memory.MemoryDevice;
+import com.rosscon.llce.components.memory.MemoryException;
+
+import java.util.Arrays;
+
+/**
+ * RW flag that decodes the address bus before notifying listeners.
+ *
+ * A plain RW flag broadcasts every read and write to every attached device, each device then reads
+ * the address bus and discards the access if it is out of range. Here devices register the address
+ * range they respond to once and the flag builds a 256 entry page table from those ranges, each access
+ * is delivered straight to the devices owning the page being accessed.
+ *
+ * Listeners added without a range are still notified of every access so existing wiring keeps working.
+ *
+ * The flag can also be used directly as a memory device. Reads and writes are passed straight to the
+ * owning device when it implements MemoryDevice, otherwise the access falls back to driving the busses
+ * and notifying listeners as a processor would.
+ */
+public class AddressDecodedRWFlag extends RWFlag implements MemoryDevice {
+
+    /**
+     * Number of entries in the page table
+     */
+    private static final int PAGE_COUNT = 256;
+
+    /**
+     * Shared entry for pages that have no devices attached
+     */
+    private static final Decoding[] EMPTY_PAGE = new Decoding[0];
+
+    /**
+     * Address bus used to decode each access
+     */
+    private final IntegerBus addressBus;
+
+    /**
+     * Data bus used when an access falls back to the bus and flag path
+     */
+    private final IntegerBus dataBus;
+
+    /**
+     * Number of bits to shift an address by to get its page
+     */
+    private final int pageShift;
+
+    /**
+     * Mask of all addressable bits on the address bus
+     */
+    private final int addressMask;
+
+    /**
+     * Page table, each page holds the devices that respond to at least one address in the page
+     */
+    private final Decoding[][] pages;
+
+
+    /**
+     * Creates a decoding RW flag for an address bus. The bus is split into 256 equally sized pages,
+     * for a 16 bit bus each page is 256 bytes.
+     * @param addressBus Address bus to decode
+     * @param dataBus Data bus the attached devices read from and write to
+     */
+    public AddressDecodedRWFlag(IntegerBus addressBus, IntegerBus dataBus){
+        super();
+        this.addressBus = addressBus;
+        this.dataBus = dataBus;
+
+        int busWidth = addressBus.getBusWidth();
+        this.pageShift = Math.max(0, busWidth - 8);
+        this.addressMask = 0xFFFFFFFF >>> (32 - busWidth);
+
+        this.pages = new Decoding[Math.min(PAGE_COUNT, (addressMask >>> pageShift) + 1)][];
+        Arrays.fill(this.pages, EMPTY_PAGE);
+    }
+
+    /**
+     * Adds a listener to every page covered by the address range. Listeners previously added without
+     * a range are moved into the page table. The range is clamped to the width of the address bus.
+     * @param toAdd Listener to be notified of flag changes
+     * @param firstAddress First address the listener responds to
+     * @param lastAddress Last address the listener responds to
+     */
+    @Override
+    public void addListener(FlagListener toAdd, int firstAddress, int lastAddress){
+
+        this.listeners.remove(toAdd);
+
+        int first = Math.max(0, firstAddress);
+        int last = Math.min(this.addressMask, lastAddress);
+        if (first > last) return;
+
+        Decoding decoding = new Decoding(toAdd, first, last);
+
+        for (int page = first >>> this.pageShift; page <= last >>> this.pageShift; page++){
+            Decoding[] current = this.pages[page];
+            Decoding[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = decoding;
+            this.pages[page] = updated;
+        }
+    }
+
+    /**
+     * Sets the flags value and notifies only the listeners whose range contains the address on the bus,
+     * followed by any listeners that were added without a range
+     * @param flagValue new flag value
+     */
+    @Override
+    public void setFlagValue(int flagValue) throws FlagException {
+
+        this.flagValue = flagValue;
+
+        int address = this.addressBus.readDataFromBus();
+
+        for (Decoding decoding : this.pages[address >>> this.pageShift]){
+            if (address >= decoding.firstAddress && address <= decoding.lastAddress)
+                notifyListener(decoding.listener);
+        }
+
+        for (FlagListener fl : this.listeners){
+            notifyListener(fl);
+        }
+    }
+
+    /**
+     * Reads directly from the device owning the address. Falls back to the bus and flag path when the
+     * owning device can not be accessed directly or listeners without a range are attached.
+     * @param address address to read
+     * @return data held at the address or 0x00 when no device owns the address
+     * @throws MemoryException Thrown when the device fails to read
+     */
+    @Override
+    public int read(int address) throws MemoryException {
+
+        address &= this.addressMask;
+
+        if (!this.listeners.isEmpty())
+            return readThroughBus(address);
+
+        for (Decoding decoding : this.pages[address >>> this.pageShift]) {
+            if (address >= decoding.firstAddress && address <= decoding.lastAddress) {
+                if (decoding.device == null)
+                    return readThroughBus(address);
+                return decoding.device.read(address);
+            }
+        }
+
+        return 0x00;
+    }
+
+    /**
+     * Writes directly to every device owning the address. Falls back to the bus and flag path when an
+     * owning device can not be accessed directly or listeners without a range are attached.
+     * @param address address to write to
+     * @param value value to write
+     * @throws MemoryException Thrown when a device fails to write
+     */
+    @Override
+    public void write(int address, int value) throws MemoryException {
+
+        address &= this.addressMask;
+
+        Decoding[] decodings = this.pages[address >>> this.pageShift];
+        boolean direct = this.listeners.isEmpty();
+
+        for (int i = 0; direct && i < decodings.length; i++) {
+            if (decodings[i].device == null
+                    && address >= decodings[i].firstAddress && address <= decodings[i].lastAddress)
+                direct = false;
+        }
+
+        if (!direct) {
+            writeThroughBus(address, value);
+            return;
+        }
+
+        for (Decoding decoding : decodings) {
+            if (address >= decoding.firstAddress && address <= decoding.lastAddress)
+                decoding.device.write(address, value);
+        }
+    }
+
+    /**
+     * Reads by driving the busses and notifying listeners in the same way a processor would
+     * @param address address to read
+     * @return value left on the data bus
+     * @throws MemoryException Thrown when a listener fails
+     */
+    private int readThroughBus(int address) throws MemoryException {
+        try {
+            this.dataBus.writeDataToBus(0x00);
+            this.addressBus.writeDataToBus(address);
+            setFlagValue(RWFlag.READ);
+        } catch (InvalidBusDataException | FlagException e) {
+            MemoryException me = new MemoryException(e.getMessage());
+            me.addSuppressed(e);
+            throw me;
+        }
+        return this.dataBus.readDataFromBus();
+    }
+
+    /**
+     * Writes by driving the busses and notifying listeners in the same way a processor would
+     * @param address address to write to
+     * @param value value to write
+     * @throws MemoryException Thrown when a listener fails
+     */
+    private void writeThroughBus(int address, int value) throws MemoryException {
+        try {
+            this.dataBus.writeDataToBus(value);
+            this.addressBus.writeDataToBus(address);
+            setFlagValue(RWFlag.WRITE);
+        } catch (InvalidBusDataException | FlagException e) {
+            MemoryException me = new MemoryException(e.getMessage());
+            me.addSuppressed(e);
+            throw me;
+        }
+    }
+
+    /**
+     * Notifies a single listener wrapping any failure in a flag exception
+     * @param listener Listener to notify
+     * @throws FlagException Thrown when the listener fails to handle the change
+     */
+    private void notifyListener(FlagListener listener) throws FlagException {
+        try {
+            listener.onFlagChange(this);
+        } catch (Exception ex){
+            FlagException fx = new FlagException(ex.getMessage());
+            fx.addSuppressed(ex);
+            throw fx;
+        }
+    }
+
+    /**
+     * Address range registered by a listener
+     */
+    private static final class Decoding {
+
+        private final FlagListener listener;
+        private final MemoryDevice device;
+        private final int firstAddress;
+        private final int lastAddress;
+
+        private Decoding(FlagListener listener, int firstAddress, int lastAddress){
+            this.listener = listener;
+            this.device = (listener instanceof MemoryDevice) ? (MemoryDevice) listener : null;
+            this.firstAddress = firstAddress;
+            this.lastAddress = lastAddress;
+        }
+    }
+}
@@ -10,4 +10,17 @@ public class RWFlag extends Flag{
      */
     public static final int READ    = 2;
     public static final int WRITE   = 3;
+
+    /**
+     * Allows a listener to request to be notified on flag change for accesses to an address range.
+     * A plain RW flag has no knowledge of the address bus so the listener is notified of every access,
+     * flags that decode the address bus can use the range to only notify the owning device.
+     * @param toAdd Listener to be notified of flag changes
+     * @param firstAddress First address the listener responds to
+     * @param lastAddress Last address the listener responds to
+     */
+    public void addListener(FlagListener toAdd, int firstAddress, int lastAddress){
+        if (!listeners.contains(toAdd))
+            addListener(toAdd);
+    }
 }
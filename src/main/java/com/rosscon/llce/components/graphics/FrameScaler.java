@@ -0,0 +1,280 @@
+package com.rosscon.llce.components.graphics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Scales frames up by a whole number factor for display.
+ *
+ * The source frame is split into bands of scanlines that are scaled in parallel on a small fork join pool.
+ * Nearest neighbour scaling builds each output row once then copies it for the repeated rows, Scale2x and
+ * Scale3x look at each pixel's neighbours to keep edges sharp instead of blocky.
+ * https://www.scale2x.it/algorithm
+ *
+ * Frames can be scaled directly with scale, or submitted to be scaled off the calling thread with the result
+ * published to a triple buffer of scaled frames.
+ */
+public class FrameScaler {
+
+    /**
+     * Number of source rows scaled by each task
+     */
+    private static final int ROWS_PER_BAND = 16;
+
+    private final int width;
+    private final int height;
+    private final ScalingFilter filter;
+    private final int factor;
+
+    /**
+     * Pool the bands are scaled on
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Scaled frames, filled by frames submitted to be scaled
+     */
+    private final TripleBuffer<int[]> scaledFrames;
+
+    /**
+     * true while a submitted frame is being scaled
+     */
+    private final AtomicBoolean busy = new AtomicBoolean(false);
+
+    /**
+     * Creates a scaler using up to 4 threads
+     * @param width width of source frames
+     * @param height height of source frames
+     * @param filter filter to scale with
+     * @param factor scale factor for nearest neighbour, Scale2x and Scale3x always use 2 and 3
+     */
+    public FrameScaler(int width, int height, ScalingFilter filter, int factor){
+        this(width, height, filter, factor, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Creates a scaler
+     * @param width width of source frames
+     * @param height height of source frames
+     * @param filter filter to scale with
+     * @param factor scale factor for nearest neighbour, Scale2x and Scale3x always use 2 and 3
+     * @param parallelism number of threads to scale bands on
+     */
+    public FrameScaler(int width, int height, ScalingFilter filter, int factor, int parallelism){
+
+        this.width = width;
+        this.height = height;
+        this.filter = filter;
+        this.factor = filter.getFactor(factor);
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.scaledFrames = new TripleBuffer<>(() -> new int[getScaledWidth() * getScaledHeight()]);
+    }
+
+    public int getScaledWidth(){
+        return this.width * this.factor;
+    }
+
+    public int getScaledHeight(){
+        return this.height * this.factor;
+    }
+
+    /**
+     * Gets the frames scaled after being submitted
+     * @return scaled frames
+     */
+    public TripleBuffer<int[]> getScaledFrames(){
+        return this.scaledFrames;
+    }
+
+    /**
+     * Determine if a submitted frame is still being scaled. Submitted frames must not be changed until
+     * scaling has finished.
+     * @return true while scaling
+     */
+    public boolean isBusy(){
+        return this.busy.get();
+    }
+
+    /**
+     * Scales a frame on the scaler's threads without waiting, the result is published to the scaled frames
+     * @param source frame to scale, must not be changed until no longer busy
+     * @return true if the frame was submitted, false if the previous frame is still being scaled
+     */
+    public boolean submit(int[] source){
+
+        if (!this.busy.compareAndSet(false, true))
+            return false;
+
+        this.pool.execute(() -> {
+            try {
+                scale(source, this.scaledFrames.getBackBuffer());
+                this.scaledFrames.publish();
+            } finally {
+                this.busy.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Scales a frame, waiting for every band to be scaled
+     * @param source frame to scale
+     * @param destination buffer to hold the scaled frame
+     */
+    public void scale(int[] source, int[] destination){
+
+        List<RecursiveAction> bands = new ArrayList<>();
+        for (int first = 0; first < this.height; first += ROWS_PER_BAND){
+            int bandFirst = first;
+            int bandLast = Math.min(this.height, first + ROWS_PER_BAND);
+            bands.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    scaleRows(source, destination, bandFirst, bandLast);
+                }
+            });
+        }
+
+        RecursiveAction all = new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(bands);
+            }
+        };
+
+        if (ForkJoinTask.getPool() == this.pool)
+            all.invoke();
+        else
+            this.pool.invoke(all);
+    }
+
+    /**
+     * Scales a band of source rows
+     * @param source frame to scale
+     * @param destination buffer to hold the scaled frame
+     * @param first first source row
+     * @param last source row after the last one to scale
+     */
+    private void scaleRows(int[] source, int[] destination, int first, int last){
+        switch (this.filter){
+            case SCALE2X:
+                for (int y = first; y < last; y++)
+                    scale2xRow(source, destination, y);
+                break;
+            case SCALE3X:
+                for (int y = first; y < last; y++)
+                    scale3xRow(source, destination, y);
+                break;
+            default:
+                for (int y = first; y < last; y++)
+                    nearestRow(source, destination, y);
+                break;
+        }
+    }
+
+    /**
+     * Repeats each pixel of a row across then copies the row down
+     */
+    private void nearestRow(int[] source, int[] destination, int y){
+
+        int scaledWidth = this.width * this.factor;
+        int out = y * this.factor * scaledWidth;
+        int in = y * this.width;
+
+        for (int x = 0; x < this.width; x++){
+            int pixel = source[in + x];
+            for (int i = 0; i < this.factor; i++)
+                destination[out++] = pixel;
+        }
+
+        int rowStart = y * this.factor * scaledWidth;
+        for (int i = 1; i < this.factor; i++)
+            System.arraycopy(destination, rowStart, destination, rowStart + i * scaledWidth, scaledWidth);
+    }
+
+    /**
+     * Scale2x of a row, pixels on the edge of the frame use themselves as the missing neighbours
+     *   B       E0 E1
+     * D E F  -> E2 E3
+     *   H
+     */
+    private void scale2xRow(int[] source, int[] destination, int y){
+
+        int scaledWidth = this.width * 2;
+        int row = y * this.width;
+        int above = (y > 0) ? row - this.width : row;
+        int below = (y < this.height - 1) ? row + this.width : row;
+        int out0 = y * 2 * scaledWidth;
+        int out1 = out0 + scaledWidth;
+
+        for (int x = 0; x < this.width; x++){
+
+            int e = source[row + x];
+            int b = source[above + x];
+            int h = source[below + x];
+            int d = (x > 0) ? source[row + x - 1] : e;
+            int f = (x < this.width - 1) ? source[row + x + 1] : e;
+
+            int o = x * 2;
+            if (b != h && d != f){
+                destination[out0 + o]     = (d == b) ? d : e;
+                destination[out0 + o + 1] = (b == f) ? f : e;
+                destination[out1 + o]     = (d == h) ? d : e;
+                destination[out1 + o + 1] = (h == f) ? f : e;
+            } else {
+                destination[out0 + o]     = e;
+                destination[out0 + o + 1] = e;
+                destination[out1 + o]     = e;
+                destination[out1 + o + 1] = e;
+            }
+        }
+    }
+
+    /**
+     * Scale3x of a row, pixels on the edge of the frame use themselves as the missing neighbours
+     * A B C     E0 E1 E2
+     * D E F  -> E3 E4 E5
+     * G H I     E6 E7 E8
+     */
+    private void scale3xRow(int[] source, int[] destination, int y){
+
+        int scaledWidth = this.width * 3;
+        int row = y * this.width;
+        int above = (y > 0) ? row - this.width : row;
+        int below = (y < this.height - 1) ? row + this.width : row;
+        int out0 = y * 3 * scaledWidth;
+        int out1 = out0 + scaledWidth;
+        int out2 = out1 + scaledWidth;
+
+        for (int x = 0; x < this.width; x++){
+
+            int left = (x > 0) ? x - 1 : x;
+            int right = (x < this.width - 1) ? x + 1 : x;
+
+            int a = source[above + left], b = source[above + x], c = source[above + right];
+            int d = source[row + left],   e = source[row + x],   f = source[row + right];
+            int g = source[below + left], h = source[below + x], i = source[below + right];
+
+            int o = x * 3;
+            if (b != h && d != f){
+                destination[out0 + o]     = (d == b) ? d : e;
+                destination[out0 + o + 1] = ((d == b && e != c) || (b == f && e != a)) ? b : e;
+                destination[out0 + o + 2] = (b == f) ? f : e;
+                destination[out1 + o]     = ((d == b && e != g) || (d == h && e != a)) ? d : e;
+                destination[out1 + o + 1] = e;
+                destination[out1 + o + 2] = ((b == f && e != i) || (h == f && e != c)) ? f : e;
+                destination[out2 + o]     = (d == h) ? d : e;
+                destination[out2 + o + 1] = ((d == h && e != i) || (h == f && e != g)) ? h : e;
+                destination[out2 + o + 2] = (h == f) ? f : e;
+            } else {
+                destination[out0 + o] = destination[out0 + o + 1] = destination[out0 + o + 2] = e;
+                destination[out1 + o] = destination[out1 + o + 1] = destination[out1 + o + 2] = e;
+                destination[out2 + o] = destination[out2 + o + 1] = destination[out2 + o + 2] = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.rosscon.llce.components.graphics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which frames are drawn when a graphics processor is allowed to skip frames.
+ *
+ * A fixed skipper draws one frame then skips a set number. An adaptive skipper gives each frame a wall clock
+ * budget and skips the next frame whenever emulation has fallen behind, up to a maximum run of skipped frames
+ * before one is drawn regardless. Skipped frames still run their timing, only drawing the picture is left out.
+ */
+public class FrameSkipper {
+
+    /**
+     * Frames skipped after each drawn frame when fixed
+     */
+    private final int fixedSkip;
+
+    /**
+     * Wall clock time each frame should take in nanoseconds when adaptive, 0 when fixed
+     */
+    private final long frameBudget;
+
+    /**
+     * Most frames skipped in a row when adaptive
+     */
+    private final int maxSkip;
+
+    /**
+     * Wall clock time in nanoseconds
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Time the frame just finished should have finished by when adaptive
+     */
+    private long deadline;
+    private boolean started;
+
+    /**
+     * Frames skipped since the last drawn frame
+     */
+    private int skipped;
+
+    private long drawnFrameCount;
+    private long skippedFrameCount;
+
+    /**
+     * Creates a skipper that draws one frame in every skip + 1
+     * @param skip number of frames to skip after each drawn frame
+     */
+    public FrameSkipper(int skip){
+        this.fixedSkip = Math.max(0, skip);
+        this.frameBudget = 0;
+        this.maxSkip = 0;
+        this.clock = System::nanoTime;
+        this.skipped = this.fixedSkip;
+    }
+
+    /**
+     * Creates a skipper that skips frames while emulation is behind the wall clock
+     * @param frameBudget wall clock time each frame should take in nanoseconds
+     * @param maxSkip most frames to skip in a row
+     */
+    public FrameSkipper(long frameBudget, int maxSkip){
+        this(frameBudget, maxSkip, System::nanoTime);
+    }
+
+    /**
+     * Creates a skipper that skips frames while emulation is behind a clock
+     * @param frameBudget time each frame should take in nanoseconds
+     * @param maxSkip most frames to skip in a row
+     * @param clock time in nanoseconds
+     */
+    FrameSkipper(long frameBudget, int maxSkip, LongSupplier clock){
+        this.fixedSkip = 0;
+        this.frameBudget = Math.max(1, frameBudget);
+        this.maxSkip = Math.max(0, maxSkip);
+        this.clock = clock;
+    }
+
+    /**
+     * Decides whether the next frame is drawn, called once at the start of each frame
+     * @return true to draw the frame, false to skip it
+     */
+    public boolean nextFrame(){
+
+        boolean draw;
+
+        if (this.frameBudget == 0){
+            draw = this.skipped >= this.fixedSkip;
+        } else {
+            long now = this.clock.getAsLong();
+
+            if (!this.started){
+                this.started = true;
+                this.deadline = now;
+                draw = true;
+            } else {
+                this.deadline += this.frameBudget;
+                boolean behind = now > this.deadline;
+                draw = !behind || this.skipped >= this.maxSkip;
+
+                // Too far behind to catch up, measure from now rather than skipping forever
+                if (behind && draw)
+                    this.deadline = now;
+            }
+        }
+
+        if (draw){
+            this.skipped = 0;
+            this.drawnFrameCount++;
+        } else {
+            this.skipped++;
+            this.skippedFrameCount++;
+        }
+        return draw;
+    }
+
+    public long getDrawnFrameCount(){
+        return this.drawnFrameCount;
+    }
+
+    public long getSkippedFrameCount(){
+        return this.skippedFrameCount;
+    }
+}
@@ -2,22 +2,44 @@ package com.rosscon.llce.components.graphics.NES2C02;
 
 import com.rosscon.llce.components.busses.IntegerBus;
 import com.rosscon.llce.components.busses.InvalidBusDataException;
-import com.rosscon.llce.components.cartridges.NES.NESNametableMirroring;
 import com.rosscon.llce.components.cartridges.NES.NametableMirror;
+import com.rosscon.llce.components.cartridges.NES.PatternTableCache;
 import com.rosscon.llce.components.clocks.Clock;
+import com.rosscon.llce.components.dma.DMAController;
 import com.rosscon.llce.components.flags.*;
+import com.rosscon.llce.components.graphics.FrameSkipper;
+import com.rosscon.llce.components.graphics.TripleBuffer;
+import com.rosscon.llce.components.memory.MemoryDevice;
 import com.rosscon.llce.components.memory.MemoryException;
 import com.rosscon.llce.components.processors.Processor;
 import com.rosscon.llce.components.processors.ProcessorException;
-import com.rosscon.llce.utils.ByteUtils;
 
 import java.util.Arrays;
 
 
-public class NES2C02 extends Processor implements FlagListener {
+public class NES2C02 extends Processor implements FlagListener, MemoryDevice {
 
-    private int[] screenBufferOdd;
-    private int[] screenBufferEven;
+    /**
+     * Completed frames handed to consumers, the PPU draws into the back buffer and publishes it at the end
+     * of each frame
+     */
+    private TripleBuffer<int[]> frameBuffers;
+
+    /**
+     * Buffer the current frame is drawn into
+     */
+    private int[] screenBuffer;
+
+    /**
+     * Completed frames handed to consumers when drawing colour indexes
+     */
+    private TripleBuffer<NES2C02IndexedFrame> indexedFrames;
+
+    /**
+     * Colour indexes and line emphasis of the current frame when drawing colour indexes
+     */
+    private byte[] indexBuffer;
+    private byte[] lineEmphasis;
 
     /**
      * used for calculating the current framerate
@@ -41,6 +63,12 @@ public class NES2C02 extends Processor implements FlagListener {
     private int     regDMAPage;
     private int     regDMACount;
 
+    /**
+     * Performs OAM DMA in one step when attached, otherwise the PPU halts the CPU and copies a byte
+     * every other cycle
+     */
+    private DMAController dmaController;
+
 
     /**
      * Delayed read and write
@@ -56,6 +84,16 @@ public class NES2C02 extends Processor implements FlagListener {
     private IntegerBus ppuDataBus;
     private RWFlag ppuRwRWFlag;
 
+    /**
+     * Optional device used to access PPU memory directly instead of the PPU busses and R/W flag
+     */
+    private MemoryDevice ppuMemoryDevice;
+
+    /**
+     * Optional decoded pattern data used instead of reading pattern bytes from PPU memory
+     */
+    private PatternTableCache patternTableCache;
+
 
     /**
      * Tracking where we are on the screen.
@@ -64,8 +102,11 @@ public class NES2C02 extends Processor implements FlagListener {
     private int cycle;
     private int fineX;
 
-    private LoopyRegister vramAddress;
-    private LoopyRegister tramAddress;
+    /**
+     * Loopy registers v and t packed as 15 bit values, see NES2C02LoopyMasks for the layout
+     */
+    private int vramAddress;
+    private int tramAddress;
 
 
     /**
@@ -76,15 +117,14 @@ public class NES2C02 extends Processor implements FlagListener {
     private HaltFlag flgCpuHalt;
 
     /**
-     * Background tile details
+     * Background tile details, the pattern planes are held decoded with 2 bits per pixel
      */
     private int bgNextTileId;
     private int bgNextTileAttrib;
     private int bgNextTileLsb;
     private int bgNextTileMsb;
 
-    private int bgShiftPatternLow;
-    private int bgShiftPatternHigh;
+    private int bgShiftPattern;
     private int bgShiftAttribLow;
     private int bgShiftAttribHigh;
 
@@ -94,7 +134,7 @@ public class NES2C02 extends Processor implements FlagListener {
     int [][] nametable;
     int [][] patternMemory;
     int []   paletteMemory;
-    int []   oamMemory;
+    byte []  oamMemory;
 
     /**
      * Sprite Rendering
@@ -104,21 +144,62 @@ public class NES2C02 extends Processor implements FlagListener {
      * ||||||||||||||||++++++++----------Attributes
      * ||||||||++++++++------------------TileID
      * ++++++++--------------------------Y Position
+     * Sprite patterns are held decoded with 2 bits per pixel
      */
     int[] scanlineSpriteAttributes;
     int spriteCount;
-    int[] spriteShifterPatternLow;
-    int[] spriteShifterPatternHigh;
+    NES2C02SpriteBuckets spriteBuckets;
+    int[] spriteShifterPattern;
     boolean bSpriteZeroHitPossible;
     boolean bSpriteZeroBeingRendered;
 
     NametableMirror nametableMirror;
 
+    /**
+     * Physical nametable bank for each logical nametable, shared with the nametable mirror so mappers can
+     * switch mirroring on the fly
+     */
+    private int[] nametableBanks;
+
     /**
      * Execution State
      */
     NES2C02ExecutionState executionState;
 
+    /**
+     * How the visible part of each scanline is rendered when run in batches
+     */
+    private NES2C02RenderMode renderMode = NES2C02RenderMode.SCANLINE;
+
+    /**
+     * Format frames are drawn in
+     */
+    private NES2C02FrameFormat frameFormat = NES2C02FrameFormat.ARGB;
+
+    /**
+     * Decides which frames are drawn, null to draw every frame. Skipped frames keep their timing, status
+     * flags and sprite zero hits but nothing is drawn or published.
+     */
+    private FrameSkipper frameSkipper;
+    private boolean drawFrame = true;
+
+    /**
+     * ARGB colour of each palette entry with greyscale and emphasis applied, kept up to date as palette memory
+     * and PPUMASK are written so pixels are coloured with a single lookup
+     */
+    private final int[] resolvedPalette = new int[32];
+
+    /**
+     * Colour index of each palette entry with greyscale applied, used when drawing colour indexes
+     */
+    private final byte[] resolvedIndexes = new byte[32];
+
+    /**
+     * Sprite drawn at each x position, used when rendering a whole scanline.
+     * Entries hold pixel | palette << 2 | priority << 5 | sprite zero << 6, 0 when no sprite is drawn.
+     */
+    private final int[] scanlineSprites = new int[NES2C02Constants.WIDTH_VISIBLE_PIXELS];
+
 
     /**
      * PPU requires an overloaded constructor to account for the extra bus connections
@@ -142,8 +223,10 @@ public class NES2C02 extends Processor implements FlagListener {
         this.ppuAddressBus = ppuAddressBus;
         this.ppuDataBus = ppuDataBus;
         this.ppuRwRWFlag = ppuRwRWFlag;
-        this.flgRW.addListener(this);
+        this.flgRW.addListener(this, NES2C02Constants.REG_MINIMUM_ADDRESS, NES2C02Constants.REG_MAXIMUM_ADDRESS);
+        this.flgRW.addListener(this, NES2C02Constants.REG_OAMDMA, NES2C02Constants.REG_OAMDMA);
         this.nametableMirror = nametableMirror;
+        this.nametableBanks = nametableMirror.getBanks();
 
         this.flgCpuNmi = flgCpuNmi;
         this.flgCpuHalt = flgCpuHalt;
@@ -163,8 +246,12 @@ public class NES2C02 extends Processor implements FlagListener {
         this.regPPUDATA     = 0x0000;
         this.regOddFrame    = false;
 
-        this.screenBufferOdd = new int[NES2C02Constants.WIDTH_VISIBLE_PIXELS * NES2C02Constants.HEIGHT_VISIBLE_SCANLINES];
-        this.screenBufferEven = new int[NES2C02Constants.WIDTH_VISIBLE_PIXELS * NES2C02Constants.HEIGHT_VISIBLE_SCANLINES];
+        this.frameBuffers = new TripleBuffer<>(
+                () -> new int[NES2C02Constants.WIDTH_VISIBLE_PIXELS * NES2C02Constants.HEIGHT_VISIBLE_SCANLINES]);
+        this.screenBuffer = this.frameBuffers.getBackBuffer();
+        this.indexedFrames = new TripleBuffer<>(NES2C02IndexedFrame::new);
+        this.indexBuffer = this.indexedFrames.getBackBuffer().getPixels();
+        this.lineEmphasis = this.indexedFrames.getBackBuffer().getEmphasis();
 
         this.scanline = 0;
         this.cycle = 0;
@@ -174,50 +261,133 @@ public class NES2C02 extends Processor implements FlagListener {
         this.bgNextTileLsb       = 0x00;
         this.bgNextTileMsb       = 0x00;
 
-        this.bgShiftPatternLow   = 0x00;
-        this.bgShiftPatternHigh  = 0x00;
+        this.bgShiftPattern      = 0x00;
         this.bgShiftAttribLow    = 0x00;
         this.bgShiftAttribHigh   = 0x00;
 
-        this.vramAddress = new LoopyRegister();
-        this.tramAddress = new LoopyRegister();
+        this.vramAddress = 0x0000;
+        this.tramAddress = 0x0000;
 
-        this.nametable      = new int[2][1024];
+        this.nametable      = new int[NametableMirror.NAMETABLE_COUNT][1024];
         this.patternMemory  = new int[2][4096];
         this.paletteMemory  = new int[32];
-        this.oamMemory      = new int[256];
+        this.oamMemory      = new byte[256];
+        this.spriteBuckets  = new NES2C02SpriteBuckets(this.oamMemory);
+        resolvePalette();
         this.fineX = 0x00;
 
         this.executionState = NES2C02ExecutionState.RUNNING;
 
         scanlineSpriteAttributes = new int[8];
         spriteCount = 0;
-        spriteShifterPatternLow = new int[8];
-        spriteShifterPatternHigh = new int[8];
+        spriteShifterPattern = new int[8];
         bSpriteZeroHitPossible = false;
         bSpriteZeroBeingRendered = false;
     }
 
     /**
-     * Used to keep graphics thread separate. Can also do rudimentary double
-     * buffering by holding two arrays
-     * @return int[] of pixel values
+     * Attaches a device for the PPU to read pattern memory directly, bypassing the
+     * PPU address bus, data bus and R/W flag. Passing null returns to using the busses.
+     * @param ppuMemoryDevice Device to access PPU memory through
      */
-    public int[] getScreenBuffer(){
+    public void setPpuMemoryDevice(MemoryDevice ppuMemoryDevice){
+        this.ppuMemoryDevice = ppuMemoryDevice;
+    }
 
-        int[] returnBuffer = new int[screenBufferEven.length];
+    /**
+     * Attaches decoded pattern data for the PPU to render from instead of reading each pattern byte from
+     * PPU memory. The cache must be decoded from the memory at 0x0000 - 0x1FFF on the PPU bus, passing null
+     * returns to reading pattern bytes from memory.
+     * @param patternTableCache Decoded pattern data
+     */
+    public void setPatternTableCache(PatternTableCache patternTableCache){
+        this.patternTableCache = patternTableCache;
+    }
 
-        if (regOddFrame){
-            synchronized (screenBufferEven){
-                System.arraycopy(this.screenBufferEven, 0, returnBuffer, 0, screenBufferEven.length);
-            }
-        } else {
-            synchronized (screenBufferOdd){
-                System.arraycopy(this.screenBufferOdd, 0, returnBuffer, 0, screenBufferOdd.length);
-            }
-        }
+    /**
+     * Attaches a DMA controller to perform OAM DMA, the page is copied in one step and the CPU is stalled
+     * for the cycles the transfer takes. Passing null returns to the PPU halting the CPU while it copies
+     * the page itself.
+     * @param dmaController DMA controller reading from the CPU address space and stalling the CPU
+     */
+    public void setDMAController(DMAController dmaController){
+        this.dmaController = dmaController;
+    }
 
-        return returnBuffer;
+    /**
+     * Sets how the visible part of each scanline is rendered when the PPU is run in batches. Both render the
+     * same picture, when driven one tick at a time by a clock every dot is always run one at a time.
+     * @param renderMode render mode to use
+     */
+    public void setRenderMode(NES2C02RenderMode renderMode){
+        this.renderMode = renderMode;
+    }
+
+    /**
+     * Get the render mode
+     * @return how the visible part of each scanline is rendered
+     */
+    public NES2C02RenderMode getRenderMode(){
+        return this.renderMode;
+    }
+
+    /**
+     * Sets the format frames are drawn in, ARGB frames are published to getFrameBuffers and indexed frames
+     * to getIndexedFrames
+     * @param frameFormat frame format to use
+     */
+    public void setFrameFormat(NES2C02FrameFormat frameFormat){
+        this.frameFormat = frameFormat;
+    }
+
+    /**
+     * Get the frame format
+     * @return format frames are drawn in
+     */
+    public NES2C02FrameFormat getFrameFormat(){
+        return this.frameFormat;
+    }
+
+    /**
+     * Attaches a frame skipper deciding which frames are drawn from the next frame on, passing null draws
+     * every frame
+     * @param frameSkipper frame skipper to use
+     */
+    public void setFrameSkipper(FrameSkipper frameSkipper){
+        this.frameSkipper = frameSkipper;
+    }
+
+    /**
+     * Gets the completed frames drawn as colour indexes, exchanged with a single consumer in the same way
+     * as getFrameBuffers
+     * @return completed indexed frames
+     */
+    public TripleBuffer<NES2C02IndexedFrame> getIndexedFrames(){
+        return this.indexedFrames;
+    }
+
+    /**
+     * Gets the completed frames for a consumer, such as a display, to borrow from. The consumer calls update
+     * to move the most recent complete frame to the front then reads the front buffer without copying.
+     * Frames are exchanged with a single consumer.
+     * @return completed frames
+     */
+    public TripleBuffer<int[]> getFrameBuffers(){
+        return this.frameBuffers;
+    }
+
+    /**
+     * Copies the most recent complete frame, acting as the consumer of getFrameBuffers, or of
+     * getIndexedFrames converting the frame to colours when drawing colour indexes
+     * @return int[] of pixel values
+     */
+    public int[] getScreenBuffer(){
+        if (this.frameFormat == NES2C02FrameFormat.INDEXED){
+            this.indexedFrames.update();
+            return this.indexedFrames.getFrontBuffer().toArgb();
+        }
+        this.frameBuffers.update();
+        return this.frameBuffers.getFrontBuffer().clone();
     }
 
 
@@ -248,11 +418,11 @@ public class NES2C02 extends Processor implements FlagListener {
         if(isFlagSet(regPPUMASK, NES2C02MaskFlags.SHOW_BACKGROUND) ||
                 isFlagSet(regPPUMASK, NES2C02MaskFlags.SHOW_SPRITES)){
 
-            if (vramAddress.getCoarseX() == 31){
-                vramAddress.setCoarseX(0);
-                vramAddress.setNametableX(~vramAddress.getNametableX());
+            if ((vramAddress & NES2C02LoopyMasks.COARSE_X) == NES2C02LoopyMasks.COARSE_X){
+                vramAddress &= ~NES2C02LoopyMasks.COARSE_X;
+                vramAddress ^= NES2C02LoopyMasks.NAMETABLE_X;
             } else {
-                vramAddress.setCoarseX(vramAddress.getCoarseX() + 1);
+                vramAddress++;
             }
         }
     }
@@ -264,19 +434,21 @@ public class NES2C02 extends Processor implements FlagListener {
         if(isFlagSet(regPPUMASK, NES2C02MaskFlags.SHOW_BACKGROUND) ||
                 isFlagSet(regPPUMASK, NES2C02MaskFlags.SHOW_SPRITES)){
 
-            if (vramAddress.getFineY() < 7){
-                vramAddress.setFineY(vramAddress.getFineY() + 1);
+            if ((vramAddress & NES2C02LoopyMasks.FINE_Y) != NES2C02LoopyMasks.FINE_Y){
+                vramAddress += 1 << NES2C02LoopyMasks.FINE_Y_SHIFT;
             } else {
-                vramAddress.setFineY(0);
-
-                if (vramAddress.getCoarseY() == 29){
-                    vramAddress.setCoarseY(0);
-                    vramAddress.setNametableY(~vramAddress.getNametableY());
-                } else if (vramAddress.getCoarseY() == 31) {
-                    vramAddress.setCoarseY(0);
+                vramAddress &= ~NES2C02LoopyMasks.FINE_Y;
+
+                int coarseY = (vramAddress & NES2C02LoopyMasks.COARSE_Y) >> NES2C02LoopyMasks.COARSE_Y_SHIFT;
+                if (coarseY == 29){
+                    coarseY = 0;
+                    vramAddress ^= NES2C02LoopyMasks.NAMETABLE_Y;
+                } else if (coarseY == 31) {
+                    coarseY = 0;
                 } else {
-                    vramAddress.setCoarseY(vramAddress.getCoarseY() + 1);
+                    coarseY++;
                 }
+                vramAddress = (vramAddress & ~NES2C02LoopyMasks.COARSE_Y) | (coarseY << NES2C02LoopyMasks.COARSE_Y_SHIFT);
             }
         }
     }
@@ -287,8 +459,8 @@ public class NES2C02 extends Processor implements FlagListener {
     private void transferAddressX() {
         if(isFlagSet(regPPUMASK, NES2C02MaskFlags.SHOW_BACKGROUND) ||
                 isFlagSet(regPPUMASK, NES2C02MaskFlags.SHOW_SPRITES)) {
-            vramAddress.setNametableX(tramAddress.getNametableX());
-            vramAddress.setCoarseX(tramAddress.getCoarseX());
+            int mask = NES2C02LoopyMasks.NAMETABLE_X | NES2C02LoopyMasks.COARSE_X;
+            vramAddress = (vramAddress & ~mask) | (tramAddress & mask);
         }
     }
 
@@ -298,9 +470,8 @@ public class NES2C02 extends Processor implements FlagListener {
     private void transferAddressY() {
         if(isFlagSet(regPPUMASK, NES2C02MaskFlags.SHOW_BACKGROUND) ||
                 isFlagSet(regPPUMASK, NES2C02MaskFlags.SHOW_SPRITES)) {
-            vramAddress.setFineY(tramAddress.getFineY());
-            vramAddress.setNametableY(tramAddress.getNametableY());
-            vramAddress.setCoarseY(tramAddress.getCoarseY());
+            int mask = NES2C02LoopyMasks.FINE_Y | NES2C02LoopyMasks.NAMETABLE_Y | NES2C02LoopyMasks.COARSE_Y;
+            vramAddress = (vramAddress & ~mask) | (tramAddress & mask);
         }
     }
 
@@ -308,8 +479,7 @@ public class NES2C02 extends Processor implements FlagListener {
      *
      */
     private void loadBackgroundShifters () {
-        this.bgShiftPatternLow = (bgShiftPatternLow & 0xFF00) | bgNextTileLsb;
-        this.bgShiftPatternHigh = (bgShiftPatternHigh & 0xFF00) | bgNextTileMsb;
+        this.bgShiftPattern = (bgShiftPattern & 0xFFFF0000) | bgNextTileLsb | bgNextTileMsb;
         this.bgShiftAttribLow = (bgShiftAttribLow & 0xFF00) | (((bgNextTileAttrib & 0b01) != 0) ? 0xFF : 0x00);
         this.bgShiftAttribHigh = (bgShiftAttribHigh & 0xFF00) | (((bgNextTileAttrib & 0b10) != 0) ? 0xFF : 0x00);
     }
@@ -319,8 +489,7 @@ public class NES2C02 extends Processor implements FlagListener {
      */
     private void updateShifters () {
         if (isFlagSet(this.regPPUMASK, NES2C02MaskFlags.SHOW_BACKGROUND)){
-            bgShiftPatternLow <<= 1;
-            bgShiftPatternHigh <<= 1;
+            bgShiftPattern <<= 2;
             bgShiftAttribLow <<= 1;
             bgShiftAttribHigh <<= 1;
         }
@@ -332,14 +501,73 @@ public class NES2C02 extends Processor implements FlagListener {
                     x--;
                     scanlineSpriteAttributes[i] = (scanlineSpriteAttributes[i] & 0xFFFFFF00) | (x & 0x000000FF);
                 } else {
-                    spriteShifterPatternLow[i] <<= 1;
-                    spriteShifterPatternHigh[i] <<= 1;
+                    spriteShifterPattern[i] <<= 2;
                 }
             }
         }
     }
 
 
+    /**
+     * Performs the background fetch for a dot, each tile takes 8 dots to fetch its id, attribute and pattern
+     * bytes before moving on to the next tile
+     * @param dot dot of the scanline being run
+     * @throws ProcessorException Can be thrown when errors reading from busses
+     */
+    private void fetchBackground(int dot) throws ProcessorException {
+        switch ((dot - 1) % 8){
+            case 0:
+                loadBackgroundShifters();
+                bgNextTileId = nametableRead(vramAddress);
+                break;
+            case 2:
+                bgNextTileAttrib = nametableRead( 0x23C0
+                        | (vramAddress & NES2C02LoopyMasks.NAMETABLE)
+                        | ((vramAddress >> 4) & 0x38)
+                        | ((vramAddress >> 2) & 0x07));
+                if ((vramAddress & 0x40) != 0) bgNextTileAttrib >>= 4;
+                if ((vramAddress & 0x02) != 0) bgNextTileAttrib >>= 2;
+                bgNextTileAttrib &= 0x03;
+                break;
+            case 4:
+                bgNextTileLsb = readPatternPlane(((this.regPPUCTRL & NES2C02ControllerFlags.BACKGROUND_PATTERN_ADDRESS) << 8)
+                        + ((bgNextTileId & 0x00FFF) << 4)
+                        + (vramAddress >> NES2C02LoopyMasks.FINE_Y_SHIFT), false);
+                break;
+            case 6:
+                bgNextTileMsb = readPatternPlane(((this.regPPUCTRL & NES2C02ControllerFlags.BACKGROUND_PATTERN_ADDRESS) << 8)
+                        + ((bgNextTileId & 0x0000FFF) << 4)
+                        + (vramAddress >> NES2C02LoopyMasks.FINE_Y_SHIFT) + 8, false);
+                break;
+            case 7:
+                incrementScrollX();
+                break;
+        }
+    }
+
+    /**
+     * Reads a byte of pattern data decoded to 2 bits per pixel, from the pattern table cache when one is
+     * attached, otherwise from PPU memory
+     * @param address address of the pattern byte, 0x0000 - 0x1FFF
+     * @param flipped true to flip the row horizontally
+     * @return decoded pattern plane
+     * @throws ProcessorException Can be thrown when errors reading from busses
+     */
+    private int readPatternPlane(int address, boolean flipped) throws ProcessorException {
+        if (this.patternTableCache != null)
+            return flipped ? this.patternTableCache.getFlippedPlane(address) : this.patternTableCache.getPlane(address);
+        return PatternTableCache.decode(address, ppuRead(address), flipped);
+    }
+
+    /**
+     * Reads a nametable through the mirroring table
+     * @param address address in the nametables, 0x2000 - 0x3EFF
+     * @return data held in the physical nametable bank
+     */
+    private int nametableRead(int address){
+        return nametable[nametableBanks[(address >> 10) & 0x03]][address & 0x03FF];
+    }
+
     /**
      * Reads the memory attached to the PPU address and memory bus
      * @param address memory address to rad
@@ -354,6 +582,16 @@ public class NES2C02 extends Processor implements FlagListener {
             /*
              * Load from cartridge
              */
+            if (this.ppuMemoryDevice != null) {
+                try {
+                    return this.ppuMemoryDevice.read(address);
+                } catch (MemoryException e) {
+                    ProcessorException pe = new ProcessorException(NES2C02Constants.EX_PPU_READ_FAIL);
+                    pe.addSuppressed(e);
+                    throw pe;
+                }
+            }
+
             try{
                 this.ppuAddressBus.writeDataToBus(address);
                 this.ppuRwRWFlag.setFlagValue(RWFlag.READ);
@@ -369,30 +607,7 @@ public class NES2C02 extends Processor implements FlagListener {
             /*
              * Load from nametalbes
              */
-            address &= 0x0FFF;
-
-            NESNametableMirroring tmpMirr = this.nametableMirror.getMirrorMode();
-
-            if (tmpMirr == NESNametableMirroring.VERTICAL){
-
-                if (address >= 0x0000 && address <= 0x03FF)
-                    data = nametable[0][address & 0x03FF];
-                if (address >= 0x0400 && address <= 0x07FF)
-                    data = nametable[1][address & 0x03FF];
-                if (address >= 0x0800 && address <= 0x0BFF)
-                    data = nametable[0][address & 0x03FF];
-                if (address >= 0x0C00 && address <= 0x0FFF)
-                    data = nametable[1][address & 0x03FF];
-            } else {
-                if (address >= 0x0000 && address <= 0x03FF)
-                    data = nametable[0][address & 0x03FF];
-                if (address >= 0x0400 && address <= 0x07FF)
-                    data = nametable[0][address & 0x03FF];
-                if (address >= 0x0800 && address <= 0x0BFF)
-                    data = nametable[1][address & 0x03FF];
-                if (address >= 0x0C00 && address <= 0x0FFF)
-                    data = nametable[1][address & 0x03FF];
-            }
+            data = nametableRead(address);
 
         } else if (address >= 0x3F00 && address <= 0x3FFF){
             address &= 0x001F;
@@ -410,34 +625,29 @@ public class NES2C02 extends Processor implements FlagListener {
 
         address &= 0x3FFF;
 
-        if (address >= 0x2000 && address <= 0x3EFF){
+        if (address < 0x2000) {
             /*
-             * Load from nametalbes
+             * Write to cartridge, only CHR RAM responds
              */
-            address &= 0x0FFF;
-
-            NESNametableMirroring tmpMirr = this.nametableMirror.getMirrorMode();
-
-            if (tmpMirr == NESNametableMirroring.VERTICAL){
-
-                if (address >= 0x0000 && address <= 0x03FF)
-                    nametable[0][address & 0x03FF] = data;
-                if (address >= 0x0400 && address <= 0x07FF)
-                    nametable[1][address & 0x03FF] = data;
-                if (address >= 0x0800 && address <= 0x0BFF)
-                    nametable[0][address & 0x03FF] = data;
-                if (address >= 0x0C00 && address <= 0x0FFF)
-                    nametable[1][address & 0x03FF] = data;
-            } else {
-                if (address >= 0x0000 && address <= 0x03FF)
-                    nametable[0][address & 0x03FF] = data;
-                if (address >= 0x0400 && address <= 0x07FF)
-                    nametable[0][address & 0x03FF] = data;
-                if (address >= 0x0800 && address <= 0x0BFF)
-                    nametable[1][address & 0x03FF] = data;
-                if (address >= 0x0C00 && address <= 0x0FFF)
-                    nametable[1][address & 0x03FF] = data;
+            try {
+                if (this.ppuMemoryDevice != null) {
+                    this.ppuMemoryDevice.write(address, data);
+                } else {
+                    this.ppuAddressBus.writeDataToBus(address);
+                    this.ppuDataBus.writeDataToBus(data);
+                    this.ppuRwRWFlag.setFlagValue(RWFlag.WRITE);
+                }
+            } catch (MemoryException | InvalidBusDataException | FlagException e) {
+                ProcessorException pe = new ProcessorException(NES2C02Constants.EX_PPU_WRITE_FAIL);
+                pe.addSuppressed(e);
+                throw pe;
             }
+        }
+        else if (address >= 0x2000 && address <= 0x3EFF){
+            /*
+             * Load from nametalbes
+             */
+            nametable[nametableBanks[(address >> 10) & 0x03]][address & 0x03FF] = data;
 
         } else if (address >= 0x3F00 && address <= 0x3FFF){
             address &= 0x001F;
@@ -446,6 +656,7 @@ public class NES2C02 extends Processor implements FlagListener {
             if (address == 0x0018) address = 0x0008;
             if (address == 0x001C) address = 0x000C;
             paletteMemory[address] = data;
+            resolvePaletteEntry(address);
         }
     }
 
@@ -455,6 +666,16 @@ public class NES2C02 extends Processor implements FlagListener {
      * @return data held at that address
      */
     private int cpuRead (int address) throws ProcessorException{
+        if (this.memoryDevice != null) {
+            try {
+                return this.memoryDevice.read(address);
+            } catch (MemoryException e) {
+                ProcessorException pe = new ProcessorException(NES2C02Constants.EX_CPU_READ_FAIL);
+                pe.addSuppressed(e);
+                throw pe;
+            }
+        }
+
         try{
             this.addressBus.writeDataToBus(address);
             this.flgCpuRW.setFlagValue(RWFlag.READ);
@@ -466,9 +687,33 @@ public class NES2C02 extends Processor implements FlagListener {
         }
     }
 
-    private int getColourFromPalette(int palette, int pixel) throws ProcessorException {
-        int colorIndex = ppuRead(0x3F00 + (palette << 2) + pixel) & 0x3F;
-        return NES2C02Constants.PALETTE[colorIndex];
+    /**
+     * Resolves the colour of every palette entry, needed when greyscale or emphasis change
+     */
+    private void resolvePalette(){
+        for (int entry = 0; entry < 0x10; entry++)
+            resolvePaletteEntry(entry);
+        for (int entry = 0x11; entry < 0x20; entry++){
+            if ((entry & 0x03) != 0)
+                resolvePaletteEntry(entry);
+        }
+    }
+
+    /**
+     * Resolves the colour of a palette entry after it is written, the background colour of each palette is
+     * shared by the sprite palette mirroring it
+     * @param entry palette memory address with mirrors folded
+     */
+    private void resolvePaletteEntry(int entry){
+        int colour = NES2C02Palette.getColour(this.paletteMemory[entry], this.regPPUMASK);
+        int index = this.paletteMemory[entry]
+                & (isFlagSet(this.regPPUMASK, NES2C02MaskFlags.GREYSCALE) ? NES2C02Palette.GREYSCALE_MASK : 0x3F);
+        this.resolvedPalette[entry] = colour;
+        this.resolvedIndexes[entry] = (byte) index;
+        if ((entry & 0x13) == 0x00){
+            this.resolvedPalette[entry | 0x10] = colour;
+            this.resolvedIndexes[entry | 0x10] = (byte) index;
+        }
     }
 
     /**
@@ -492,36 +737,7 @@ public class NES2C02 extends Processor implements FlagListener {
 
             if ((cycle >= 2 && cycle < 258) || (cycle >= 321 && cycle < 338)) {
                 updateShifters();
-
-                switch ((cycle - 1) % 8){
-                    case 0:
-                        loadBackgroundShifters();
-                        bgNextTileId = ppuRead(0x2000 | (vramAddress.getValue() & 0x0FFF));
-                        break;
-                    case 2:
-                        bgNextTileAttrib = ppuRead( 0x23C0
-                                | (vramAddress.getNametableY() << 11)
-                                | (vramAddress.getNametableX() << 10)
-                                | ((vramAddress.getCoarseY() >> 2) << 3)
-                                | (vramAddress.getCoarseX() >> 2));
-                        if ((vramAddress.getCoarseY() & 0x02) != 0) bgNextTileAttrib >>= 4;
-                        if ((vramAddress.getCoarseX() & 0x02) != 0) bgNextTileAttrib >>= 2;
-                        bgNextTileAttrib &= 0x03;
-                        break;
-                    case 4:
-                        bgNextTileLsb = ppuRead(((this.regPPUCTRL & NES2C02ControllerFlags.BACKGROUND_PATTERN_ADDRESS) << 8)
-                                + ((bgNextTileId & 0x00FFF) << 4)
-                                + (vramAddress.getFineY()));
-                        break;
-                    case 6:
-                        bgNextTileMsb = ppuRead(((this.regPPUCTRL & NES2C02ControllerFlags.BACKGROUND_PATTERN_ADDRESS) << 8)
-                                + ((bgNextTileId & 0x0000FFF) << 4)
-                                + (vramAddress.getFineY()) + 8);
-                        break;
-                    case 7:
-                        incrementScrollX();
-                        break;
-                }
+                fetchBackground(cycle);
             }
 
             if (cycle == 256)
@@ -533,7 +749,7 @@ public class NES2C02 extends Processor implements FlagListener {
             }
 
             if (cycle == 338 || cycle == 340)
-                bgNextTileId = ppuRead(0x2000 | (vramAddress.getValue() & 0x0FFF));
+                bgNextTileId = nametableRead(vramAddress);
 
             if (scanline == -1 && cycle >= 280 && cycle < 305)
                 transferAddressY();
@@ -547,37 +763,29 @@ public class NES2C02 extends Processor implements FlagListener {
                  */
                 Arrays.fill(this.scanlineSpriteAttributes, 0xFF);
                 this.spriteCount = 0;
-                Arrays.fill(spriteShifterPatternLow, 0x00);
-                Arrays.fill(spriteShifterPatternHigh, 0x00);
+                Arrays.fill(spriteShifterPattern, 0x00);
 
                 /*
-                 * Identify which sprites will be on the next scanline by searching through all of the OAM array
+                 * Identify which sprites will be on the next scanline from the sprites bucketed by line
                  */
-                int oamIndex = 0;
+                int count = this.spriteBuckets.getCount(scanline,
+                        isFlagSet(this.regPPUCTRL, NES2C02ControllerFlags.SPRITE_SIZE) ? 16 : 8);
+                int[] sprites = this.spriteBuckets.getSprites(scanline);
 
-                bSpriteZeroHitPossible = false;
+                bSpriteZeroHitPossible = count > 0 && sprites[0] == 0;
 
-                while (oamIndex < 64 && this.spriteCount < 9){
-                    int yIndex = oamIndex * 4; //4 entries per attribute
-                    int spriteY = oamMemory[yIndex];
-                    int diff = scanline - spriteY;
+                for (int slot = 0; slot < count; slot++){
+                    int yIndex = sprites[slot] * 4; //4 entries per attribute
 
-                    if (diff >= 0 && diff < (isFlagSet(this.regPPUCTRL, NES2C02ControllerFlags.SPRITE_SIZE) ? 16 : 8)){
-                        if (spriteCount < 8){
-                            if (oamIndex == 0) bSpriteZeroHitPossible = true;
-
-                            // Construct entry
-                            int entry = 0x00;
-                            for (int i = 0; i < 4; i ++){
-                                entry <<= 8;
-                                entry += oamMemory[yIndex + i];
-                            }
-
-                            scanlineSpriteAttributes[spriteCount] = entry;
-                            spriteCount++;
-                        }
+                    // Construct entry
+                    int entry = 0x00;
+                    for (int i = 0; i < 4; i ++){
+                        entry <<= 8;
+                        entry += oamMemory[yIndex + i] & 0xFF;
                     }
-                    oamIndex++;
+
+                    scanlineSpriteAttributes[spriteCount] = entry;
+                    spriteCount++;
                 }
 
                 if (spriteCount > 8) setStatusFlag(NES2C02StatusFlags.SPRITE_OVERFLOW);
@@ -657,22 +865,18 @@ public class NES2C02 extends Processor implements FlagListener {
                     }
 
                     spritePatternAddressHigh = spritePatternAddressLow + 8;
-                    spritePatternBitsLow = ppuRead(spritePatternAddressLow);
-                    spritePatternBitsHigh = ppuRead(spritePatternAddressHigh);
 
                     /*
-                     * If horizontally flipped then need to reverse the byte;
+                     * If horizontally flipped then the decoded planes are reversed
                      */
-                    if ((attributes & 0x40) != 0){
-                        spritePatternBitsLow = ByteUtils.flipByte(spritePatternBitsLow);
-                        spritePatternBitsHigh = ByteUtils.flipByte(spritePatternBitsHigh);
-                    }
+                    boolean flipped = (attributes & 0x40) != 0;
+                    spritePatternBitsLow = readPatternPlane(spritePatternAddressLow, flipped);
+                    spritePatternBitsHigh = readPatternPlane(spritePatternAddressHigh, flipped);
 
                     /*
                      * Last step is to load the pattern into shift registers for rendering
                      */
-                    spriteShifterPatternLow[i] = spritePatternBitsLow;
-                    spriteShifterPatternHigh[i] = spritePatternBitsHigh;
+                    spriteShifterPattern[i] = spritePatternBitsLow | spritePatternBitsHigh;
 
                 }
             }
@@ -708,9 +912,7 @@ public class NES2C02 extends Processor implements FlagListener {
         if (isFlagSet(regPPUMASK, NES2C02MaskFlags.SHOW_BACKGROUND)){
             int bitMux = 0x8000 >> fineX;
 
-            int p0Pixel = ((bgShiftPatternLow & bitMux) > 0) ? 0b01 : 0b00;
-            int p1Pixel = ((bgShiftPatternHigh & bitMux) > 0) ? 0b10 : 0b00;
-            bgPixel = p0Pixel | p1Pixel;
+            bgPixel = (bgShiftPattern >>> (30 - (fineX << 1))) & 0x03;
 
             int p0Bg = ((bgShiftAttribLow & bitMux) > 0) ? 0b01 : 0b00;
             int p1Bg = ((bgShiftAttribHigh & bitMux) > 0) ? 0b10 : 0b00;
@@ -741,9 +943,7 @@ public class NES2C02 extends Processor implements FlagListener {
                 int y = sprite & 0x000000FF;
 
                 if (x == 0) {
-                    int fgPixelLow = ((spriteShifterPatternLow[i] & 0x80) > 0) ? 0b01 : 0b00;
-                    int fgPixelHigh = ((spriteShifterPatternHigh[i] & 0x80) > 0) ? 0b10 : 0b00;
-                    fgPixel = fgPixelHigh | fgPixelLow;
+                    fgPixel = (spriteShifterPattern[i] >>> 14) & 0x03;
 
                     fgPalette = (attributes & 0x03) + 0x04;
                     fgPriority = ((attributes & 0x20) == 0) ? 0x01 : 0x00;
@@ -819,14 +1019,15 @@ public class NES2C02 extends Processor implements FlagListener {
 
 
 
-        if (cycle -1 > 0 && cycle - 1 < 256 && scanline > -1 && scanline < 240){
-
-            int c = getColourFromPalette(palette, pixel);
+        if (this.drawFrame && cycle -1 > 0 && cycle - 1 < 256 && scanline > -1 && scanline < 240){
 
-            if (regOddFrame)
-                this.screenBufferOdd[(scanline * NES2C02Constants.WIDTH_VISIBLE_PIXELS) + (cycle - 1)] = c;
-            else
-                this.screenBufferEven[(scanline * NES2C02Constants.WIDTH_VISIBLE_PIXELS) + (cycle - 1)] = c;
+            int position = (scanline * NES2C02Constants.WIDTH_VISIBLE_PIXELS) + (cycle - 1);
+            if (this.frameFormat == NES2C02FrameFormat.INDEXED){
+                this.indexBuffer[position] = this.resolvedIndexes[(palette << 2) | pixel];
+                this.lineEmphasis[scanline] = (byte) ((this.regPPUMASK & NES2C02Palette.EMPHASIS_MASK) >> NES2C02Palette.EMPHASIS_SHIFT);
+            } else {
+                this.screenBuffer[position] = this.resolvedPalette[(palette << 2) | pixel];
+            }
         }
 
 
@@ -837,10 +1038,28 @@ public class NES2C02 extends Processor implements FlagListener {
             if (scanline > 261){
                 scanline = -1;
                 regOddFrame = !regOddFrame;
+                endFrame();
             }
         }
     }
 
+    /**
+     * Publishes the completed frame in the current format if it was drawn and decides if the next one is drawn
+     */
+    private void endFrame(){
+        if (this.drawFrame){
+            if (this.frameFormat == NES2C02FrameFormat.INDEXED){
+                this.indexedFrames.publish();
+                this.indexBuffer = this.indexedFrames.getBackBuffer().getPixels();
+                this.lineEmphasis = this.indexedFrames.getBackBuffer().getEmphasis();
+            } else {
+                this.frameBuffers.publish();
+                this.screenBuffer = this.frameBuffers.getBackBuffer();
+            }
+        }
+        this.drawFrame = this.frameSkipper == null || this.frameSkipper.nextFrame();
+    }
+
     /**
      * Execute the DMA process of the PPU
      * @throws ProcessorException Can be thrown when errors reading / writing to busses
@@ -850,7 +1069,7 @@ public class NES2C02 extends Processor implements FlagListener {
         if (this.regDMACount >= 0 && this.regDMACount % 2 == 0){
             int lsb = (this.regDMACount >>> 1) & 0x00FF;
             int dmaAddress = (this.regDMAPage << 8) | lsb;
-            oamMemory[lsb] = cpuRead(dmaAddress);
+            oamMemory[lsb] = (byte) cpuRead(dmaAddress);
         }
 
         this.regDMACount++;
@@ -859,6 +1078,7 @@ public class NES2C02 extends Processor implements FlagListener {
          * Last read occurred so now re-enable the CPU and change PPU mode back to normal
          */
         if (this.regDMACount == 512){
+            this.spriteBuckets.invalidate();
             try {
                 this.flgCpuHalt.setFlagValue(HaltFlag.START);
                 this.executionState = NES2C02ExecutionState.RUNNING;
@@ -870,6 +1090,318 @@ public class NES2C02 extends Processor implements FlagListener {
         }
     }
 
+    /**
+     * Number of PPU cycles until the CPU is next affected, either the dot vertical blank starts on
+     * where an NMI may be raised, or the end of DMA when the CPU is restarted.
+     * @return number of cycles until the next event
+     */
+    @Override
+    public int cyclesUntilNextEvent(){
+
+        if (this.executionState == NES2C02ExecutionState.RUNNING_DMA)
+            return Math.max(1, 512 - this.regDMACount);
+
+        int dotsPerFrame = NES2C02Constants.CYCLES_PER_SCANLINE * NES2C02Constants.SCANLINES_PER_FRAME;
+        int skippedDot = NES2C02Constants.CYCLES_PER_SCANLINE;
+        int currentDot = (scanline + 1) * NES2C02Constants.CYCLES_PER_SCANLINE + cycle;
+        int vblankDot = (NES2C02Constants.SCANLINE_VBLANK_START + 1) * NES2C02Constants.CYCLES_PER_SCANLINE + 1;
+
+        int dots = Math.floorMod(vblankDot - currentDot, dotsPerFrame);
+
+        // Dot 0 of scanline 0 is always skipped, passing over it takes one cycle less
+        if (currentDot <= skippedDot || currentDot > vblankDot)
+            dots--;
+
+        return dots + 1;
+    }
+
+    /**
+     * Runs the PPU for a number of cycles. In scanline mode, when a run covers the visible dots of a visible
+     * line from its start the dots are drawn in one pass. Registers are only written between runs as the CPU
+     * synchronises the PPU before each access, so nothing can change part way through the line. Dots in the
+     * horizontal and vertical blank that have no effect are passed over. Lines where sprite zero could hit
+     * are run a dot at a time so the hit is flagged on the right dot. Visible lines of skipped frames are
+     * passed over in one step, checking only for a sprite zero hit.
+     * @param cycles maximum number of cycles to run
+     * @return number of cycles actually run
+     * @throws ProcessorException Can be thrown when errors reading / writing to busses
+     */
+    @Override
+    public int run(int cycles) throws ProcessorException {
+
+        if (this.renderMode == NES2C02RenderMode.DOT)
+            return super.run(cycles);
+
+        int executed = 0;
+        while (executed < cycles){
+
+            int dots = (this.executionState == NES2C02ExecutionState.RUNNING) ? runScanline(cycles - executed) : 0;
+
+            if (dots > 0){
+                this.cycleCount += dots;
+                executed += dots;
+                continue;
+            }
+
+            this.cycleCount++;
+            onTick();
+            executed++;
+        }
+        return executed;
+    }
+
+    /**
+     * Runs a span of the current scanline in one step if the PPU is at the start of one and it fits
+     *  - dots 0 to 256 of a visible line are rendered by renderScanline, or skipped by skipScanline when the
+     *    frame is not being drawn
+     *  - dots 258 to 320 of a visible line only fetch sprites for the next line, done on dot 257 and 340
+     *  - dots 2 to 339 of a line after the visible lines do nothing
+     * @param maxDots most dots that can be run
+     * @return number of dots run, 0 if the next dot must be run on its own
+     * @throws ProcessorException Can be thrown when errors reading from busses
+     */
+    private int runScanline(int maxDots) throws ProcessorException {
+
+        boolean visible = this.scanline >= 0 && this.scanline < NES2C02Constants.HEIGHT_VISIBLE_SCANLINES;
+
+        if (visible && this.cycle == 0){
+            // Dot 0 of scanline 0 is always skipped
+            int dots = (this.scanline == 0) ? NES2C02Constants.WIDTH_VISIBLE_PIXELS : NES2C02Constants.WIDTH_VISIBLE_PIXELS + 1;
+            if (dots > maxDots)
+                return 0;
+            if (!this.drawFrame){
+                skipScanline();
+                return dots;
+            }
+            if (isSpriteZeroHitPending())
+                return 0;
+            renderScanline();
+            return dots;
+        }
+
+        if (visible && this.cycle == 258){
+            int dots = 321 - 258;
+            if (dots > maxDots)
+                return 0;
+            // Sprites for the next line have not been fetched yet so nothing is being drawn
+            if (isFlagSet(this.regPPUMASK, NES2C02MaskFlags.SHOW_SPRITES))
+                bSpriteZeroBeingRendered = false;
+            this.cycle = 321;
+            return dots;
+        }
+
+        if (this.scanline >= NES2C02Constants.HEIGHT_VISIBLE_SCANLINES && this.scanline < NES2C02Constants.SCANLINES_PER_FRAME - 1
+                && this.cycle == 2){
+            // Nothing moves during the vertical blank, every dot draws the same as dot 1 did
+            int dots = 340 - 2;
+            if (dots > maxDots || isSpriteZeroHitPending())
+                return 0;
+            this.cycle = 340;
+            return dots;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Determine if sprite zero could hit on the current scanline
+     * @return true if sprite zero is on the line, both layers are shown and it has not already hit this frame
+     */
+    private boolean isSpriteZeroHitPending(){
+        return this.bSpriteZeroHitPossible
+                && isFlagSet(this.regPPUMASK, NES2C02MaskFlags.SHOW_BACKGROUND)
+                && isFlagSet(this.regPPUMASK, NES2C02MaskFlags.SHOW_SPRITES)
+                && !isFlagSet(this.regPPUSTATUS, NES2C02StatusFlags.SPRITE_ZERO_HIT);
+    }
+
+    /**
+     * Renders dots 0 to 256 of a visible scanline in one pass, leaving the PPU in the same state as running
+     * them one at a time. Background fetches happen on the same dots, sprites already loaded for the line are
+     * drawn into a line buffer up front.
+     * @throws ProcessorException Can be thrown when errors reading from busses
+     */
+    private void renderScanline() throws ProcessorException {
+
+        boolean showBackground = isFlagSet(this.regPPUMASK, NES2C02MaskFlags.SHOW_BACKGROUND);
+        boolean showSprites = isFlagSet(this.regPPUMASK, NES2C02MaskFlags.SHOW_SPRITES);
+
+        if (showSprites)
+            drawScanlineSprites();
+
+        boolean indexed = this.frameFormat == NES2C02FrameFormat.INDEXED;
+        if (indexed)
+            this.lineEmphasis[this.scanline] = (byte) ((this.regPPUMASK & NES2C02Palette.EMPHASIS_MASK) >> NES2C02Palette.EMPHASIS_SHIFT);
+
+        int[] screenBuffer = this.screenBuffer;
+        byte[] indexBuffer = this.indexBuffer;
+        int lineStart = this.scanline * NES2C02Constants.WIDTH_VISIBLE_PIXELS;
+        int bitMux = 0x8000 >> this.fineX;
+        int pixelShift = 30 - (this.fineX << 1);
+
+        // Dots 0 and 1 only draw pixels that are never shown, pixel x is drawn on dot x + 1
+        for (int dot = 2; dot <= NES2C02Constants.WIDTH_VISIBLE_PIXELS; dot++){
+
+            if (showBackground){
+                bgShiftPattern <<= 2;
+                bgShiftAttribLow <<= 1;
+                bgShiftAttribHigh <<= 1;
+            }
+
+            fetchBackground(dot);
+
+            int bgPixel = 0x00;
+            int bgPalette = 0x00;
+
+            if (showBackground){
+                bgPixel = (bgShiftPattern >>> pixelShift) & 0x03;
+                bgPalette = ((bgShiftAttribLow & bitMux) != 0 ? 0b01 : 0b00) | ((bgShiftAttribHigh & bitMux) != 0 ? 0b10 : 0b00);
+            }
+
+            int sprite = showSprites ? this.scanlineSprites[dot - 1] : 0x00;
+            int fgPixel = sprite & 0x03;
+
+            int colour;
+            if (fgPixel != 0 && (bgPixel == 0 || (sprite & 0x20) != 0))
+                colour = sprite & 0x1F;
+            else if (bgPixel != 0)
+                colour = (bgPalette << 2) | bgPixel;
+            else
+                colour = 0x00;
+
+            if (indexed)
+                indexBuffer[lineStart + dot - 1] = this.resolvedIndexes[colour];
+            else
+                screenBuffer[lineStart + dot - 1] = this.resolvedPalette[colour];
+        }
+
+        incrementScrollY();
+
+        if (showSprites){
+            bSpriteZeroBeingRendered = (this.scanlineSprites[NES2C02Constants.WIDTH_VISIBLE_PIXELS - 1] & 0x40) != 0;
+            advanceScanlineSprites();
+        }
+
+        this.cycle = NES2C02Constants.WIDTH_VISIBLE_PIXELS + 1;
+    }
+
+    /**
+     * Runs dots 0 to 256 of a visible scanline of a skipped frame in one pass, leaving the PPU in the same state
+     * as running them one at a time without drawing anything.
+     *
+     * The background shifters at the end of the line only hold the last two tiles loaded, so only the fetches
+     * for those tiles are made and the scroll is moved past the tiles before them. When sprite zero could hit
+     * every fetch is made and the background is checked under sprite zero's pixels only.
+     * @throws ProcessorException Can be thrown when errors reading from busses
+     */
+    private void skipScanline() throws ProcessorException {
+
+        boolean showBackground = isFlagSet(this.regPPUMASK, NES2C02MaskFlags.SHOW_BACKGROUND);
+        boolean showSprites = isFlagSet(this.regPPUMASK, NES2C02MaskFlags.SHOW_SPRITES);
+        int spriteZeroX = this.scanlineSpriteAttributes[0] & 0x000000FF;
+
+        if (isSpriteZeroHitPending()){
+
+            boolean leftmost = isFlagSet(this.regPPUMASK, NES2C02MaskFlags.SHOW_BACKGROUND_LEFTMOST)
+                    || isFlagSet(this.regPPUMASK, NES2C02MaskFlags.SHOW_SPRITES_LEFTMOST);
+            int firstDot = Math.max(leftmost ? 1 : 9, spriteZeroX + 1);
+            int lastDot = Math.min(NES2C02Constants.WIDTH_VISIBLE_PIXELS, spriteZeroX + 8);
+            int pixelShift = 30 - (this.fineX << 1);
+
+            // Pixel x is drawn on dot x + 1, dot 1 draws from the shifters as loaded for the line
+            for (int dot = 1; dot <= NES2C02Constants.WIDTH_VISIBLE_PIXELS; dot++){
+
+                if (dot > 1){
+                    bgShiftPattern <<= 2;
+                    bgShiftAttribLow <<= 1;
+                    bgShiftAttribHigh <<= 1;
+                    fetchBackground(dot);
+                }
+
+                if (dot >= firstDot && dot <= lastDot
+                        && ((bgShiftPattern >>> pixelShift) & 0x03) != 0
+                        && getFirstSpritePixel(dot - 1 - spriteZeroX) != 0)
+                    setStatusFlag(NES2C02StatusFlags.SPRITE_ZERO_HIT);
+            }
+        } else {
+
+            // Tiles fetched on dots 2 to 232 are shifted out by the end of the line
+            for (int dot = 8; dot < 233; dot += 8)
+                incrementScrollX();
+
+            for (int dot = 233; dot <= NES2C02Constants.WIDTH_VISIBLE_PIXELS; dot++){
+                if (showBackground){
+                    bgShiftPattern <<= 2;
+                    bgShiftAttribLow <<= 1;
+                    bgShiftAttribHigh <<= 1;
+                }
+                fetchBackground(dot);
+            }
+        }
+
+        incrementScrollY();
+
+        if (showSprites){
+            int column = NES2C02Constants.WIDTH_VISIBLE_PIXELS - 1 - spriteZeroX;
+            bSpriteZeroBeingRendered = getFirstSpritePixel(column) != 0;
+            advanceScanlineSprites();
+        }
+
+        this.cycle = NES2C02Constants.WIDTH_VISIBLE_PIXELS + 1;
+    }
+
+    /**
+     * Gets a pixel of the first sprite loaded for the scanline before it has been drawn, sprite zero when
+     * sprite zero is on the line
+     * @param column column of the sprite
+     * @return pixel value, 0 if transparent or the column is outside the sprite
+     */
+    private int getFirstSpritePixel(int column){
+        if (this.spriteCount == 0 || column < 0 || column > 7)
+            return 0x00;
+        return ((spriteShifterPattern[0] << (column << 1)) >>> 14) & 0x03;
+    }
+
+    /**
+     * Counts down the x position or shifts the pattern of each sprite loaded for the scanline, as dots 2 to 256
+     * each do when run one at a time
+     */
+    private void advanceScanlineSprites(){
+        int steps = NES2C02Constants.WIDTH_VISIBLE_PIXELS - 1;
+        for (int i = 0; i < spriteCount; i++){
+            int x = scanlineSpriteAttributes[i] & 0x000000FF;
+            int counted = Math.min(x, steps);
+            int shifts = steps - counted;
+            scanlineSpriteAttributes[i] = (scanlineSpriteAttributes[i] & 0xFFFFFF00) | (x - counted);
+            spriteShifterPattern[i] = (shifts < 16) ? spriteShifterPattern[i] << (shifts << 1) : 0;
+        }
+    }
+
+    /**
+     * Draws the sprites loaded for the current scanline into the sprite line buffer. Sprites are drawn last to
+     * first so where they overlap the first sprite with a pixel showing is kept, the same as when run a dot at a time.
+     */
+    private void drawScanlineSprites(){
+
+        Arrays.fill(this.scanlineSprites, 0x00);
+
+        for (int i = spriteCount - 1; i >= 0; i--){
+
+            int sprite = scanlineSpriteAttributes[i];
+            int x = sprite & 0x000000FF;
+            int attributes = (sprite >>> 8) & 0x000000FF;
+
+            int entry = (((attributes & 0x03) + 0x04) << 2)
+                    | (((attributes & 0x20) == 0) ? 0x20 : 0x00)
+                    | ((i == 0) ? 0x40 : 0x00);
+
+            for (int column = 0; column < 8 && x + column < NES2C02Constants.WIDTH_VISIBLE_PIXELS; column++){
+                int pixel = ((spriteShifterPattern[i] << (column << 1)) >>> 14) & 0x03;
+                if (pixel != 0)
+                    this.scanlineSprites[x + column] = entry | pixel;
+            }
+        }
+    }
+
     @Override
     public void onTick() throws ProcessorException {
         switch (this.executionState){
@@ -887,129 +1419,179 @@ public class NES2C02 extends Processor implements FlagListener {
         // Respond to CPU flags for registers
         if (flag instanceof RWFlag){
 
-            /*
-             * Check in range of PPU Registers
-             */
-            int tmpAddress = this.addressBus.readDataFromBus();
             int address = this.addressBus.readDataFromBus();
 
+            try {
+                if (flag.getFlagValue() == RWFlag.READ) {
+                    if (address >= NES2C02Constants.REG_MINIMUM_ADDRESS && address <= NES2C02Constants.REG_MAXIMUM_ADDRESS)
+                        this.dataBus.writeDataToBus(read(address));
+                } else if (flag.getFlagValue() == RWFlag.WRITE) {
+                    write(address, this.dataBus.readDataFromBus());
+                }
+            } catch (InvalidBusDataException | MemoryException e) {
+                e.printStackTrace();
+                FlagException fe = new FlagException(e.getMessage());
+                fe.addSuppressed(e);
+                throw fe;
+            }
+        }
+    }
+
+    /**
+     * Reads a PPU register directly without going through the CPU busses and R/W flag
+     * @param address address of the register, registers are mirrored every 8 bytes
+     * @return value of the register or 0x00 if the register can not be read
+     * @throws MemoryException Thrown when reading PPU memory fails
+     */
+    @Override
+    public int read(int address) throws MemoryException {
+
+        if (address < NES2C02Constants.REG_MINIMUM_ADDRESS || address > NES2C02Constants.REG_MAXIMUM_ADDRESS)
+            return 0x00;
+
+        /*
+         * PPU registers are mirrored every 8 bytes so need to apply a mask
+         */
+        address = address & NES2C02Constants.REG_MASK;
+
+        int data = 0x00;
+
+        try {
+            synchronise();
+
+            switch (address) {
+                case NES2C02Constants.REG_PPUCTRL:
+                case NES2C02Constants.REG_PPUMASK:
+                case NES2C02Constants.REG_OAMADDR:
+                case NES2C02Constants.REG_OAMDATA:
+                    data = this.oamMemory[this.regPPUADDR] & 0xFF;
+                    break;
+                case NES2C02Constants.REG_PPUSCROLL:
+                    data = 0x00;
+                    break;
+                case NES2C02Constants.REG_PPUSTATUS:
+                    //setStatusFlag(NES2C02StatusFlags.VBLANK_STARTED);
+                    //data = (this.regPPUSTATUS & 0xE0) | (this.dataBuffer & 0x1F);
+                    data = this.regPPUSTATUS;
+                    clearStatusFlag(NES2C02StatusFlags.VBLANK_STARTED);
+                    this.addressLatch = 0;
+                    break;
+                case NES2C02Constants.REG_PPUDATA:
+                    data = this.dataBuffer;
+
+                    this.dataBuffer = ppuRead(this.vramAddress);
+
+                    // In the palette memory range reads are instantaneous
+                    if (this.vramAddress >= 0x3F00) data = this.dataBuffer;
+
+                    this.vramAddress = (this.vramAddress +
+                            (isFlagSet(this.regPPUCTRL, NES2C02ControllerFlags.VRAM_ADDR_INC_PER_RW_PPUDATA) ? 32 : 1))
+                            & NES2C02LoopyMasks.ADDRESS;
+                    break;
+            }
+        } catch (ProcessorException e) {
+            MemoryException me = new MemoryException(e.getMessage());
+            me.addSuppressed(e);
+            throw me;
+        }
+
+        return data;
+    }
+
+    /**
+     * Writes a PPU register directly without going through the CPU busses and R/W flag
+     * @param address address of the register, registers are mirrored every 8 bytes
+     * @param data value to write
+     * @throws MemoryException Thrown when writing PPU memory or halting the CPU fails
+     */
+    @Override
+    public void write(int address, int data) throws MemoryException {
+
+        try {
+            if (address >= NES2C02Constants.REG_MINIMUM_ADDRESS && address <= NES2C02Constants.REG_MAXIMUM_ADDRESS
+                    || address == NES2C02Constants.REG_OAMDMA)
+                synchronise();
+
             if (address >= NES2C02Constants.REG_MINIMUM_ADDRESS && address <= NES2C02Constants.REG_MAXIMUM_ADDRESS){
                 /*
                  * PPU registers are mirrored every 8 bytes so need to apply a mask
                  */
                 address = address & NES2C02Constants.REG_MASK;
 
-                try {
-                    if (flag.getFlagValue() == RWFlag.READ) {
-                        /*
-                         * Reading from registers
-                         */
-                        switch (address) {
-                            case NES2C02Constants.REG_PPUCTRL:
-                            case NES2C02Constants.REG_PPUMASK:
-                            case NES2C02Constants.REG_OAMADDR:
-                            case NES2C02Constants.REG_OAMDATA:
-                                this.dataBus.writeDataToBus(this.oamMemory[this.regPPUADDR]);
-                                break;
-                            case NES2C02Constants.REG_PPUSCROLL:
-                                this.dataBus.writeDataToBus(0x00);
-                                break;
-                            case NES2C02Constants.REG_PPUSTATUS:
-                                //setStatusFlag(NES2C02StatusFlags.VBLANK_STARTED);
-                                //this.dataBus.writeDataToBus((this.regPPUSTATUS & 0xE0) | (this.dataBuffer & 0x1F));
-                                this.dataBus.writeDataToBus(this.regPPUSTATUS);
-                                clearStatusFlag(NES2C02StatusFlags.VBLANK_STARTED);
-                                this.addressLatch = 0;
-                                break;
-                            case NES2C02Constants.REG_PPUDATA:
-                                int data = this.dataBuffer;
-
-                                this.dataBuffer = ppuRead(this.vramAddress.getValue());
-
-                                // In the palette memory range reads are instantaneous
-                                if (this.vramAddress.getValue() >= 0x3F00) data = this.dataBuffer;
-
-                                this.dataBus.writeDataToBus(data);
-                                this.vramAddress = new LoopyRegister(this.vramAddress.getValue() +
-                                        (isFlagSet(this.regPPUCTRL, NES2C02ControllerFlags.VRAM_ADDR_INC_PER_RW_PPUDATA) ? 32 : 1));
-                                break;
+                switch (address) {
+                    case NES2C02Constants.REG_PPUSTATUS:
+                    case NES2C02Constants.REG_OAMADDR:
+                        this.regOAMADDR = data & 0x00FF;
+                        break;
+                    case NES2C02Constants.REG_OAMDATA:
+                        oamMemory[regOAMDATA] = (byte) data;
+                        this.spriteBuckets.invalidate();
+                        break;
+                    case NES2C02Constants.REG_PPUCTRL:
+                        this.regPPUCTRL = data;
+                        this.tramAddress = (this.tramAddress & ~NES2C02LoopyMasks.NAMETABLE)
+                                | ((data << NES2C02LoopyMasks.NAMETABLE_SHIFT) & NES2C02LoopyMasks.NAMETABLE);
+                        break;
+                    case NES2C02Constants.REG_PPUMASK:
+                        int changed = this.regPPUMASK ^ data;
+                        this.regPPUMASK = data;
+                        if ((changed & (NES2C02MaskFlags.GREYSCALE | NES2C02Palette.EMPHASIS_MASK)) != 0)
+                            resolvePalette();
+                        break;
+                    case NES2C02Constants.REG_PPUSCROLL:
+                        if (this.addressLatch == 0){
+                            this.fineX = data & 0x07;
+                            this.tramAddress = (this.tramAddress & ~NES2C02LoopyMasks.COARSE_X)
+                                    | ((data >> 3) & NES2C02LoopyMasks.COARSE_X);
+                            this.addressLatch = 1;
+                        } else {
+                            this.tramAddress = (this.tramAddress & ~(NES2C02LoopyMasks.FINE_Y | NES2C02LoopyMasks.COARSE_Y))
+                                    | ((data & 0x07) << NES2C02LoopyMasks.FINE_Y_SHIFT)
+                                    | (((data >> 3) << NES2C02LoopyMasks.COARSE_Y_SHIFT) & NES2C02LoopyMasks.COARSE_Y);
+                            this.addressLatch = 0;
                         }
-
-                    } else if (flag.getFlagValue() == RWFlag.WRITE) {
-                        /*
-                         * Writing to registers
-                         */
-                        int data = this.dataBus.readDataFromBus();
-
-                        switch (address) {
-                            case NES2C02Constants.REG_PPUSTATUS:
-                            case NES2C02Constants.REG_OAMADDR:
-                                this.regOAMADDR = data & 0x00FF;
-                                break;
-                            case NES2C02Constants.REG_OAMDATA:
-                                oamMemory[regOAMDATA] = data;
-                                break;
-                            case NES2C02Constants.REG_PPUCTRL:
-                                this.regPPUCTRL = data;
-                                this.tramAddress.setNametableX(isFlagSet(this.regPPUCTRL, NES2C02ControllerFlags.BASE_NAMETABLE_ADDRESS_LOW) ? 1 : 0);
-                                this.tramAddress.setNametableY(isFlagSet(this.regPPUCTRL, NES2C02ControllerFlags.BASE_NAMETABLE_ADDRESS_HIGH) ? 1 : 0);
-                                break;
-                            case NES2C02Constants.REG_PPUMASK:
-                                this.regPPUMASK = data;
-                                break;
-                            case NES2C02Constants.REG_PPUSCROLL:
-                                if (this.addressLatch == 0){
-                                    this.fineX = data & 0x07;
-                                    this.tramAddress.setCoarseX(data >> 3);
-                                    this.addressLatch = 1;
-                                } else {
-                                    tramAddress.setFineY(data & 0x07);
-                                    tramAddress.setCoarseY(data >> 3);
-                                    this.addressLatch = 0;
-                                }
-                                break;
-                            case NES2C02Constants.REG_PPUADDR:
-                                if (this.addressLatch == 0) {
-                                    this.tramAddress = new LoopyRegister(((data & 0x3F) << 8) | (this.tramAddress.getValue() & 0x00FF) );
-                                    addressLatch = 1;
-                                } else {
-                                    this.tramAddress = new LoopyRegister((this.tramAddress.getValue() & 0xFF00) | data);
-                                    this.vramAddress = new LoopyRegister(tramAddress.getValue());
-                                    addressLatch = 0;
-                                }
-                                break;
-                            case NES2C02Constants.REG_PPUDATA:
-                                int addr = this.vramAddress.getValue();
-                                ppuWrite(this.vramAddress.getValue(), data);
-                                //System.out.println("PPU WRITE TO : " + String.format("%02X", this.vramAddress.getValue()) + " " +  String.format("%02X", data));
-                                this.vramAddress = new LoopyRegister(this.vramAddress.getValue() +
-                                        (isFlagSet(this.regPPUCTRL, NES2C02ControllerFlags.VRAM_ADDR_INC_PER_RW_PPUDATA) ? 32 : 1));
-                                //System.out.println(this.vramAddress.getValue());
-                                break;
+                        break;
+                    case NES2C02Constants.REG_PPUADDR:
+                        if (this.addressLatch == 0) {
+                            this.tramAddress = ((data & 0x3F) << 8) | (this.tramAddress & 0x00FF);
+                            addressLatch = 1;
+                        } else {
+                            this.tramAddress = ((this.tramAddress & 0xFF00) | data) & NES2C02LoopyMasks.ADDRESS;
+                            this.vramAddress = this.tramAddress;
+                            addressLatch = 0;
                         }
-                    }
-                } catch (InvalidBusDataException | ProcessorException e) {
-                    e.printStackTrace();
-                    MemoryException me = new MemoryException(e.getMessage());
-                    me.addSuppressed(e);
-                    FlagException fe = new FlagException(e.getMessage());
-                    fe.addSuppressed(me);
-                    throw fe;
+                        break;
+                    case NES2C02Constants.REG_PPUDATA:
+                        ppuWrite(this.vramAddress, data);
+                        this.vramAddress = (this.vramAddress +
+                                (isFlagSet(this.regPPUCTRL, NES2C02ControllerFlags.VRAM_ADDR_INC_PER_RW_PPUDATA) ? 32 : 1))
+                                & NES2C02LoopyMasks.ADDRESS;
+                        break;
                 }
 
+            } else if (address == NES2C02Constants.REG_OAMDMA){
+                /*
+                 * When writing to this register, this triggers DMA for the PPU to
+                 * Start loading from the page written to this register
+                 */
+                if (this.dmaController != null){
+                    /*
+                     * Copy the whole page at once, the CPU sits out the cycles the transfer takes
+                     */
+                    this.dmaController.copy(data << 8, this.oamMemory, 0, this.oamMemory.length);
+                    this.spriteBuckets.invalidate();
+                    this.dmaController.steal(NES2C02Constants.OAM_DMA_CYCLES + (this.dmaController.isOddCycle() ? 1 : 0));
+                } else {
+                    this.regDMAPage = data;
+                    this.flgCpuHalt.setFlagValue(HaltFlag.HALT);
+                    this.regDMACount = -8;
+                    this.executionState = NES2C02ExecutionState.RUNNING_DMA;
+                }
             }
-
-            /*
-             * When writing to this register, this triggers DMA for the PPU to
-             * Start loading from the page written to this register
-             */
-            if (address == NES2C02Constants.REG_OAMDMA && flag.getFlagValue() == RWFlag.WRITE){
-                int data = this.dataBus.readDataFromBus();
-                this.regDMAPage = data;
-                this.flgCpuHalt.setFlagValue(HaltFlag.HALT);
-                this.regDMACount = -8;
-                this.executionState = NES2C02ExecutionState.RUNNING_DMA;
-            }
+        } catch (ProcessorException | FlagException e) {
+            MemoryException me = new MemoryException(e.getMessage());
+            me.addSuppressed(e);
+            throw me;
         }
     }
-}
\ No newline at end of file
+}
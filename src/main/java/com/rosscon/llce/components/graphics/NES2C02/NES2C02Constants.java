@@ -14,6 +14,13 @@ public class NES2C02Constants {
     public static final int WIDTH_TOTAL_PIXELS = 320;
     public static final int HEIGHT_TOTAL_SCANLINES = 261;
 
+    /**
+     * Timing, a frame runs scanlines -1 to 261 of 341 cycles each
+     */
+    public static final int CYCLES_PER_SCANLINE = 341;
+    public static final int SCANLINES_PER_FRAME = 263;
+    public static final int SCANLINE_VBLANK_START = 241;
+
 
     /**
      * Color palette of the NES only has 0x40 colours
@@ -66,6 +73,13 @@ public class NES2C02Constants {
      */
     public static final int REG_OAMDMA      = 0x00004014;
 
+    /**
+     * CPU cycles taken by OAM DMA, a wait cycle then a read and write for each of the 256 bytes.
+     * One more is taken to line up with a read cycle when started on an odd cycle.
+     * https://wiki.nesdev.com/w/index.php/PPU_registers#OAMDMA
+     */
+    public static final int OAM_DMA_CYCLES  = 513;
+
 
     /**
      * Exception error messages
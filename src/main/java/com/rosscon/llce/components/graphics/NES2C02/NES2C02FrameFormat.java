@@ -0,0 +1,11 @@
+package com.rosscon.llce.components.graphics.NES2C02;
+
+/**
+ * Format the PPU draws frames in
+ * ARGB - 32 bit colours, ready to display
+ * INDEXED - a byte per pixel holding the colour index with greyscale applied and the emphasis bits of each line,
+ *           converted to colours by the consumer
+ */
+public enum NES2C02FrameFormat {
+    ARGB, INDEXED
+}
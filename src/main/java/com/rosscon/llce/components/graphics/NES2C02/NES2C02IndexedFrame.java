@@ -0,0 +1,57 @@
+package com.rosscon.llce.components.graphics.NES2C02;
+
+/**
+ * Frame drawn as colour indexes rather than colours.
+ *
+ * Each pixel holds the 6 bit colour index with greyscale already applied, the PPUMASK emphasis bits are
+ * held once per scanline alongside them. Converting to colours is left to the consumer, so consumers that
+ * only compare or hash frames never pay for it and the frame is a quarter of the size of an ARGB frame.
+ */
+public class NES2C02IndexedFrame {
+
+    /**
+     * Colour index of each pixel
+     */
+    private final byte[] pixels;
+
+    /**
+     * Emphasis bits of each scanline, red in bit 0, green in bit 1 and blue in bit 2
+     */
+    private final byte[] emphasis;
+
+    public NES2C02IndexedFrame(){
+        this.pixels = new byte[NES2C02Constants.WIDTH_VISIBLE_PIXELS * NES2C02Constants.HEIGHT_VISIBLE_SCANLINES];
+        this.emphasis = new byte[NES2C02Constants.HEIGHT_VISIBLE_SCANLINES];
+    }
+
+    public byte[] getPixels(){
+        return this.pixels;
+    }
+
+    public byte[] getEmphasis(){
+        return this.emphasis;
+    }
+
+    /**
+     * Converts the frame to ARGB colours
+     * @param destination buffer to hold the colours, one int per pixel
+     */
+    public void toArgb(int[] destination){
+        int width = NES2C02Constants.WIDTH_VISIBLE_PIXELS;
+        for (int line = 0; line < this.emphasis.length; line++){
+            int[] palette = NES2C02Palette.getEmphasisPalette(this.emphasis[line]);
+            for (int i = line * width; i < (line + 1) * width; i++)
+                destination[i] = palette[this.pixels[i]];
+        }
+    }
+
+    /**
+     * Converts the frame to ARGB colours
+     * @return one int per pixel
+     */
+    public int[] toArgb(){
+        int[] argb = new int[this.pixels.length];
+        toArgb(argb);
+        return argb;
+    }
+}
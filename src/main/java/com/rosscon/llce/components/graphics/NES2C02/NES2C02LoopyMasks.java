@@ -3,6 +3,12 @@ package com.rosscon.llce.components.graphics.NES2C02;
 /**
  * Masks for parts of the Loopy register
  * https://wiki.nesdev.com/w/index.php/PPU_scrolling
+ *
+ *  yyy NN YYYYY XXXXX
+ *  ||| || ||||| +++++-- coarse x scroll
+ *  ||| || +++++-------- coarse y scroll
+ *  ||| ++-------------- nametable select (yx)
+ *  +++----------------- fine y scroll
  */
 public class NES2C02LoopyMasks {
 
@@ -12,5 +18,13 @@ public class NES2C02LoopyMasks {
     public static final int NAMETABLE_X = 0b000010000000000;
     public static final int NAMETABLE_Y = 0b000100000000000;
     public static final int FINE_Y      = 0b111000000000000;
+    public static final int ADDRESS     = 0b111111111111111;
+
+    /**
+     * Position of the lowest bit of each part
+     */
+    public static final int COARSE_Y_SHIFT  = 5;
+    public static final int NAMETABLE_SHIFT = 10;
+    public static final int FINE_Y_SHIFT    = 12;
 
 }
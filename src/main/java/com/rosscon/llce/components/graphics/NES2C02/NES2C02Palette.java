@@ -0,0 +1,84 @@
+package com.rosscon.llce.components.graphics.NES2C02;
+
+/**
+ * ARGB colours of the 64 NES colours under each combination of the PPUMASK colour emphasis bits.
+ *
+ * Emphasising a colour darkens the other two, so a channel is attenuated whenever an emphasis bit other
+ * than its own is set. The blacks in columns 0x0E and 0x0F are left alone.
+ * https://wiki.nesdev.com/w/index.php/Colour-emphasis_bits
+ */
+public class NES2C02Palette {
+
+    /**
+     * Mask and shift of the emphasis bits in PPUMASK
+     */
+    public static final int EMPHASIS_MASK = NES2C02MaskFlags.EMPHASIZE_RED | NES2C02MaskFlags.EMPHASIZE_GREEN
+            | NES2C02MaskFlags.EMPHASIZE_BLUE;
+    public static final int EMPHASIS_SHIFT = 5;
+
+    /**
+     * Colour index mask when greyscale is set, only the grey column is used
+     */
+    public static final int GREYSCALE_MASK = 0x30;
+
+    /**
+     * Measured level of an attenuated channel relative to full
+     */
+    private static final double ATTENUATION = 0.816328;
+
+    /**
+     * Colours indexed by emphasis bits (PPUMASK >> 5) then colour index
+     */
+    private static final int[][] EMPHASIS_PALETTES = new int[8][NES2C02Constants.PALETTE.length];
+
+    static {
+        for (int emphasis = 0; emphasis < EMPHASIS_PALETTES.length; emphasis++){
+            for (int index = 0; index < NES2C02Constants.PALETTE.length; index++)
+                EMPHASIS_PALETTES[emphasis][index] = emphasise(NES2C02Constants.PALETTE[index], index, emphasis);
+        }
+    }
+
+    /**
+     * Applies emphasis to a colour
+     * @param argb colour with no emphasis
+     * @param index colour index
+     * @param emphasis emphasis bits, red in bit 0, green in bit 1 and blue in bit 2
+     * @return emphasised colour
+     */
+    private static int emphasise(int argb, int index, int emphasis){
+
+        if (emphasis == 0 || (index & 0x0E) == 0x0E)
+            return argb;
+
+        int red   = attenuate((argb >> 16) & 0xFF, (emphasis & ~0x01) != 0);
+        int green = attenuate((argb >> 8) & 0xFF, (emphasis & ~0x02) != 0);
+        int blue  = attenuate(argb & 0xFF, (emphasis & ~0x04) != 0);
+
+        return (argb & 0xFF000000) | (red << 16) | (green << 8) | blue;
+    }
+
+    private static int attenuate(int channel, boolean attenuated){
+        return attenuated ? (int) Math.round(channel * ATTENUATION) : channel;
+    }
+
+    /**
+     * Gets the colours of every colour index under a combination of emphasis bits, must not be changed
+     * @param emphasis emphasis bits, red in bit 0, green in bit 1 and blue in bit 2
+     * @return colours indexed by colour index
+     */
+    static int[] getEmphasisPalette(int emphasis){
+        return EMPHASIS_PALETTES[emphasis & 0x07];
+    }
+
+    /**
+     * Gets the colour shown for a colour index under a PPUMASK value
+     * @param index colour index held in palette memory
+     * @param mask PPUMASK value
+     * @return ARGB colour
+     */
+    public static int getColour(int index, int mask){
+        if ((mask & NES2C02MaskFlags.GREYSCALE) != 0)
+            index &= GREYSCALE_MASK;
+        return EMPHASIS_PALETTES[(mask & EMPHASIS_MASK) >> EMPHASIS_SHIFT][index & 0x3F];
+    }
+}
@@ -0,0 +1,10 @@
+package com.rosscon.llce.components.graphics.NES2C02;
+
+/**
+ * How the PPU renders the visible part of a scanline when run in batches
+ * DOT - every dot is run one at a time
+ * SCANLINE - the visible dots of a line are drawn in one pass when nothing can change part way through the line
+ */
+public enum NES2C02RenderMode {
+    DOT, SCANLINE
+}
@@ -0,0 +1,94 @@
+package com.rosscon.llce.components.graphics.NES2C02;
+
+import java.util.Arrays;
+
+/**
+ * Sprites found on each visible scanline, built from OAM so sprite evaluation is a lookup rather than a
+ * search of all 64 OAM entries on every line.
+ *
+ * OAM normally only changes once a frame through DMA, so the buckets are rebuilt the first time a line is
+ * evaluated after OAM has been written or the sprite height has changed. Each bucket holds the first 8
+ * sprites on the line in OAM order, the same sprites found by searching OAM.
+ */
+public class NES2C02SpriteBuckets {
+
+    /**
+     * Most sprites evaluated for a line
+     */
+    public static final int SPRITES_PER_LINE = 8;
+
+    /**
+     * OAM the buckets are built from
+     */
+    private final byte[] oam;
+
+    /**
+     * OAM index of the sprites on each line and how many there are
+     */
+    private final int[][] buckets;
+    private final int[] counts;
+
+    /**
+     * Sprite height the buckets were built for, 0 when they must be rebuilt
+     */
+    private int height;
+
+    /**
+     * Creates buckets for an OAM
+     * @param oam OAM of 64 sprites, 4 entries each
+     */
+    public NES2C02SpriteBuckets(byte[] oam){
+        this.oam = oam;
+        this.buckets = new int[NES2C02Constants.HEIGHT_VISIBLE_SCANLINES][SPRITES_PER_LINE];
+        this.counts = new int[NES2C02Constants.HEIGHT_VISIBLE_SCANLINES];
+        this.height = 0;
+    }
+
+    /**
+     * Marks the buckets to be rebuilt, called whenever OAM is written
+     */
+    public void invalidate(){
+        this.height = 0;
+    }
+
+    /**
+     * Gets how many sprites are on a line, rebuilding the buckets first if needed
+     * @param scanline visible scanline
+     * @param height sprite height, 8 or 16
+     * @return number of sprites, at most 8
+     */
+    public int getCount(int scanline, int height){
+        if (this.height != height)
+            rebuild(height);
+        return this.counts[scanline];
+    }
+
+    /**
+     * Gets the OAM index of the sprites on a line in OAM order, only valid after getCount for the same line
+     * @param scanline visible scanline
+     * @return OAM indexes, the first getCount entries are used
+     */
+    public int[] getSprites(int scanline){
+        return this.buckets[scanline];
+    }
+
+    /**
+     * Places every sprite in the bucket of each line it covers
+     * @param height sprite height, 8 or 16
+     */
+    private void rebuild(int height){
+
+        Arrays.fill(this.counts, 0);
+
+        for (int oamIndex = 0; oamIndex < 64; oamIndex++){
+            int y = this.oam[oamIndex * 4] & 0xFF;
+            int last = Math.min(y + height, NES2C02Constants.HEIGHT_VISIBLE_SCANLINES);
+            for (int line = y; line < last; line++){
+                if (this.counts[line] < SPRITES_PER_LINE)
+                    this.buckets[line][this.counts[line]++] = oamIndex;
+            }
+        }
+
+        this.height = height;
+    }
+}
@@ -0,0 +1,29 @@
+package com.rosscon.llce.components.graphics;
+
+/**
+ * How a frame is scaled up for display
+ * NEAREST - each pixel is repeated, any whole number scale factor
+ * SCALE2X - edge preserving Scale2x filter, always scales by 2
+ * SCALE3X - edge preserving Scale3x filter, always scales by 3
+ */
+public enum ScalingFilter {
+    NEAREST(0), SCALE2X(2), SCALE3X(3);
+
+    /**
+     * Scale factor of the filter, 0 when any factor can be used
+     */
+    private final int factor;
+
+    ScalingFilter(int factor){
+        this.factor = factor;
+    }
+
+    /**
+     * Gets the scale factor used with the filter
+     * @param requested scale factor wanted
+     * @return the filter's own factor, or the requested factor (at least 1) if the filter can use any
+     */
+    public int getFactor(int requested){
+        return (this.factor != 0) ? this.factor : Math.max(1, requested);
+    }
+}
@@ -0,0 +1,96 @@
+package com.rosscon.llce.components.graphics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock free exchange of frames between one producer and one consumer running on different threads.
+ *
+ * The producer draws into the back buffer and publishes it when the frame is complete, the consumer
+ * borrows the front buffer and keeps it until it next updates. The third buffer sits between them holding
+ * the most recently published frame. Publishing and updating each swap their buffer with the middle one
+ * in a single atomic operation, so neither side waits for the other, nothing is copied and the producer
+ * never draws into a buffer the consumer is reading. When the producer publishes faster than the consumer
+ * updates the older frames are dropped.
+ * @param <T> type of buffer exchanged
+ */
+public class TripleBuffer<T> {
+
+    /**
+     * Bits of the middle state holding the index of the middle buffer
+     */
+    private static final int INDEX_MASK = 0x03;
+
+    /**
+     * Set in the middle state when the middle buffer holds a frame the consumer has not seen
+     */
+    private static final int FRESH = 0x04;
+
+    /**
+     * The three buffers
+     */
+    private final T[] buffers;
+
+    /**
+     * Index of the middle buffer and whether it is fresh, the only state shared between threads
+     */
+    private final AtomicInteger middle;
+
+    /**
+     * Index of the buffer being drawn into, only used by the producer
+     */
+    private int back;
+
+    /**
+     * Index of the buffer being read from, only used by the consumer
+     */
+    private int front;
+
+    /**
+     * Creates a triple buffer
+     * @param factory creates each of the three buffers
+     */
+    @SuppressWarnings("unchecked")
+    public TripleBuffer(Supplier<T> factory){
+        this.buffers = (T[]) new Object[]{ factory.get(), factory.get(), factory.get() };
+        this.back = 0;
+        this.middle = new AtomicInteger(1);
+        this.front = 2;
+    }
+
+    /**
+     * Gets the buffer the producer should draw the next frame into
+     * @return back buffer
+     */
+    public T getBackBuffer(){
+        return this.buffers[this.back];
+    }
+
+    /**
+     * Publishes the back buffer as the most recent complete frame, called by the producer. The producer
+     * must then draw into the buffer returned by getBackBuffer.
+     */
+    public void publish(){
+        this.back = this.middle.getAndSet(this.back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Moves the most recent complete frame to the front if one was published since the last update,
+     * called by the consumer. The previous front buffer is handed back to the producer.
+     * @return true if the front buffer now holds a new frame
+     */
+    public boolean update(){
+        if ((this.middle.get() & FRESH) == 0)
+            return false;
+        this.front = this.middle.getAndSet(this.front) & INDEX_MASK;
+        return true;
+    }
+
+    /**
+     * Gets the frame the consumer is reading, it is not changed by the producer until the next update
+     * @return front buffer
+     */
+    public T getFrontBuffer(){
+        return this.buffers[this.front];
+    }
+}
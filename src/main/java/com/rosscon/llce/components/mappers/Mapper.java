@@ -37,4 +37,22 @@ public abstract class Mapper implements FlagListener {
         this.rwFlag = rwFlag;
         rwFlag.addListener(this);
     }
+
+    /**
+     * Creates a mapper that responds to a fixed address range, allowing a decoding RW flag
+     * to only notify the mapper of accesses within that range
+     * @param addressBus System address bus
+     * @param dataBus System data bus
+     * @param rwFlag System RW flag
+     * @param firstAddress First address mapper can respond to
+     * @param lastAddress Last address mapper can respond to
+     */
+    public Mapper(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag, int firstAddress, int lastAddress){
+        this.addressBus = addressBus;
+        this.dataBus = dataBus;
+        this.rwFlag = rwFlag;
+        this.firstAddress = firstAddress;
+        this.lastAddress = lastAddress;
+        rwFlag.addListener(this, firstAddress, lastAddress);
+    }
 }
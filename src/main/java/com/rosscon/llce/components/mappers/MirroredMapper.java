@@ -6,8 +6,10 @@ import com.rosscon.llce.components.flags.Flag;
 import com.rosscon.llce.components.flags.RWFlag;
 import com.rosscon.llce.components.flags.FlagException;
 import com.rosscon.llce.components.memory.Memory;
+import com.rosscon.llce.components.memory.MemoryDevice;
+import com.rosscon.llce.components.memory.MemoryException;
 
-public class MirroredMapper extends Mapper {
+public class MirroredMapper extends Mapper implements MemoryDevice {
 
     /**
      * Memory to be mirrored
@@ -32,14 +34,10 @@ public class MirroredMapper extends Mapper {
      */
     public MirroredMapper(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag,
                           Memory memory, int mapperLow, int mapperHigh, int mask) {
-        super(addressBus, dataBus, rwFlag);
+        super(addressBus, dataBus, rwFlag, mapperLow, mapperHigh);
         this.memory = memory;
 
         this.mask = mask;
-
-        this.firstAddress = mapperLow;
-        this.lastAddress  = mapperHigh;
-
     }
 
 
@@ -99,4 +97,28 @@ public class MirroredMapper extends Mapper {
             }
         }
     }
+
+    /**
+     * Reads directly from the mirrored memory without going through the busses and R/W flags
+     * @param address address to read
+     * @return data held at the mirrored address or 0x00 if out of the mappers range
+     */
+    @Override
+    public int read(int address) {
+        if (address >= this.firstAddress && address <= this.lastAddress)
+            return this.memory.read(address & this.mask);
+        return 0x00;
+    }
+
+    /**
+     * Writes directly to the mirrored memory without going through the busses and R/W flags
+     * @param address address to write to
+     * @param value value to write
+     * @throws MemoryException Thrown when the mirrored memory fails to write
+     */
+    @Override
+    public void write(int address, int value) throws MemoryException {
+        if (address >= this.firstAddress && address <= this.lastAddress)
+            this.memory.write(address & this.mask, value);
+    }
 }
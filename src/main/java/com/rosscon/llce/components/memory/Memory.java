@@ -7,7 +7,7 @@ import com.rosscon.llce.components.flags.FlagListener;
 /**
  * Memory that works purely with integers for the bus and data being held
  */
-public abstract class Memory implements FlagListener {
+public abstract class Memory implements FlagListener, MemoryDevice {
 
     /**
      * Busses
@@ -16,9 +16,20 @@ public abstract class Memory implements FlagListener {
     protected IntegerBus dataBus;
 
     /**
-     * Contents of memory
+     * Contents of memory, each value is packed into the number of bytes needed
+     * to hold the width of the data bus, least significant byte first
      */
-    protected int[] contents;
+    protected byte[] contents;
+
+    /**
+     * Number of bytes used to store a single value
+     */
+    protected int cellBytes;
+
+    /**
+     * Mask of all bits that fit on the data bus
+     */
+    protected int dataMask;
 
     /**
      * Start and End Addresses
@@ -40,6 +51,20 @@ public abstract class Memory implements FlagListener {
      * @throws MemoryException Thrown when any bus of flag is null
      */
     public Memory(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag) throws MemoryException {
+        this(addressBus, dataBus, rwFlag, true);
+    }
+
+    /**
+     * Creates memory with the maximum possible range that can be addressed by the attached address bus,
+     * optionally without allocating a backing store for implementations that manage their own storage
+     * @param addressBus Address Bus to attach to
+     * @param dataBus Data bus to attach to
+     * @param rwFlag RW Flag to attach to
+     * @param allocateContents true = allocate contents for the full range, false = leave contents unallocated
+     * @throws MemoryException Thrown when any bus of flag is null
+     */
+    protected Memory(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag,
+                     boolean allocateContents) throws MemoryException {
 
         if (addressBus == null) throw new MemoryException(MemoryConstants.EX_NULL_ADDRESS_BUS);
         if (dataBus == null) throw new MemoryException(MemoryConstants.EX_NULL_DATA_BUS);
@@ -53,8 +78,10 @@ public abstract class Memory implements FlagListener {
         startAddress = 0;
         lastAddress = 0xFFFFFFFF >>> (32 - addressBus.getBusWidth());
 
-        this.contents = new int[lastAddress];
-        this.rwFlag.addListener(this);
+        sizeCells();
+        if (allocateContents)
+            allocate();
+        this.rwFlag.addListener(this, startAddress, lastAddress);
     }
 
     /**
@@ -67,6 +94,22 @@ public abstract class Memory implements FlagListener {
      * @throws MemoryException Thrown when any bus of flag is null or an invalid address range provided
      */
     public Memory(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag, int startAddress, int lastAddress) throws MemoryException {
+        this(addressBus, dataBus, rwFlag, startAddress, lastAddress, true);
+    }
+
+    /**
+     * Creates with a start and end address, optionally without allocating a backing store for
+     * implementations that manage their own storage
+     * @param addressBus Address Bus to attach to
+     * @param dataBus Data bus to attach to
+     * @param rwFlag RW Flag to attach to
+     * @param startAddress Address of the first value in memory
+     * @param lastAddress Address of the last value in memory
+     * @param allocateContents true = allocate contents for the full range, false = leave contents unallocated
+     * @throws MemoryException Thrown when any bus of flag is null or an invalid address range provided
+     */
+    protected Memory(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag, int startAddress, int lastAddress,
+                     boolean allocateContents) throws MemoryException {
 
         if (addressBus == null) throw new MemoryException(MemoryConstants.EX_NULL_ADDRESS_BUS);
         if (dataBus == null) throw new MemoryException(MemoryConstants.EX_NULL_DATA_BUS);
@@ -83,8 +126,32 @@ public abstract class Memory implements FlagListener {
         this.startAddress = startAddress;
         this.lastAddress = lastAddress;
 
-        this.contents = new int[lastAddress - startAddress + 1];
-        this.rwFlag.addListener(this);
+        sizeCells();
+        if (allocateContents)
+            allocate();
+        this.rwFlag.addListener(this, startAddress, lastAddress);
+    }
+
+    /**
+     * Works out how many bytes are needed to hold a single value from the width of the data bus
+     */
+    private void sizeCells(){
+        int dataWidth = this.dataBus.getBusWidth();
+        this.cellBytes = (dataWidth + 7) / 8;
+        this.dataMask = 0xFFFFFFFF >>> (32 - dataWidth);
+    }
+
+    /**
+     * Allocates the backing store for the address range, sized to the width of the data bus
+     * @throws MemoryException Thrown when the address range is too large to be held in memory
+     */
+    private void allocate() throws MemoryException {
+
+        long size = (Integer.toUnsignedLong(lastAddress) - startAddress + 1) * cellBytes;
+        if (size > Integer.MAX_VALUE - 8)
+            throw new MemoryException(MemoryConstants.EX_MEMORY_TOO_LARGE);
+
+        this.contents = new byte[(int) size];
     }
 
     /**
@@ -111,6 +178,18 @@ public abstract class Memory implements FlagListener {
         return this.rwFlag;
     }
 
+    /**
+     * Reads directly from memory without going through the busses and R/W flag
+     * @param address address to read
+     * @return data held at provided address or 0x00 if address is out of range
+     */
+    @Override
+    public int read(int address){
+        if (addressIsInRange(address))
+            return readValueFromAddress(address);
+        return 0x00;
+    }
+
     /**
      * Determine if an address is within our address range
      * @param address address to check
@@ -126,7 +205,15 @@ public abstract class Memory implements FlagListener {
      * @return data held at provided address
      */
     protected int readValueFromAddress(int address){
-        return this.contents[address - startAddress];
+        int index = (address - startAddress) * cellBytes;
+
+        if (cellBytes == 1)
+            return this.contents[index] & 0xFF;
+
+        int value = 0;
+        for (int i = 0; i < cellBytes; i++)
+            value |= (this.contents[index + i] & 0xFF) << (i * 8);
+        return value & dataMask;
     }
 
     /**
@@ -135,6 +222,15 @@ public abstract class Memory implements FlagListener {
      * @param value value to write
      */
     protected void writeValueToAddress(int address, int value){
-        this.contents[address - startAddress] = value;
+        int index = (address - startAddress) * cellBytes;
+
+        if (cellBytes == 1) {
+            this.contents[index] = (byte) value;
+            return;
+        }
+
+        value &= dataMask;
+        for (int i = 0; i < cellBytes; i++)
+            this.contents[index + i] = (byte) (value >>> (i * 8));
     }
 }
@@ -28,4 +28,13 @@ public class MemoryConstants {
 
     public static final String EX_ERROR_WRITING_TO_BUS =
             "Memory encountered an error when writing to the data bus";
+
+    public static final String EX_MEMORY_TOO_LARGE =
+            "Address range is too large to be held in memory";
+
+    public static final String EX_ERROR_MAPPING_FILE =
+            "Memory could not be mapped to file";
+
+    public static final String EX_NO_BACKING_ARRAY =
+            "Memory is not held in an 8 bit wide array";
 }
@@ -0,0 +1,25 @@
+package com.rosscon.llce.components.memory;
+
+/**
+ * A device that can be read from and written to directly without going through the
+ * address bus, data bus and R/W flag handshake. The bus and flag path is still available
+ * for every device, this is the fast path used when components are wired directly.
+ */
+public interface MemoryDevice {
+
+    /**
+     * Reads a value from the device
+     * @param address address to read
+     * @return value held at the address, 0x00 if the device does not respond to the address
+     * @throws MemoryException Thrown when the device fails to read
+     */
+    int read(int address) throws MemoryException;
+
+    /**
+     * Writes a value to the device, addresses the device does not respond to are ignored
+     * @param address address to write to
+     * @param value value to write
+     * @throws MemoryException Thrown when the device fails to write
+     */
+    void write(int address, int value) throws MemoryException;
+}
@@ -0,0 +1,99 @@
+package com.rosscon.llce.components.memory;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.flags.RWFlag;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random Access Memory whose contents are persisted to a file, for example battery backed save RAM.
+ *
+ * The file is memory mapped so reads and writes go straight to the mapped buffer, writes reach the file through
+ * the operating system's page cache without an explicit save step. If the file already exists its contents are
+ * used as the initial contents of memory, otherwise it is created and filled with zeros. Values wider than
+ * 8 bits are stored least significant byte first, the same as in Memory.
+ */
+public class PersistentRandomAccessMemory extends RandomAccessMemory {
+
+    /**
+     * Mapped contents of the backing file
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Creates persistent Random Access Memory with a start and end address backed by a file
+     * @param addressBus Address Bus to attach to
+     * @param dataBus Data bus to attach to
+     * @param rwFlag RW Flag to attach to
+     * @param startAddress Address of the first value in memory
+     * @param lastAddress Address of the last value in memory
+     * @param file File to persist the contents of memory to
+     * @throws MemoryException Thrown when any bus of flag is null, an invalid address range provided or the file can not be mapped
+     */
+    public PersistentRandomAccessMemory(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag,
+                                        int startAddress, int lastAddress, Path file) throws MemoryException {
+        super(addressBus, dataBus, rwFlag, startAddress, lastAddress, false);
+
+        long size = ((long) lastAddress - startAddress + 1) * this.cellBytes;
+        if (size > Integer.MAX_VALUE)
+            throw new MemoryException(MemoryConstants.EX_MEMORY_TOO_LARGE);
+
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException | UnsupportedOperationException ex) {
+            MemoryException me = new MemoryException(MemoryConstants.EX_ERROR_MAPPING_FILE + " : " + file);
+            me.addSuppressed(ex);
+            throw me;
+        }
+    }
+
+    /**
+     * Forces any writes still held in the page cache out to the backing file. Not needed for the contents
+     * to be persisted but can be used to make sure the file is up to date, for example before exiting.
+     */
+    public void flush(){
+        this.buffer.force();
+    }
+
+    /**
+     * Reads the value held at an address from the mapped file
+     * @param address address to read
+     * @return data held at provided address
+     */
+    @Override
+    protected int readValueFromAddress(int address){
+        int index = (address - this.startAddress) * this.cellBytes;
+
+        if (this.cellBytes == 1)
+            return this.buffer.get(index) & 0xFF;
+
+        int value = 0;
+        for (int i = 0; i < this.cellBytes; i++)
+            value |= (this.buffer.get(index + i) & 0xFF) << (i * 8);
+        return value & this.dataMask;
+    }
+
+    /**
+     * Writes a value to an address in the mapped file
+     * @param address address to write to
+     * @param value value to write
+     */
+    @Override
+    protected void writeValueToAddress(int address, int value){
+        int index = (address - this.startAddress) * this.cellBytes;
+
+        if (this.cellBytes == 1) {
+            this.buffer.put(index, (byte) value);
+            return;
+        }
+
+        value &= this.dataMask;
+        for (int i = 0; i < this.cellBytes; i++)
+            this.buffer.put(index + i, (byte) (value >>> (i * 8)));
+    }
+}
@@ -20,6 +20,20 @@ public class RandomAccessMemory extends Memory {
         super(addressBus, dataBus, rwFlag);
     }
 
+    /**
+     * Creates Random Access Memory with the maximum possible range that can be addressed by the attached
+     * address bus, optionally without allocating contents so that subclasses can provide their own storage
+     * @param addressBus Address Bus to attach to
+     * @param dataBus Data bus to attach to
+     * @param rwFlag RW Flag to attach to
+     * @param allocateContents true = allocate contents for the full range, false = leave contents unallocated
+     * @throws MemoryException Thrown when any bus of flag is null
+     */
+    protected RandomAccessMemory(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag,
+                                 boolean allocateContents) throws MemoryException {
+        super(addressBus, dataBus, rwFlag, allocateContents);
+    }
+
     /**
      * Creates Random Access Memory with a start and end address
      * @param addressBus Address Bus to attach to
@@ -33,6 +47,22 @@ public class RandomAccessMemory extends Memory {
         super(addressBus, dataBus, rwFlag, startAddress, lastAddress);
     }
 
+    /**
+     * Creates Random Access Memory with a start and end address, optionally without allocating contents
+     * so that subclasses can provide their own storage
+     * @param addressBus Address Bus to attach to
+     * @param dataBus Data bus to attach to
+     * @param rwFlag RW Flag to attach to
+     * @param startAddress Address of the first value in memory
+     * @param lastAddress Address of the last value in memory
+     * @param allocateContents true = allocate contents for the full range, false = leave contents unallocated
+     * @throws MemoryException Thrown when any bus of flag is null or an invalid address range provided
+     */
+    protected RandomAccessMemory(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag,
+                                 int startAddress, int lastAddress, boolean allocateContents) throws MemoryException {
+        super(addressBus, dataBus, rwFlag, startAddress, lastAddress, allocateContents);
+    }
+
     /**
      * Random Access Memory can be read from and written to by setting the RW flag
      * @param flag flag that fired event
@@ -56,8 +86,32 @@ public class RandomAccessMemory extends Memory {
                     throw fe;
                 }
             } else if (flag.getFlagValue() == RWFlag.WRITE) {
-                writeValueToAddress(address, this.dataBus.readDataFromBus());
+                write(address, this.dataBus.readDataFromBus());
             }
         }
     }
+
+    /**
+     * Get the array holding the contents of memory so that another component can read and write it directly,
+     * for example a processor treating the memory as its own local RAM. Index 0 holds the start address.
+     * Only available for 8 bit wide memory that holds its contents in a single array.
+     * @return array backing memory
+     * @throws MemoryException Thrown when memory is wider than 8 bits or not held in a single array
+     */
+    public byte[] getBackingArray() throws MemoryException {
+        if (this.contents == null || this.cellBytes != 1)
+            throw new MemoryException(MemoryConstants.EX_NO_BACKING_ARRAY);
+        return this.contents;
+    }
+
+    /**
+     * Writes directly to memory without going through the busses and R/W flag
+     * @param address address to write to
+     * @param value value to write
+     */
+    @Override
+    public void write(int address, int value){
+        if (addressIsInRange(address))
+            writeValueToAddress(address, value);
+    }
 }
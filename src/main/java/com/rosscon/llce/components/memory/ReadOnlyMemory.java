@@ -35,7 +35,7 @@ public class ReadOnlyMemory extends Memory {
     }
 
     /**
-     * Construct Read Only Memory with predefined contents
+     * Construct Read Only Memory with predefined contents, each value is packed into the backing store
      * @param addressBus address bus to attach to
      * @param dataBus data bus to attach to
      * @param rwFlag R/W flag to attach to
@@ -54,7 +54,36 @@ public class ReadOnlyMemory extends Memory {
         if (contents.length < (lastAddress - startAddress))
             throw new MemoryException(ReadOnlyMemoryConstants.EX_PROVIDED_DATA_TOO_SMALL);
 
-        this.contents = contents;
+        for (int i = 0; i < contents.length; i++)
+            writeValueToAddress(startAddress + i, contents[i]);
+    }
+
+    /**
+     * Construct Read Only Memory with predefined contents already packed as bytes, values wider than
+     * 8 bits are stored least significant byte first. When the contents exactly fill the address range
+     * the array is used as the backing store without being copied.
+     * @param addressBus address bus to attach to
+     * @param dataBus data bus to attach to
+     * @param rwFlag R/W flag to attach to
+     * @param startAddress address of the first value in memory
+     * @param lastAddress address of the last value in memory
+     * @param contents predefined contents of the Read Only Memory
+     * @throws MemoryException Thrown when any bus of flag is null, or an invalid address range provided, or provided data size mismatches address range
+     */
+    public ReadOnlyMemory(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag,
+                          int startAddress, int lastAddress, byte[] contents) throws MemoryException {
+        super(addressBus, dataBus, rwFlag, startAddress, lastAddress);
+
+        if (contents.length > this.contents.length)
+            throw new MemoryException(ReadOnlyMemoryConstants.EX_PROVIDED_DATA_TOO_LARGE);
+
+        if (contents.length < this.contents.length - this.cellBytes)
+            throw new MemoryException(ReadOnlyMemoryConstants.EX_PROVIDED_DATA_TOO_SMALL);
+
+        if (contents.length == this.contents.length)
+            this.contents = contents;
+        else
+            System.arraycopy(contents, 0, this.contents, 0, contents.length);
     }
 
     /**
@@ -79,4 +108,13 @@ public class ReadOnlyMemory extends Memory {
             }
         }
     }
+
+    /**
+     * Read only memory ignores writes
+     * @param address address to write to
+     * @param value value to write
+     */
+    @Override
+    public void write(int address, int value){
+    }
 }
@@ -0,0 +1,148 @@
+package com.rosscon.llce.components.memory;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.flags.RWFlag;
+
+import java.util.Arrays;
+
+/**
+ * Random Access Memory that only allocates storage for the parts of its address range that have been written to.
+ *
+ * The address range is split into fixed size pages of 4096 values. Every page starts out pointing at a single
+ * shared page of zeros so untouched pages cost nothing more than a reference, a page is given its own storage the
+ * first time a value is written to it. This allows memory to cover the full range of a wide address bus without
+ * allocating the full range up front.
+ */
+public class SparseRandomAccessMemory extends RandomAccessMemory {
+
+    /**
+     * Number of address bits covered by a single page
+     */
+    private static final int PAGE_BITS = 12;
+
+    /**
+     * Number of values held in a single page
+     */
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    /**
+     * Mask to get the offset of an address within its page
+     */
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /**
+     * Page returned for reads of pages that have never been written to
+     */
+    private final byte[] zeroPage;
+
+    /**
+     * Page table, pages that have not been written to point at the zero page
+     */
+    private final byte[][] pages;
+
+    /**
+     * Number of pages that have been given their own storage
+     */
+    private int allocatedPages;
+
+    /**
+     * Creates sparse Random Access Memory covering the maximum possible range that can be addressed
+     * by the attached address bus starting from address 0x00000000
+     * @param addressBus Address Bus to attach to
+     * @param dataBus Data bus to attach to
+     * @param rwFlag RW Flag to attach to
+     * @throws MemoryException Thrown when any bus of flag is null
+     */
+    public SparseRandomAccessMemory(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag) throws MemoryException {
+        super(addressBus, dataBus, rwFlag, false);
+        this.zeroPage = new byte[PAGE_SIZE * this.cellBytes];
+        this.pages = createPageTable();
+    }
+
+    /**
+     * Creates sparse Random Access Memory with a start and end address
+     * @param addressBus Address Bus to attach to
+     * @param dataBus Data bus to attach to
+     * @param rwFlag RW Flag to attach to
+     * @param startAddress Address of the first value in memory
+     * @param lastAddress Address of the last value in memory
+     * @throws MemoryException Thrown when any bus of flag is null or an invalid address range provided
+     */
+    public SparseRandomAccessMemory(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag,
+                                    int startAddress, int lastAddress) throws MemoryException {
+        super(addressBus, dataBus, rwFlag, startAddress, lastAddress, false);
+        this.zeroPage = new byte[PAGE_SIZE * this.cellBytes];
+        this.pages = createPageTable();
+    }
+
+    /**
+     * Creates a page table covering the address range with every page pointing at the zero page
+     * @return page table
+     */
+    private byte[][] createPageTable(){
+        int pageCount = ((this.lastAddress - this.startAddress) >>> PAGE_BITS) + 1;
+        byte[][] table = new byte[pageCount][];
+        Arrays.fill(table, this.zeroPage);
+        return table;
+    }
+
+    /**
+     * Get the number of pages that have been allocated by writes
+     * @return number of allocated pages
+     */
+    public int getAllocatedPages(){
+        return this.allocatedPages;
+    }
+
+    /**
+     * Reads the value held at an address, pages that have never been written to read as zero
+     * @param address address to read
+     * @return data held at provided address
+     */
+    @Override
+    protected int readValueFromAddress(int address){
+        int offset = address - this.startAddress;
+        byte[] page = this.pages[offset >>> PAGE_BITS];
+        int index = (offset & PAGE_MASK) * this.cellBytes;
+
+        if (this.cellBytes == 1)
+            return page[index] & 0xFF;
+
+        int value = 0;
+        for (int i = 0; i < this.cellBytes; i++)
+            value |= (page[index + i] & 0xFF) << (i * 8);
+        return value & this.dataMask;
+    }
+
+    /**
+     * Writes a value to an address, allocating the page holding the address on its first write
+     * @param address address to write to
+     * @param value value to write
+     */
+    @Override
+    protected void writeValueToAddress(int address, int value){
+        int offset = address - this.startAddress;
+        int pageIndex = offset >>> PAGE_BITS;
+        byte[] page = this.pages[pageIndex];
+
+        if (page == this.zeroPage) {
+            // Writing zero to an untouched page changes nothing so there is no need to allocate it
+            if ((value & this.dataMask) == 0)
+                return;
+            page = new byte[PAGE_SIZE * this.cellBytes];
+            this.pages[pageIndex] = page;
+            this.allocatedPages++;
+        }
+
+        int index = (offset & PAGE_MASK) * this.cellBytes;
+
+        if (this.cellBytes == 1) {
+            page[index] = (byte) value;
+            return;
+        }
+
+        value &= this.dataMask;
+        for (int i = 0; i < this.cellBytes; i++)
+            page[index + i] = (byte) (value >>> (i * 8));
+    }
+}
@@ -4,9 +4,12 @@ import com.rosscon.llce.components.busses.IntegerBus;
 import com.rosscon.llce.components.busses.InvalidBusDataException;
 import com.rosscon.llce.components.clocks.Clock;
 import com.rosscon.llce.components.flags.*;
+import com.rosscon.llce.components.memory.MemoryException;
 import com.rosscon.llce.components.processors.Processor;
 import com.rosscon.llce.components.processors.ProcessorException;
 
+import java.util.Arrays;
+
 
 
 /**
@@ -26,7 +29,10 @@ public class MOS6502 extends Processor implements FlagListener {
      */
     private boolean PRINT_TRACE = false;           // Used to enable printing information to stdout
 
-    private MOS6502InstructionMapping instructionMapping;
+    /**
+     * Details of every opcode, shared by all instances as it never changes
+     */
+    private static final MOS6502InstructionMapping INSTRUCTION_MAPPING = new MOS6502InstructionMapping();
 
     /**
      * Registers
@@ -36,7 +42,8 @@ public class MOS6502 extends Processor implements FlagListener {
     private int     regACC;     // Accumulator;
     private int     regX;       // Index Register X
     private int     regY;       // Index Register Y
-    private int     regStatus;  // Processor Status [C][Z][I][D][B][V][N]
+    private int     regStatus;  // Processor Status [C][Z][I][D][B][V][N], Z and N are held in regNZ
+    private int     regNZ;      // Last result Z and N are taken from, see setNZ
     private int     regIntAddr; // Custom register used for building addresses over multiple cycles
 
 
@@ -74,7 +81,7 @@ public class MOS6502 extends Processor implements FlagListener {
     }
 
     public int getRegStatus() {
-        return regStatus;
+        return status();
     }
 
     /**
@@ -93,6 +100,91 @@ public class MOS6502 extends Processor implements FlagListener {
      */
     private MOS6502AddressingMode addressingMode;
 
+    /**
+     * Opcode of the current instruction
+     */
+    private int opcode;
+
+    /**
+     * true once the current instruction has executed, any cycles added while executing are then just waited out
+     */
+    private boolean executed;
+
+    /**
+     * How instructions are dispatched when they execute
+     */
+    private MOS6502DispatchMode dispatchMode = MOS6502DispatchMode.TABLE;
+
+    /**
+     * Pre-decoded instruction cache, indexed by the address of each opcode. Holds the decoded details
+     * and operand bytes of instructions already executed between cacheFirstAddress and cacheLastAddress.
+     * null when the cache is disabled.
+     */
+    private MOS6502InstructionDetails[] cachedDetails;
+    private int[] cachedOperands;
+    private int cacheFirstAddress;
+    private int cacheLastAddress;
+
+    /**
+     * Details of the current instruction
+     */
+    private MOS6502InstructionDetails currentDetails;
+
+    /**
+     * Operand bytes of the current instruction when it came from the cache, -1 when they must be read
+     */
+    private int currentOperands = -1;
+
+    /**
+     * Address of the current instruction while it is being added to the cache, -1 when not
+     */
+    private int cacheFillAddress = -1;
+
+    /**
+     * Number of times execution must enter an address from a jump or branch before a block is compiled there
+     */
+    private static final int BLOCK_COMPILE_THRESHOLD = 8;
+
+    /**
+     * Most instructions held in a single compiled block
+     */
+    private static final int MAX_BLOCK_INSTRUCTIONS = 32;
+
+    /**
+     * Most cycles an instruction can take on top of its base cycles, a taken branch crossing a page
+     */
+    private static final int MAX_EXTRA_CYCLES = 2;
+
+    /**
+     * Compiled blocks indexed by their first address, null when block compilation is disabled
+     */
+    private MOS6502Block[] blocks;
+
+    /**
+     * true for every address holding part of a compiled block
+     */
+    private boolean[] blockCoverage;
+
+    /**
+     * Number of times execution has entered each address from a jump or branch
+     */
+    private int[] blockEntries;
+
+    /**
+     * Number of compiled blocks
+     */
+    private int blockCount;
+
+    /**
+     * Incremented each time the compiled blocks are thrown away, lets a running block see it has been invalidated
+     */
+    private int blockGeneration;
+
+    /**
+     * true when the next instruction starts a block, after a jump, branch, interrupt or another block
+     */
+    private boolean blockStart = true;
+
     /**
      * 6502 Interrupts
      */
@@ -104,6 +196,43 @@ public class MOS6502 extends Processor implements FlagListener {
      */
     MOS6502ExecutionState executionState;
 
+    /**
+     * Memory read and written directly for pages declared as local, null when there are none
+     */
+    private byte[] localMemory;
+
+    /**
+     * Offset into local memory of each page of the address space, -1 for pages that are not local
+     */
+    private int[] localPageOffsets;
+
+    /**
+     * Bits of each address that can not change while the CPU is run, null when no addresses are polled
+     */
+    private int[] polledStableBits;
+
+    /**
+     * Address of the idle loop being watched and of its branch, -1 when not watching a loop
+     */
+    private int idleLoopAddress = -1;
+    private int idleLoopBranch = -1;
+
+    /**
+     * Cycle count when the current pass of the idle loop started
+     */
+    private long idleLoopStart;
+
+    /**
+     * Length in cycles of the last pass of the idle loop and how many passes in a row had that length
+     */
+    private int idleLoopPeriod;
+    private int idleLoopPasses;
+
+    /**
+     * Number of cycles skipped over while idle
+     */
+    private long skippedIdleCycles;
+
     /**
      * Read a value from memory. Clear the data bus before reading to prevent
      * accidentally reading lingering data from previous cycles
@@ -112,6 +241,22 @@ public class MOS6502 extends Processor implements FlagListener {
      * @throws ProcessorException Can be thrown on memory error
      */
     private int cpuRead(int address) throws ProcessorException {
+        if (this.localMemory != null) {
+            int offset = this.localPageOffsets[(address >>> 8) & 0xFF];
+            if (offset >= 0)
+                return this.localMemory[offset | (address & 0xFF)] & 0xFF;
+        }
+
+        if (this.memoryDevice != null) {
+            try {
+                return this.memoryDevice.read(address);
+            } catch (MemoryException e) {
+                ProcessorException pe = new ProcessorException(MOS6502Constants.EX_ERROR_READING_MEMORY);
+                pe.addSuppressed(e);
+                throw pe;
+            }
+        }
+
         try {
             this.dataBus.writeDataToBus(0x00);
             this.addressBus.writeDataToBus(address);
@@ -131,6 +276,28 @@ public class MOS6502 extends Processor implements FlagListener {
      * @throws ProcessorException Can be thrown on memory error
      */
     private void cpuWrite (int address, int data) throws ProcessorException {
+        if (this.cachedDetails != null)
+            invalidateInstructionCache(address);
+
+        if (this.localMemory != null) {
+            int offset = this.localPageOffsets[(address >>> 8) & 0xFF];
+            if (offset >= 0) {
+                this.localMemory[offset | (address & 0xFF)] = (byte) data;
+                return;
+            }
+        }
+
+        if (this.memoryDevice != null) {
+            try {
+                this.memoryDevice.write(address, data);
+                return;
+            } catch (MemoryException e) {
+                ProcessorException pe = new ProcessorException(MOS6502Constants.EX_ERROR_WRITING_MEMORY);
+                pe.addSuppressed(e);
+                throw pe;
+            }
+        }
+
         try {
             this.dataBus.writeDataToBus(data);
             this.addressBus.writeDataToBus(address);
@@ -215,6 +382,7 @@ public class MOS6502 extends Processor implements FlagListener {
         regX        = 0x00;
         regY        = 0x00;
         regStatus   = 0x00;
+        regNZ       = 0x01;
         cycles      = 0;
         regIntAddr  = 0x000;
 
@@ -227,7 +395,6 @@ public class MOS6502 extends Processor implements FlagListener {
         this.regPC = regIntAddr;
 
         nmiTriggered = false;
-        instructionMapping = new MOS6502InstructionMapping();
 
         executionState = MOS6502ExecutionState.RUNNING;
     }
@@ -239,10 +406,37 @@ public class MOS6502 extends Processor implements FlagListener {
      */
     private boolean isFlagSet(int flag){
 
+        if (flag == MOS6502Flags.ZERO_FLAG)
+            return (this.regNZ & 0xFF) == 0;
+        if (flag == MOS6502Flags.NEGATIVE_FLAG)
+            return (this.regNZ & 0x180) != 0;
+
         int tmp = this.regStatus & flag;
         return tmp != 0;
     }
 
+    /**
+     * Gets the full status register, building the zero and negative flags from the last result
+     * @return processor status
+     */
+    private int status(){
+        int value = this.regStatus & ~(MOS6502Flags.ZERO_FLAG | MOS6502Flags.NEGATIVE_FLAG);
+        if ((this.regNZ & 0xFF) == 0)
+            value |= MOS6502Flags.ZERO_FLAG;
+        if ((this.regNZ & 0x180) != 0)
+            value |= MOS6502Flags.NEGATIVE_FLAG;
+        return value;
+    }
+
+    /**
+     * Sets the full status register, the zero and negative flags are moved into regNZ
+     * @param value processor status
+     */
+    private void setStatus(int value){
+        this.regStatus = value & ~(MOS6502Flags.ZERO_FLAG | MOS6502Flags.NEGATIVE_FLAG);
+        this.regNZ = encodeNZ((value & MOS6502Flags.NEGATIVE_FLAG) != 0, (value & MOS6502Flags.ZERO_FLAG) != 0);
+    }
+
     /**
      * Pushes a value to the stack then decrements the stack pointer by 1
      * @param value value to push to the stack
@@ -265,153 +459,817 @@ public class MOS6502 extends Processor implements FlagListener {
     }
 
     /**
-     * Fetches next instruction and increments the program counter
+     * Fetches next instruction and increments the program counter
+     */
+    private int fetch() throws ProcessorException {
+
+        int fetchedData = cpuRead(getRegPC());
+        this.regPC = ((this.regPC + 1) & 0xFFFF);
+
+        if (PRINT_TRACE){
+            System.out.print("Fetch : [" + String.format("%02X", this.regPC) + "] ");
+            System.out.printf("%02X", fetchedData);
+            System.out.println();
+        }
+
+        return fetchedData;
+    }
+
+    /**
+     * Follows the addressing mode that has been set in order to set the address bus
+     */
+    private void addressing() throws ProcessorException {
+
+        try {
+            switch (this.addressingMode) {
+                case IMPLICIT:      // These modes do nothing with memory
+                case ACCUMULATOR:
+                    break;
+
+                case RELATIVE:
+                    addressRelative();
+                    break;
+
+                case IMMEDIATE:
+                    addressImmediate();
+                    break;
+
+                case ZERO_PAGE:
+                    addressZeroPage();
+                    break;
+
+                case ZERO_PAGE_X:
+                    addressZeroPageX();
+                    break;
+
+                case ZERO_PAGE_Y:
+                    addressZeroPageY();
+                    break;
+
+                case ABSOLUTE:
+                    addressAbsolute();
+                    break;
+
+                case ABSOLUTE_X:
+                    addressAbsoluteX();
+                    break;
+
+                case ABSOLUTE_Y:
+                    addressAbsoluteY();
+                    break;
+
+                case INDIRECT:
+                    addressIndirect();
+                    break;
+
+                case INDEXED_INDIRECT_X:
+                    addressIndexedIndirectX();
+                    break;
+
+                case INDIRECT_INDEXED_Y:
+                    addressIndirectIndexedY();
+                    break;
+            }
+        } catch (Exception ex){
+            throw new ProcessorException(ex.getMessage());
+        }
+
+        /*
+         * Stops the process of reading address if clock cycles increased, Leave ACCUMULATOR as used later
+         */
+        this.addressingMode = (this.addressingMode != MOS6502AddressingMode.ACCUMULATOR) ? MOS6502AddressingMode.IMPLICIT : this.addressingMode;
+
+        this.cycles--;
+    }
+
+    /**
+     * Immediate addressing, the value follows the opcode
+     */
+    void addressImmediate(){
+        this.regIntAddr = this.regPC;
+        this.regPC = (this.regPC + 1) & 0xFFFF;
+    }
+
+    /**
+     * Relative addressing, the signed branch offset follows the opcode
+     */
+    void addressRelative(){
+        this.regIntAddr = this.regPC;
+        this.regPC = (this.regPC + 1) & 0xFFFF;
+    }
+
+    /**
+     * Zero page addressing, move to next address in memory, read contents, build zero page address from it
+     * @throws ProcessorException Thrown on memory error
+     */
+    void addressZeroPage() throws ProcessorException {
+        this.regIntAddr = readOperand(1);
+        this.regPC = (this.regPC + 1) & 0xFFFF;
+    }
+
+    /**
+     * Zero page addressing offset by X, wraps within the zero page
+     * @throws ProcessorException Thrown on memory error
+     */
+    void addressZeroPageX() throws ProcessorException {
+        this.regIntAddr = (readOperand(1) + this.regX) & 0x00FF;
+        this.regPC = (this.regPC + 1) & 0xFFFF;
+    }
+
+    /**
+     * Zero page addressing offset by Y, wraps within the zero page
+     * @throws ProcessorException Thrown on memory error
+     */
+    void addressZeroPageY() throws ProcessorException {
+        this.regIntAddr = (readOperand(1) + this.regY) & 0x00FF;
+        this.regPC = (this.regPC + 1) & 0xFFFF;
+    }
+
+    /**
+     * Absolute addressing, the full 16 bit address follows the opcode
+     * @throws ProcessorException Thrown on memory error
+     */
+    void addressAbsolute() throws ProcessorException {
+        this.regIntAddr = readOperand(2);
+        this.regPC = (this.regPC + 2) & 0xFFFF;
+    }
+
+    /**
+     * Absolute addressing offset by X, adds a cycle if the page changes
+     * @throws ProcessorException Thrown on memory error
+     */
+    void addressAbsoluteX() throws ProcessorException {
+        this.regIntAddr = readOperand(2);
+        this.regPC = (this.regPC + 2) & 0xFFFF;
+        int tmpAbx = this.regIntAddr & 0xFF00;
+        this.regIntAddr = (this.regIntAddr + this.regX) & 0xFFFF;
+
+        if ((tmpAbx & 0xFF00) != (this.regIntAddr & 0xFF00))
+            this.cycles ++;
+    }
+
+    /**
+     * Absolute addressing offset by Y, adds a cycle if the page changes
+     * @throws ProcessorException Thrown on memory error
+     */
+    void addressAbsoluteY() throws ProcessorException {
+        this.regIntAddr = readOperand(2);
+        this.regPC = (this.regPC + 2) & 0xFFFF;
+        int tmpAby = this.regIntAddr & 0xFF00;
+        this.regIntAddr = (this.regIntAddr + this.regY) & 0xFFFF;
+
+        if ((tmpAby & 0xFF00) != (this.regIntAddr & 0xFF00))
+            this.cycles ++;
+    }
+
+    /**
+     * Indirect addressing, only used by JMP. Follows the pointer after the opcode
+     * @throws ProcessorException Thrown on memory error
+     */
+    void addressIndirect() throws ProcessorException {
+        this.regIntAddr = readOperand(2);
+
+        /*
+         * Hardware bug to account for
+         */
+        if ((this.regIntAddr & 0x00FF) == 0x00FF){
+            this.regIntAddr = (cpuRead(this.regIntAddr)) | (cpuRead(this.regIntAddr & 0xFF00) << 8);
+        } else {
+            this.regIntAddr = (cpuRead(this.regIntAddr)) | (cpuRead((this.regIntAddr) + 1 & 0xFFFF) << 8);
+        }
+
+        this.regPC = (this.regPC + 2) & 0xFFFF;
+    }
+
+    /**
+     * Indexed indirect addressing, (zp,X)
+     * @throws ProcessorException Thrown on memory error
+     */
+    void addressIndexedIndirectX() throws ProcessorException {
+        int tmpIndX = readOperand(1);
+        int tmpIndXLow = cpuRead((tmpIndX + this.regX) & 0x00FF);
+        int tmpIndXHigh = cpuRead((tmpIndX + this.regX + 1) & 0x00FF);
+        this.regIntAddr = tmpIndXLow | (tmpIndXHigh << 8);
+        this.regPC = (this.regPC + 1) & 0xFFFF;
+    }
+
+    /**
+     * Indirect indexed addressing, (zp),Y adds a cycle if the page changes
+     * @throws ProcessorException Thrown on memory error
+     */
+    void addressIndirectIndexedY() throws ProcessorException {
+        int tmpIndY = readOperand(1);
+        int tmpIndYLow = cpuRead(tmpIndY & 0x00FF);
+        int tmpIndYHigh = cpuRead((tmpIndY + 1) & 0x00FF);
+        this.regIntAddr = tmpIndYLow | (tmpIndYHigh << 8);
+        this.regIntAddr = (this.regIntAddr + this.regY) & 0xFFFF;
+
+        if ((this.regIntAddr & 0xFF00) != (tmpIndYHigh << 8))
+            this.cycles ++;
+
+        this.regPC = (this.regPC + 1) & 0xFFFF;
+    }
+
+    /**
+     * Decodes the instruction and sets the number of cycles
+     * @param instruction instruction to decode
+     */
+    private void decode(int instruction) throws ProcessorException {
+
+        MOS6502InstructionDetails details = INSTRUCTION_MAPPING.getInstructionDetails(instruction);
+
+        if (details == null){
+            details = INSTRUCTION_MAPPING.getInstructionDetails(MOS6502Instructions.INS_NOP_IMP);
+        }
+
+        if ( details != null ){
+            decode(details);
+        } else {
+            throw new ProcessorException(MOS6502Constants.EX_INVALID_INSTRUCTION + " : " + instruction);
+        }
+    }
+
+    /**
+     * Sets up the instruction, addressing mode and number of cycles from already decoded details
+     * @param details details of the instruction
+     */
+    private void decode(MOS6502InstructionDetails details) {
+
+        this.currentDetails = details;
+        this.opcode = details.opcode;
+        this.executed = false;
+        this.instruction = details.instruction;
+        this.addressingMode = details.addressingMode;
+        this.cycles = details.cycles;
+        this.cycles --;
+
+        if (PRINT_TRACE) {
+            System.out.println("Instruction: " + this.instruction.name());
+            System.out.println("Addressing Mode: " + this.addressingMode.name());
+        }
+    }
+
+    /**
+     * Fetches and decodes the next instruction using the instruction cache. Instructions already in the
+     * cache skip reading and decoding the opcode, instructions in the cached address range that are not
+     * yet cached are added once their operands have been read.
+     * @throws ProcessorException Thrown when the instruction can not be read
+     */
+    private void fetchAndDecodeCached() throws ProcessorException {
+
+        int address = this.regPC;
+
+        if (address < this.cacheFirstAddress || address > this.cacheLastAddress){
+            decode(fetch());
+            return;
+        }
+
+        MOS6502InstructionDetails details = this.cachedDetails[address];
+
+        if (details != null){
+            this.regPC = (this.regPC + 1) & 0xFFFF;
+            this.currentOperands = this.cachedOperands[address];
+            decode(details);
+        } else {
+            decode(fetch());
+            this.cacheFillAddress = address;
+            if (operandBytes(this.addressingMode) == 0)
+                fillInstructionCache(0);
+        }
+    }
+
+    /**
+     * Reads the operand of the current instruction following the opcode, from the cache if the
+     * instruction came from the cache
+     * @param bytes number of operand bytes, 1 or 2
+     * @return operand, low byte first
+     * @throws ProcessorException Thrown on memory error
+     */
+    private int readOperand(int bytes) throws ProcessorException {
+
+        if (this.currentOperands >= 0)
+            return this.currentOperands;
+
+        int operand = (bytes == 1) ? cpuRead(this.regPC) : cpuRead(this.regPC) | (cpuRead(this.regPC + 1) << 8);
+
+        if (this.cacheFillAddress >= 0)
+            fillInstructionCache(operand);
+
+        return operand;
+    }
+
+    /**
+     * Number of operand bytes read by an addressing mode from the bytes following the opcode. Immediate and
+     * relative values are read when the instruction executes so are not counted.
+     * @param mode addressing mode
+     * @return number of operand bytes
+     */
+    private static int operandBytes(MOS6502AddressingMode mode){
+        switch (mode){
+            case ZERO_PAGE:
+            case ZERO_PAGE_X:
+            case ZERO_PAGE_Y:
+            case INDEXED_INDIRECT_X:
+            case INDIRECT_INDEXED_Y:
+                return 1;
+            case ABSOLUTE:
+            case ABSOLUTE_X:
+            case ABSOLUTE_Y:
+            case INDIRECT:
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Adds the instruction being filled to the cache
+     * @param operand operand bytes of the instruction
+     */
+    private void fillInstructionCache(int operand){
+        this.cachedDetails[this.cacheFillAddress] = this.currentDetails;
+        this.cachedOperands[this.cacheFillAddress] = operand;
+        this.cacheFillAddress = -1;
+    }
+
+    /**
+     * Removes any cached instruction that includes an address, an instruction is up to 3 bytes long
+     * so the instructions starting up to 2 bytes before the address are also removed
+     * @param address address that has changed
+     */
+    private void invalidateInstructionCache(int address){
+        this.cachedDetails[address & 0xFFFF] = null;
+        this.cachedDetails[(address - 1) & 0xFFFF] = null;
+        this.cachedDetails[(address - 2) & 0xFFFF] = null;
+
+        if (this.blocks != null && this.blockCoverage[address & 0xFFFF])
+            clearBlocks();
+    }
+
+    /**
+     * Enables caching of decoded instructions for code running between two addresses. Instructions are
+     * removed from the cache when the CPU writes to any of their bytes, memory in the range must not be
+     * changed by anything else or be mirrored elsewhere. If it is, for example by a mapper switching banks,
+     * invalidateInstructionCache() must be called.
+     * @param firstAddress first address to cache instructions for
+     * @param lastAddress last address to cache instructions for
+     */
+    public void enableInstructionCache(int firstAddress, int lastAddress){
+        this.cacheFirstAddress = Math.max(0, firstAddress);
+        this.cacheLastAddress = Math.min(0xFFFF, lastAddress);
+        this.cachedDetails = new MOS6502InstructionDetails[0x10000];
+        this.cachedOperands = new int[0x10000];
+        this.cacheFillAddress = -1;
+    }
+
+    /**
+     * Disables the instruction cache, every instruction is read and decoded as it is executed
+     */
+    public void disableInstructionCache(){
+        this.cachedDetails = null;
+        this.cachedOperands = null;
+        this.cacheFillAddress = -1;
+        this.idleLoopAddress = -1;
+        if (this.blocks != null)
+            clearBlocks();
+    }
+
+    /**
+     * Removes every instruction from the cache, used when memory in the cached range has changed
+     * without the CPU writing to it
+     */
+    public void invalidateInstructionCache(){
+        if (this.cachedDetails != null)
+            Arrays.fill(this.cachedDetails, null);
+        this.cacheFillAddress = -1;
+        this.idleLoopAddress = -1;
+        if (this.blocks != null)
+            clearBlocks();
+    }
+
+    /**
+     * Enables compiling hot blocks of instructions when running in batches. Addresses that are often jumped
+     * or branched to have the straight line run of instructions following them compiled into a block, a block
+     * is then run as a single step without fetching or decoding and with its cycles counted per instruction
+     * rather than per tick. Blocks are only compiled from instructions in the instruction cache so have the
+     * same rules, they are thrown away whenever the CPU writes to their bytes or the cache is invalidated.
+     * Results and cycle counts are the same as running one cycle at a time.
+     */
+    public void enableBlockCompilation(){
+        this.blocks = new MOS6502Block[0x10000];
+        this.blockCoverage = new boolean[0x10000];
+        this.blockEntries = new int[0x10000];
+        this.blockCount = 0;
+        this.blockStart = true;
+    }
+
+    /**
+     * Disables block compilation, every instruction is run one cycle at a time
+     */
+    public void disableBlockCompilation(){
+        this.blocks = null;
+        this.blockCoverage = null;
+        this.blockEntries = null;
+        this.blockCount = 0;
+    }
+
+    /**
+     * Get the number of compiled blocks
+     * @return number of blocks currently compiled
+     */
+    public int getCompiledBlockCount(){
+        return this.blockCount;
+    }
+
+    /**
+     * Throws away every compiled block and starts profiling again
+     */
+    private void clearBlocks(){
+        Arrays.fill(this.blocks, null);
+        Arrays.fill(this.blockCoverage, false);
+        Arrays.fill(this.blockEntries, 0);
+        this.blockCount = 0;
+        this.blockGeneration++;
+    }
+
+    /**
+     * Finds the block starting at the program counter, counting the entry and compiling a block if the
+     * address has become hot
+     * @return block to run or null to run one cycle at a time
+     */
+    private MOS6502Block findBlock(){
+
+        int address = this.regPC;
+        MOS6502Block block = this.blocks[address];
+
+        if (block == null && this.blockStart
+                && address >= this.cacheFirstAddress && address <= this.cacheLastAddress
+                && ++this.blockEntries[address] >= BLOCK_COMPILE_THRESHOLD)
+            block = compileBlock(address);
+
+        return block;
+    }
+
+    /**
+     * Compiles the cached instructions starting at an address into a block, ending at the first instruction
+     * that can change the flow of the program or the first instruction not yet cached
+     * @param address address of the first instruction
+     * @return compiled block or null if the first instruction is not cached
+     */
+    private MOS6502Block compileBlock(int address){
+
+        MOS6502InstructionDetails[] details = new MOS6502InstructionDetails[MAX_BLOCK_INSTRUCTIONS];
+        int[] operands = new int[MAX_BLOCK_INSTRUCTIONS];
+        int count = 0;
+        int maxCycles = 0;
+        int pc = address;
+
+        while (count < MAX_BLOCK_INSTRUCTIONS && pc <= this.cacheLastAddress){
+            MOS6502InstructionDetails instruction = this.cachedDetails[pc];
+            if (instruction == null)
+                break;
+
+            int length = instructionLength(instruction.addressingMode);
+            if (pc + length - 1 > this.cacheLastAddress)
+                break;
+
+            details[count] = instruction;
+            operands[count] = this.cachedOperands[pc];
+            count++;
+            maxCycles += instruction.cycles + MAX_EXTRA_CYCLES;
+            pc += length;
+
+            if (isControlFlow(instruction.instruction))
+                break;
+        }
+
+        if (count == 0){
+            this.blockEntries[address] = 0;
+            return null;
+        }
+
+        MOS6502Block block = new MOS6502Block(address, pc - 1,
+                Arrays.copyOf(details, count), Arrays.copyOf(operands, count), maxCycles);
+
+        Arrays.fill(this.blockCoverage, address, pc, true);
+        this.blocks[address] = block;
+        this.blockCount++;
+        return block;
+    }
+
+    /**
+     * Runs every instruction in a block, stopping early if an NMI is raised, the CPU is halted or stalled or the
+     * block is invalidated by one of its own instructions. Each instruction executes on the same cycle
+     * it would when run one cycle at a time.
+     * @param block block to run
+     * @return number of cycles run
+     * @throws ProcessorException Thrown when an instruction fails to execute
+     */
+    private int runBlock(MOS6502Block block) throws ProcessorException {
+
+        long startCycle = this.cycleCount;
+        int generation = this.blockGeneration;
+
+        for (int i = 0; i < block.details.length && !this.nmiTriggered; i++){
+
+            // Fetch cycle
+            this.cycleCount++;
+            this.regPC = (this.regPC + 1) & 0xFFFF;
+            this.currentOperands = block.operands[i];
+            this.cacheFillAddress = -1;
+            decode(block.details[i]);
+
+            // Remaining cycles up to and including the one the instruction executes on
+            this.cycleCount += this.cycles;
+            this.cycles = 0;
+            this.executed = true;
+            MOS6502OpcodeTable.HANDLERS[this.opcode].execute(this);
+
+            // Any cycles added by the instruction are left to run once the CPU is resumed
+            if (this.executionState != MOS6502ExecutionState.RUNNING)
+                break;
+
+            this.cycleCount += this.cycles;
+            this.cycles = 0;
+
+            // Cycles stolen by DMA are sat out by run before the next instruction
+            if (this.stallCycles > 0)
+                break;
+
+            if (generation != this.blockGeneration)
+                break;
+        }
+
+        this.blockStart = true;
+        return (int) (this.cycleCount - startCycle);
+    }
+
+    /**
+     * Number of bytes an instruction takes including its opcode, based on how far its addressing
+     * mode moves the program counter
+     * @param mode addressing mode
+     * @return instruction length in bytes
+     */
+    private static int instructionLength(MOS6502AddressingMode mode){
+        switch (mode){
+            case IMPLICIT:
+            case ACCUMULATOR:
+                return 1;
+            case ABSOLUTE:
+            case ABSOLUTE_X:
+            case ABSOLUTE_Y:
+            case INDIRECT:
+                return 3;
+            default:
+                return 2;
+        }
+    }
+
+    /**
+     * Determine if an instruction can move the program counter somewhere other than the next instruction
+     * @param instruction instruction to check
+     * @return true for branches, jumps, returns and BRK
+     */
+    private static boolean isControlFlow(MOS6502Instruction instruction){
+        switch (instruction){
+            case BCC:
+            case BCS:
+            case BEQ:
+            case BMI:
+            case BNE:
+            case BPL:
+            case BVC:
+            case BVS:
+            case BRK:
+            case JMP:
+            case JSR:
+            case RTI:
+            case RTS:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Declares a range of pages as local RAM that the CPU reads and writes directly from an array rather than
+     * through the memory device or busses, for example the NES internal RAM holding the zero page and stack.
+     * Pages are laid out in order from the start of the array and repeat when the range is larger than the
+     * array, so mirrors of the same RAM can be declared in one call. Replaces any pages declared before.
+     * The CPU no longer sees anything else on the bus at these addresses, anything else accessing the RAM
+     * must do so through the same array.
+     * @param firstPage first local page, 0x00 - 0xFF
+     * @param lastPage last local page, 0x00 - 0xFF
+     * @param memory memory backing the pages, a whole number of pages long
+     * @throws ProcessorException Thrown when the pages are out of range or memory is not a whole number of pages
+     */
+    public void setLocalPages(int firstPage, int lastPage, byte[] memory) throws ProcessorException {
+
+        if (firstPage < 0 || lastPage > 0xFF || lastPage < firstPage
+                || memory == null || memory.length == 0 || (memory.length & 0xFF) != 0)
+            throw new ProcessorException(MOS6502Constants.EX_INVALID_LOCAL_PAGES);
+
+        int[] offsets = new int[0x100];
+        Arrays.fill(offsets, -1);
+
+        for (int page = firstPage; page <= lastPage; page++)
+            offsets[page] = ((page - firstPage) << 8) % memory.length;
+
+        this.localPageOffsets = offsets;
+        this.localMemory = memory;
+    }
+
+    /**
+     * Removes every local page, all reads and writes go through the memory device or busses
+     */
+    public void clearLocalPages(){
+        this.localMemory = null;
+        this.localPageOffsets = null;
+    }
+
+    /**
+     * Declares a range of addresses an idle loop may poll and which bits of them can not change while the CPU
+     * is run, for example RAM only written by the CPU itself or the vertical blank bit of a video status register.
+     * Short loops that do nothing but load or BIT test a polled address and branch back, or JMP to themselves,
+     * are then skipped over a whole number of passes at a time once they have been seen to repeat, the cycle
+     * count moves on exactly as if every pass had run.
+     *
+     * Only valid when the CPU is run by a scheduler that stops it before any event that could change the stable
+     * bits, reading a polled address again must not change anything the first read did not. Loops are found
+     * from the instruction cache so it must be enabled for the code polling.
+     * @param firstAddress first polled address
+     * @param lastAddress last polled address
+     * @param stableBits bits that can not change while the CPU is run
+     */
+    public void addPolledAddresses(int firstAddress, int lastAddress, int stableBits){
+        if (this.polledStableBits == null)
+            this.polledStableBits = new int[0x10000];
+
+        for (int address = Math.max(0, firstAddress); address <= Math.min(0xFFFF, lastAddress); address++)
+            this.polledStableBits[address] = stableBits & 0xFF;
+
+        this.idleLoopAddress = -1;
+    }
+
+    /**
+     * Removes every polled address, idle loops are no longer skipped
+     */
+    public void clearPolledAddresses(){
+        this.polledStableBits = null;
+        this.idleLoopAddress = -1;
+    }
+
+    /**
+     * Get the number of cycles skipped over by idle loops
+     * @return number of skipped cycles
      */
-    private int fetch() throws ProcessorException {
-
-        int fetchedData = cpuRead(getRegPC());
-        this.regPC = ((this.regPC + 1) & 0xFFFF);
-
-        if (PRINT_TRACE){
-            System.out.print("Fetch : [" + String.format("%02X", this.regPC) + "] ");
-            System.out.printf("%02X", fetchedData);
-            System.out.println();
-        }
-
-        return fetchedData;
+    public long getSkippedIdleCycles(){
+        return this.skippedIdleCycles;
     }
 
     /**
-     * Follows the addressing mode that has been set in order to set the address bus
+     * Watches for an idle loop at the program counter, skipping passes of one that has repeated. At least two
+     * passes are always left to run so registers and flags set by the loop are from a real read when run returns.
+     * Called where an instruction is about to be fetched.
+     * @param remaining number of cycles left to run
+     * @return number of cycles skipped
+     * @throws ProcessorException Thrown on memory error reading a branch offset
      */
-    private void addressing() throws ProcessorException {
+    private int skipIdleLoop(int remaining) throws ProcessorException {
 
-        try {
-            switch (this.addressingMode) {
-                case IMPLICIT:      // These modes do nothing with memory
-                case ACCUMULATOR:
-                    break;
+        int address = this.regPC;
 
-                case RELATIVE:
-                case IMMEDIATE:
-                    this.regIntAddr = this.regPC;
-                    this.regPC = (this.regPC + 1) & 0xFFFF;
-                    break;
+        if (address == this.idleLoopBranch)
+            return 0;
 
-                case ZERO_PAGE:     // Move to next address in memory, read contents, build zero page address from it
-                    this.regIntAddr = cpuRead(this.regPC);
-                    this.regPC = (this.regPC + 1) & 0xFFFF;
-                    break;
+        if (address != this.idleLoopAddress){
+            findIdleLoop(address);
+            this.idleLoopStart = this.cycleCount;
+            this.idleLoopPeriod = 0;
+            this.idleLoopPasses = 0;
+            return 0;
+        }
 
-                case ZERO_PAGE_X:
-                    this.regIntAddr = (cpuRead(this.regPC) + this.regX) & 0x00FF;
-                    this.regPC = (this.regPC + 1) & 0xFFFF;
-                    break;
+        // Still at the start of the pass that was just skipped to
+        if (this.cycleCount == this.idleLoopStart)
+            return 0;
 
-                case ZERO_PAGE_Y:
-                    this.regIntAddr = (cpuRead(this.regPC) + this.regY) & 0x00FF;
-                    this.regPC = (this.regPC + 1) & 0xFFFF;
-                    break;
+        int period = (int) (this.cycleCount - this.idleLoopStart);
+        this.idleLoopStart = this.cycleCount;
 
-                case ABSOLUTE:
-                    this.regIntAddr = cpuRead(this.regPC) | (cpuRead(this.regPC + 1) << 8);
-                    this.regPC = (this.regPC + 2) & 0xFFFF;
-                    break;
+        if (period != this.idleLoopPeriod){
+            this.idleLoopPeriod = period;
+            this.idleLoopPasses = 1;
+            return 0;
+        }
 
-                case ABSOLUTE_X:
-                    this.regIntAddr = cpuRead(this.regPC) | (cpuRead(this.regPC + 1) << 8);
-                    this.regPC = (this.regPC + 2) & 0xFFFF;
-                    int tmpAbx = this.regIntAddr & 0xFF00;
-                    this.regIntAddr = (this.regIntAddr + this.regX) & 0xFFFF;
+        // A second identical pass shows any side effect of the read has already happened
+        if (++this.idleLoopPasses < 2)
+            return 0;
 
-                    if ((tmpAbx & 0xFF00) != (this.regIntAddr & 0xFF00))
-                        this.cycles ++;
-                    break;
+        int passes = remaining / period - 2;
+        if (passes <= 0)
+            return 0;
 
-                case ABSOLUTE_Y:
-                    this.regIntAddr = cpuRead(this.regPC) | (cpuRead(this.regPC + 1) << 8);
-                    this.regPC = (this.regPC + 2) & 0xFFFF;
-                    int tmpAby = this.regIntAddr & 0xFF00;
-                    this.regIntAddr = (this.regIntAddr + this.regY) & 0xFFFF;
+        int skipped = passes * period;
+        this.cycleCount += skipped;
+        this.idleLoopStart = this.cycleCount;
+        this.skippedIdleCycles += skipped;
+        return skipped;
+    }
 
-                    if ((tmpAby & 0xFF00) != (this.regIntAddr & 0xFF00))
-                        this.cycles ++;
-                    break;
+    /**
+     * Determines if the cached instructions at an address are an idle loop, a JMP to itself or a load from a
+     * polled address followed by a branch back whose outcome only depends on the stable bits of that address
+     * @param address address of the first instruction
+     * @throws ProcessorException Thrown on memory error reading a branch offset
+     */
+    private void findIdleLoop(int address) throws ProcessorException {
 
-                case INDIRECT:
-                    this.regIntAddr = cpuRead(this.regPC) | (cpuRead(this.regPC + 1) << 8);
-
-                    /*
-                     * Hardware bug to account for
-                     */
-                    if ((this.regIntAddr & 0x00FF) == 0x00FF){
-                        this.regIntAddr = (cpuRead(this.regIntAddr)) | (cpuRead(this.regIntAddr & 0xFF00) << 8);
-                    } else {
-                        this.regIntAddr = (cpuRead(this.regIntAddr)) | (cpuRead((this.regIntAddr) + 1 & 0xFFFF) << 8);
-                    }
+        this.idleLoopAddress = -1;
+        this.idleLoopBranch = -1;
 
-                    this.regPC = (this.regPC + 2) & 0xFFFF;
-                    break;
+        if (this.cachedDetails == null || address < this.cacheFirstAddress || address > this.cacheLastAddress)
+            return;
 
-                case INDEXED_INDIRECT_X:
-                    int tmpIndX = cpuRead(this.regPC);
-                    int tmpIndXLow = cpuRead((tmpIndX + this.regX) & 0x00FF);
-                    int tmpIndXHigh = cpuRead((tmpIndX + this.regX + 1) & 0x00FF);
-                    this.regIntAddr = tmpIndXLow | (tmpIndXHigh << 8);
-                    this.regPC = (this.regPC + 1) & 0xFFFF;
-                    break;
+        MOS6502InstructionDetails load = this.cachedDetails[address];
+        if (load == null)
+            return;
 
-                case INDIRECT_INDEXED_Y:
-                    int tmpIndY = cpuRead(this.regPC);
-                    int tmpIndYLow = cpuRead(tmpIndY & 0x00FF);
-                    int tmpIndYHigh = cpuRead((tmpIndY + 1) & 0x00FF);
-                    this.regIntAddr = tmpIndYLow | (tmpIndYHigh << 8);
-                    this.regIntAddr = (this.regIntAddr + this.regY) & 0xFFFF;
+        if (load.instruction == MOS6502Instruction.JMP && load.addressingMode == MOS6502AddressingMode.ABSOLUTE){
+            if (this.cachedOperands[address] == address)
+                this.idleLoopAddress = address;
+            return;
+        }
 
-                    if ((this.regIntAddr & 0xFF00) != (tmpIndYHigh << 8))
-                        this.cycles ++;
+        if (this.polledStableBits == null
+                || (load.addressingMode != MOS6502AddressingMode.ZERO_PAGE
+                    && load.addressingMode != MOS6502AddressingMode.ABSOLUTE))
+            return;
 
-                    this.regPC = (this.regPC + 1) & 0xFFFF;
-                    break;
-            }
-        } catch (Exception ex){
-            throw new ProcessorException(ex.getMessage());
+        boolean bitTest = load.instruction == MOS6502Instruction.BIT;
+        if (!bitTest && load.instruction != MOS6502Instruction.LDA
+                && load.instruction != MOS6502Instruction.LDX && load.instruction != MOS6502Instruction.LDY)
+            return;
+
+        int stableBits = this.polledStableBits[this.cachedOperands[address]];
+        int branchAddress = address + instructionLength(load.addressingMode);
+        if (stableBits == 0 || branchAddress + 1 > this.cacheLastAddress)
+            return;
+
+        MOS6502InstructionDetails branch = this.cachedDetails[branchAddress];
+        if (branch == null)
+            return;
+
+        // Bits of the polled value the branch depends on
+        int needed;
+        switch (branch.instruction){
+            case BPL:
+            case BMI:
+                needed = 0x80;
+                break;
+            case BVC:
+            case BVS:
+                needed = bitTest ? 0x40 : 0x00;
+                break;
+            case BNE:
+            case BEQ:
+                needed = 0xFF;
+                break;
+            case BCC:
+            case BCS:
+                needed = 0x00;
+                break;
+            default:
+                return;
         }
 
-        /*
-         * Stops the process of reading address if clock cycles increased, Leave ACCUMULATOR as used later
-         */
-        this.addressingMode = (this.addressingMode != MOS6502AddressingMode.ACCUMULATOR) ? MOS6502AddressingMode.IMPLICIT : this.addressingMode;
+        if ((stableBits & needed) != needed)
+            return;
 
-        this.cycles--;
+        int target = (branchAddress + 2 + (byte) cpuRead(branchAddress + 1)) & 0xFFFF;
+        if (target != address)
+            return;
+
+        this.idleLoopAddress = address;
+        this.idleLoopBranch = branchAddress;
     }
 
     /**
-     * Decodes the instruction and sets the number of cycles
-     * @param instruction instruction to decode
+     * Sets how instructions are dispatched, either through the opcode handler table or by switching over
+     * the addressing mode and instruction. Both behave the same, the switch is kept for comparison.
+     * @param dispatchMode dispatch mode to use
      */
-    private void decode(int instruction) throws ProcessorException {
-
-        MOS6502InstructionDetails details = this.instructionMapping.getInstructionDetails(instruction);
-
-        if (details == null){
-            details = this.instructionMapping.getInstructionDetails(MOS6502Instructions.INS_NOP_IMP);
-        }
-
-        if ( details != null ){
-            this.instruction = details.instruction;
-            this.addressingMode = details.addressingMode;
-            this.cycles = details.cycles;
-            this.cycles --;
-
-            if (PRINT_TRACE) {
-                System.out.println("Instruction: " + this.instruction.name());
-                System.out.println("Addressing Mode: " + this.addressingMode.name());
-            }
+    public void setDispatchMode(MOS6502DispatchMode dispatchMode){
+        this.dispatchMode = dispatchMode;
+    }
 
-        } else {
-            throw new ProcessorException(MOS6502Constants.EX_INVALID_INSTRUCTION + " : " + instruction);
-        }
+    /**
+     * Get the dispatch mode
+     * @return how instructions are dispatched
+     */
+    public MOS6502DispatchMode getDispatchMode(){
+        return this.dispatchMode;
     }
 
     /**
@@ -444,42 +1302,42 @@ public class MOS6502 extends Processor implements FlagListener {
              * Branching conditions
              */
             case BCC:
-                branch(!isFlagSet(MOS6502Flags.CARRY_FLAG));
+                BCC();
                 break;
             case BCS:
-                branch(isFlagSet(MOS6502Flags.CARRY_FLAG));
+                BCS();
                 break;
             case BEQ:
-                branch(isFlagSet(MOS6502Flags.ZERO_FLAG));
+                BEQ();
                 break;
             case BMI:
-                branch(isFlagSet(MOS6502Flags.NEGATIVE_FLAG));
+                BMI();
                 break;
             case BNE:
-                branch(!isFlagSet(MOS6502Flags.ZERO_FLAG));
+                BNE();
                 break;
             case BPL:
-                branch(!isFlagSet(MOS6502Flags.NEGATIVE_FLAG));
+                BPL();
                 break;
             case BVC:
-                branch(!isFlagSet(MOS6502Flags.OVERFLOW_FLAG));
+                BVC();
                 break;
             case BVS:
-                branch(isFlagSet(MOS6502Flags.OVERFLOW_FLAG));
+                BVS();
                 break;
 
 
             case CLC:
-                setFlag(MOS6502Flags.CARRY_FLAG, false);
+                CLC();
                 break;
             case CLD:
-                setFlag(MOS6502Flags.DECIMAL_MODE, false);
+                CLD();
                 break;
             case CLI:
-                setFlag(MOS6502Flags.INTERRUPT_DIS, false);
+                CLI();
                 break;
             case CLV:
-                setFlag(MOS6502Flags.OVERFLOW_FLAG, false);
+                CLV();
                 break;
 
             case CMP:
@@ -547,7 +1405,7 @@ public class MOS6502 extends Processor implements FlagListener {
                 break;
 
             case NOP:
-                // No Operation
+                NOP();
                 break;
 
             case ORA:
@@ -555,7 +1413,7 @@ public class MOS6502 extends Processor implements FlagListener {
                 break;
 
             case PHA:
-                pushToStack(this.regACC);
+                PHA();
                 break;
 
             case PHP:
@@ -591,59 +1449,49 @@ public class MOS6502 extends Processor implements FlagListener {
                 break;
 
             case SEC:
-                setFlag(MOS6502Flags.CARRY_FLAG, true);
+                SEC();
                 break;
             case SED:
-                setFlag(MOS6502Flags.DECIMAL_MODE, true);
+                SED();
                 break;
             case SEI:
-                setFlag(MOS6502Flags.INTERRUPT_DIS, true);
+                SEI();
                 break;
 
             case STA:
-                ST(this.regACC);
+                STA();
                 break;
 
             case STX:
-                ST(this.regX);
+                STX();
                 break;
 
             case STY:
-                ST(this.regY);
+                STY();
                 break;
 
             case TAX:
-                this.regX = this.regACC;
-                setFlag(MOS6502Flags.ZERO_FLAG, this.regX == 0x00);
-                setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regX & 0x0080) != 0);
+                TAX();
                 break;
 
             case TAY:
-                this.regY = this.regACC;
-                setFlag(MOS6502Flags.ZERO_FLAG, this.regY == 0x00);
-                setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regY & 0x0080) != 0);
+                TAY();
                 break;
 
             case TSX:
-                this.regX = this.regSP;
-                setFlag(MOS6502Flags.ZERO_FLAG, this.regX == 0x00);
-                setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regX & 0x0080) != 0);
+                TSX();
                 break;
 
             case TXA:
-                this.regACC = this.regX;
-                setFlag(MOS6502Flags.ZERO_FLAG, this.regACC == 0x00);
-                setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regACC & 0x0080) != 0);
+                TXA();
                 break;
 
             case TXS:
-                this.regSP = this.regX;
+                TXS();
                 break;
 
             case TYA:
-                this.regACC = this.regY;
-                setFlag(MOS6502Flags.ZERO_FLAG, this.regACC == 0x00);
-                setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regACC & 0x0080) != 0);
+                TYA();
                 break;
 
             default:
@@ -655,20 +1503,37 @@ public class MOS6502 extends Processor implements FlagListener {
     public void onTick() throws ProcessorException {
 
         if (this.executionState == MOS6502ExecutionState.RUNNING){
-            if ( this.cycles == 0 ){
+            if ( this.cycles == 0 && this.stallCycles > 0 ){
+                // Sit out cycles stolen by DMA before fetching the next instruction
+                this.stallCycles--;
+            }
+            else if ( this.cycles == 0 ){
                 try {
+                    this.currentOperands = -1;
+                    this.cacheFillAddress = -1;
+
                     // If NMI triggered perform a BRK
-                    int instruction = this.nmiTriggered ? MOS6502Instructions.INS_BRK_IMP : fetch();
-                    decode(instruction);
+                    if (this.nmiTriggered)
+                        decode(MOS6502Instructions.INS_BRK_IMP);
+                    else if (this.cachedDetails != null)
+                        fetchAndDecodeCached();
+                    else
+                        decode(fetch());
                 } catch (Exception ex) {
                     ProcessorException pe = new ProcessorException(MOS6502Constants.EX_TICK_FETCH_ERROR + " " + ex.getMessage());
                     pe.addSuppressed(ex);
                     throw pe;
                 }
             }
-            else if ( this.cycles == 1 ) {
-                addressing();
-                execute();
+            else if ( this.cycles == 1 && !this.executed ) {
+                this.executed = true;
+                if (this.dispatchMode == MOS6502DispatchMode.TABLE) {
+                    this.cycles--;
+                    MOS6502OpcodeTable.HANDLERS[this.opcode].execute(this);
+                } else {
+                    addressing();
+                    execute();
+                }
                 if (PRINT_TRACE)
                     System.out.println();
             } else {
@@ -677,18 +1542,112 @@ public class MOS6502 extends Processor implements FlagListener {
         }
     }
 
+    /**
+     * Runs the CPU for a number of cycles. A CPU that is already halted sits out every cycle, a CPU that
+     * becomes halted while running returns straight away so whatever halted it can be run. Cycles stolen by
+     * a stall are sat out in one step between instructions. When block
+     * compilation is enabled compiled blocks that fit in the remaining cycles are run whole, when addresses
+     * are polled idle loops are skipped over.
+     * @param cycles maximum number of cycles to run
+     * @return number of cycles actually run
+     * @throws ProcessorException Thrown when an instruction fails to execute
+     */
+    @Override
+    public int run(int cycles) throws ProcessorException {
+
+        if (this.executionState == MOS6502ExecutionState.HALTED){
+            this.cycleCount += cycles;
+            return cycles;
+        }
+
+        // Polled values are only stable until run returns, idle loops must be seen to repeat again
+        this.idleLoopAddress = -1;
+
+        int executed = 0;
+        while (executed < cycles && this.executionState != MOS6502ExecutionState.HALTED){
+
+            // Cycles stolen by DMA are sat out in one step before the next instruction is fetched
+            if (this.stallCycles > 0 && this.cycles == 0 && this.executionState == MOS6502ExecutionState.RUNNING){
+                int stalled = Math.min(this.stallCycles, cycles - executed);
+                this.stallCycles -= stalled;
+                this.cycleCount += stalled;
+                executed += stalled;
+                continue;
+            }
+
+            // Idle loops and compiled blocks can only be entered where an instruction is about to be fetched
+            boolean fetching = false;
+            if ((this.blocks != null || this.polledStableBits != null) && this.cycles == 0 && !PRINT_TRACE
+                    && this.executionState == MOS6502ExecutionState.RUNNING){
+
+                if (!this.nmiTriggered){
+                    if (this.polledStableBits != null){
+                        int skipped = skipIdleLoop(cycles - executed);
+                        if (skipped > 0){
+                            executed += skipped;
+                            continue;
+                        }
+                    }
+
+                    MOS6502Block block = (this.blocks != null) ? findBlock() : null;
+                    if (block != null && block.maxCycles <= cycles - executed){
+                        executed += runBlock(block);
+                        continue;
+                    }
+                }
+                fetching = this.blocks != null;
+            }
+
+            this.cycleCount++;
+            onTick();
+            executed++;
+
+            if (fetching)
+                this.blockStart = isControlFlow(this.instruction);
+        }
+        return executed;
+    }
+
     /**
      * Sets or unsets a flag given a boolean value, true = enable, false = disable
      * @param flag flag to set
      * @param val boolean operator
      */
     private void setFlag(int flag, boolean val){
+        if ((flag & (MOS6502Flags.ZERO_FLAG | MOS6502Flags.NEGATIVE_FLAG)) != 0) {
+            setStatus(val ? status() | flag : status() & ~flag);
+            return;
+        }
+
         if (val)
             this.regStatus |= flag;
         else
             this.regStatus &= ~flag;
     }
 
+    /**
+     * Sets the zero and negative flags from a result. Nearly every instruction sets both flags from its result
+     * and most are overwritten before anything reads them, so the result is recorded and the flags are only
+     * worked out when read.
+     * @param value result, only the lowest 8 bits are used
+     */
+    private void setNZ(int value){
+        this.regNZ = value & 0xFF;
+    }
+
+    /**
+     * Builds a value for regNZ that gives any combination of zero and negative flags. Zero is set when the
+     * low 8 bits are 0, negative is set when bit 7 or bit 8 is set, bit 8 covers both flags being set.
+     * @param negative negative flag
+     * @param zero zero flag
+     * @return value for regNZ
+     */
+    private static int encodeNZ(boolean negative, boolean zero){
+        if (zero)
+            return negative ? 0x100 : 0x00;
+        return negative ? 0x80 : 0x01;
+    }
+
     /**
      * Performs the necessary steps to complete a branching instruction
      * Not being 100% cycle accurate on this one. Will perform all the functions of
@@ -720,6 +1679,70 @@ public class MOS6502 extends Processor implements FlagListener {
         }
     }
 
+    /**
+     * Branch if the carry flag is clear
+     * @throws ProcessorException Thrown on memory error
+     */
+    void BCC() throws ProcessorException {
+        branch(!isFlagSet(MOS6502Flags.CARRY_FLAG));
+    }
+
+    /**
+     * Branch if the carry flag is set
+     * @throws ProcessorException Thrown on memory error
+     */
+    void BCS() throws ProcessorException {
+        branch(isFlagSet(MOS6502Flags.CARRY_FLAG));
+    }
+
+    /**
+     * Branch if the zero flag is set
+     * @throws ProcessorException Thrown on memory error
+     */
+    void BEQ() throws ProcessorException {
+        branch(isFlagSet(MOS6502Flags.ZERO_FLAG));
+    }
+
+    /**
+     * Branch if the negative flag is set
+     * @throws ProcessorException Thrown on memory error
+     */
+    void BMI() throws ProcessorException {
+        branch(isFlagSet(MOS6502Flags.NEGATIVE_FLAG));
+    }
+
+    /**
+     * Branch if the zero flag is clear
+     * @throws ProcessorException Thrown on memory error
+     */
+    void BNE() throws ProcessorException {
+        branch(!isFlagSet(MOS6502Flags.ZERO_FLAG));
+    }
+
+    /**
+     * Branch if the negative flag is clear
+     * @throws ProcessorException Thrown on memory error
+     */
+    void BPL() throws ProcessorException {
+        branch(!isFlagSet(MOS6502Flags.NEGATIVE_FLAG));
+    }
+
+    /**
+     * Branch if the overflow flag is clear
+     * @throws ProcessorException Thrown on memory error
+     */
+    void BVC() throws ProcessorException {
+        branch(!isFlagSet(MOS6502Flags.OVERFLOW_FLAG));
+    }
+
+    /**
+     * Branch if the overflow flag is set
+     * @throws ProcessorException Thrown on memory error
+     */
+    void BVS() throws ProcessorException {
+        branch(isFlagSet(MOS6502Flags.OVERFLOW_FLAG));
+    }
+
     /**
      * Add with Carry
      * http://www.obelisk.me.uk/6502/reference.html#ADC
@@ -731,7 +1754,7 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets OVERFLOW_FLAG if sign bit is incorrect (bit 6 carried to bit 7)
      * Sets NEGATIVE_FLAG if bit 7 is a 1
      */
-    private void ADC() throws ProcessorException {
+    void ADC() throws ProcessorException {
 
         int value = cpuRead(this.regIntAddr);
 
@@ -740,9 +1763,8 @@ public class MOS6502 extends Processor implements FlagListener {
             result++;
 
         setFlag(MOS6502Flags.CARRY_FLAG, (result & 0xFF00) != 0);
-        setFlag(MOS6502Flags.ZERO_FLAG, (result & 0x00FF) == 0);
+        setNZ(result);
         setFlag(MOS6502Flags.OVERFLOW_FLAG, ((result ^ this.regACC) & (result ^ value) & 0x0080) != 0);
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (result & 0x0080) != 0);
 
         this.regACC = (result & 0x00FF);
 
@@ -755,13 +1777,12 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets zero flag if the result == 0
      * Sets the negative flag if bit 7 is set
      */
-    private void AND() throws ProcessorException {
+    void AND() throws ProcessorException {
 
         int value = cpuRead(this.regIntAddr);
         this.regACC = this.regACC & value;
 
-        setFlag(MOS6502Flags.ZERO_FLAG, this.regACC == 0x00);
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regACC & MOS6502Constants.MASK_NEGATIVE) != 0);
+        setNZ(this.regACC);
 
         if (PRINT_TRACE)
             System.out.println("AND : " + String.format("%02X", this.regACC));
@@ -775,7 +1796,7 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets the NEGATIVE_FLAG to the value of bit 7
      * @throws ProcessorException Can throw processor exception if there is a memory error
      */
-    private void ASL() throws ProcessorException {
+    void ASL() throws ProcessorException {
         int value = this.regACC;
 
         if (this.addressingMode != MOS6502AddressingMode.ACCUMULATOR){
@@ -785,8 +1806,7 @@ public class MOS6502 extends Processor implements FlagListener {
         value <<= 1;
 
         setFlag(MOS6502Flags.CARRY_FLAG, (value & 0xFF00) != 0);
-        setFlag(MOS6502Flags.ZERO_FLAG, (value & 0x00FF) == 0x00);
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (value & 0x0080) != 0);
+        setNZ(value);
 
         value &= 0x00FF;
 
@@ -809,7 +1829,7 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets the NEGATIVE_FLAG if bit 7 is set in the value from memory
      * @throws ProcessorException Can throw a processor exception if there is an issue reading from memory
      */
-    private void BIT() throws ProcessorException {
+    void BIT() throws ProcessorException {
 
         int value = cpuRead(this.regIntAddr);
 
@@ -834,7 +1854,7 @@ public class MOS6502 extends Processor implements FlagListener {
      * Set the break flag, note this is not left in the status, see https://wiki.nesdev.com/w/index.php/Status_flags
      * "The B Flag" bits 4 and 5 are only set in the stack and not in the register.
      */
-    private void BRK() throws ProcessorException {
+    void BRK() throws ProcessorException {
 
         /*
          * Push PC high byte to stack
@@ -861,9 +1881,9 @@ public class MOS6502 extends Processor implements FlagListener {
         /*
          * Push flags to stack
          */
-        pushToStack(this.regStatus);
+        pushToStack(status());
         if (PRINT_TRACE)
-            System.out.println("BRK Pushed flags : " + String.format("%02X", this.regStatus));
+            System.out.println("BRK Pushed flags : " + String.format("%02X", status()));
 
 
         /*
@@ -890,6 +1910,34 @@ public class MOS6502 extends Processor implements FlagListener {
         this.nmiTriggered = false;
     }
 
+    /**
+     * Clear carry flag
+     */
+    void CLC() {
+        setFlag(MOS6502Flags.CARRY_FLAG, false);
+    }
+
+    /**
+     * Clear decimal mode
+     */
+    void CLD() {
+        setFlag(MOS6502Flags.DECIMAL_MODE, false);
+    }
+
+    /**
+     * Clear interrupt disable
+     */
+    void CLI() {
+        setFlag(MOS6502Flags.INTERRUPT_DIS, false);
+    }
+
+    /**
+     * Clear overflow flag
+     */
+    void CLV() {
+        setFlag(MOS6502Flags.OVERFLOW_FLAG, false);
+    }
+
     /**
      * Compares the contents of the accumulator with a value held in memory
      * Sets CARRY_FLAG if Accumulator >= Memory Value
@@ -897,13 +1945,12 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets NEGATIVE_FLAG if Accumulator < Memory Value
      * @throws ProcessorException Can throw ProcessorException on memory read error
      */
-    private void CMP() throws ProcessorException {
+    void CMP() throws ProcessorException {
         int value = cpuRead(this.regIntAddr);
         int tmp = this.regACC - value;
 
         setFlag(MOS6502Flags.CARRY_FLAG, value <= this.regACC);
-        setFlag(MOS6502Flags.ZERO_FLAG, (tmp & 0x00FF) == 0x00);
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (tmp & 0x0080) != 0);
+        setNZ(tmp);
     }
 
     /**
@@ -913,13 +1960,12 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets NEGATIVE_FLAG if X < Memory Value
      * @throws ProcessorException Can throw ProcessorException on memory read error
      */
-    private void CPX() throws ProcessorException {
+    void CPX() throws ProcessorException {
         int value = cpuRead(this.regIntAddr);
         int tmp = this.regX - value;
 
         setFlag(MOS6502Flags.CARRY_FLAG, value <= this.regX);
-        setFlag(MOS6502Flags.ZERO_FLAG, (tmp & 0x00FF) == 0x00);
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (tmp & 0x0080) != 0);
+        setNZ(tmp);
     }
 
     /**
@@ -929,13 +1975,12 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets NEGATIVE_FLAG if Y < Memory Value
      * @throws ProcessorException Can throw ProcessorException on memory read error
      */
-    private void CPY() throws ProcessorException {
+    void CPY() throws ProcessorException {
         int value = cpuRead(this.regIntAddr);
         int tmp = this.regY - value;
 
         setFlag(MOS6502Flags.CARRY_FLAG, value <= this.regY);
-        setFlag(MOS6502Flags.ZERO_FLAG, (tmp & 0x00FF) == 0x00);
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (tmp & 0x0080) != 0);
+        setNZ(tmp);
     }
 
     /**
@@ -944,17 +1989,14 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets ZERO_FLAG if == 0x0
      * Sets NEGATIVE_FLAG if but 7 is set to a 1
      */
-    private void DEC() throws ProcessorException {
+    void DEC() throws ProcessorException {
         int value = cpuRead(this.regIntAddr);
 
         value = (value - 1) & MOS6502Constants.MASK_LAST_BYTE;
         cpuWrite(this.getRegIntAddr(), value);
 
-        // Zero Flag
-        setFlag(MOS6502Flags.ZERO_FLAG, value == 0x00);
-
-        // Negative Flag
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (value & MOS6502Constants.MASK_NEGATIVE) != 0);
+        // Zero and Negative Flags
+        setNZ(value);
 
         if (PRINT_TRACE)
             System.out.println("DEC : " + String.format("%02X", value));
@@ -965,14 +2007,11 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets ZERO_FLAG if == 0x0
      * Sets NEGATIVE_FLAG if but 7 is set to a 1
      */
-    private void DEX() {
+    void DEX() {
         this.regX = (this.regX -1) & MOS6502Constants.MASK_LAST_BYTE;
 
-        // Zero Flag
-        setFlag(MOS6502Flags.ZERO_FLAG, this.regX == 0x00);
-
-        // Negative Flag
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regX & MOS6502Constants.MASK_NEGATIVE) != 0);
+        // Zero and Negative Flags
+        setNZ(this.regX);
 
         if (PRINT_TRACE)
             System.out.println("DEX : " + String.format("%02X", this.regX));
@@ -983,14 +2022,11 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets ZERO_FLAG if == 0x0
      * Sets NEGATIVE_FLAG if but 7 is set to a 1
      */
-    private void DEY() {
+    void DEY() {
         this.regY = (this.regY -1) & MOS6502Constants.MASK_LAST_BYTE;
 
-        // Zero Flag
-        setFlag(MOS6502Flags.ZERO_FLAG, this.regY == 0x00);
-
-        // Negative Flag
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regY & MOS6502Constants.MASK_NEGATIVE) != 0);
+        // Zero and Negative Flags
+        setNZ(this.regY);
 
         if (PRINT_TRACE)
             System.out.println("DEY : " + String.format("%02X", this.regY));
@@ -1003,16 +2039,13 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets the NEGATIVE_FLAG if bit 7 of the accumulator becomes a 1
      * @throws ProcessorException If there is an issue reading from memory
      */
-    private void EOR() throws ProcessorException {
+    void EOR() throws ProcessorException {
         int value = cpuRead(this.regIntAddr);
 
         this.regACC = this.regACC ^ value;
 
-        // Zero Flag
-        setFlag(MOS6502Flags.ZERO_FLAG, this.regACC == 0x00);
-
-        // Negative Flag
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regACC & MOS6502Constants.MASK_NEGATIVE) != 0);
+        // Zero and Negative Flags
+        setNZ(this.regACC);
 
         if (PRINT_TRACE)
             System.out.println("EOR : " + String.format("%02X", this.regACC));
@@ -1024,16 +2057,13 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets NEGATIVE_FLAG to bit 7
      * @throws ProcessorException Can throw processor exception on memory errors
      */
-    private void INC() throws ProcessorException {
+    void INC() throws ProcessorException {
         int value = cpuRead(this.regIntAddr);
 
         value = (value + 1) & MOS6502Constants.MASK_LAST_BYTE;
 
-        // Zero Flag
-        setFlag(MOS6502Flags.ZERO_FLAG, value == 0x00);
-
-        // Negative Flag
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (value & MOS6502Constants.MASK_NEGATIVE) != 0);
+        // Zero and Negative Flags
+        setNZ(value);
 
         cpuWrite(this.regIntAddr, value);
 
@@ -1046,14 +2076,11 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets ZERO_FLAG if == 0x0
      * Sets NEGATIVE_FLAG if but 7 is set to a 1
      */
-    private void INX() {
+    void INX() {
         this.regX = (this.regX + 1) & MOS6502Constants.MASK_LAST_BYTE;
 
-        // Zero Flag
-        setFlag(MOS6502Flags.ZERO_FLAG, this.regX == 0x00);
-
-        // Negative Flag
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regX & MOS6502Constants.MASK_NEGATIVE) != 0);
+        // Zero and Negative Flags
+        setNZ(this.regX);
 
         if (PRINT_TRACE)
             System.out.println("INX : " + String.format("%02X", this.regX));
@@ -1065,14 +2092,11 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets ZERO_FLAG if == 0x0
      * Sets NEGATIVE_FLAG if but 7 is set to a 1
      */
-    private void INY() {
+    void INY() {
         this.regY = (this.regY + 1) & MOS6502Constants.MASK_LAST_BYTE;
 
-        // Zero Flag
-        setFlag(MOS6502Flags.ZERO_FLAG, this.regY == 0x00);
-
-        // Negative Flag
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regY & MOS6502Constants.MASK_NEGATIVE) != 0);
+        // Zero and Negative Flags
+        setNZ(this.regY);
 
         if (PRINT_TRACE)
             System.out.println("INY : " + String.format("%02X", this.regY));
@@ -1082,7 +2106,7 @@ public class MOS6502 extends Processor implements FlagListener {
     /**
      * Jumps the program counter to the value currently held on the address bus
      */
-    private void JMP() {
+    void JMP() {
         this.regPC = this.regIntAddr;
         if (PRINT_TRACE)
             System.out.println("JMP : " + String.format("%02X", this.regPC));
@@ -1093,7 +2117,7 @@ public class MOS6502 extends Processor implements FlagListener {
      * pushes the PC pointing to the last byte of the instruction to the stack then sets the PC to the
      * address that was read from memory + 1
      */
-    private void JSR() throws ProcessorException {
+    void JSR() throws ProcessorException {
 
         if (PRINT_TRACE)
             System.out.println("JSR PC : " + String.format("%02X", this.regPC));
@@ -1127,14 +2151,11 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets NEGATIVE_FLAG if bit 7 of accumulator is a 1
      * @throws ProcessorException Can throw a ProcessorException when issues reading memory
      */
-    private void LDA() throws ProcessorException {
+    void LDA() throws ProcessorException {
         int value = cpuRead(this.regIntAddr);
 
-        // Zero Flag
-        setFlag(MOS6502Flags.ZERO_FLAG, value == 0x00);
-
-        // Negative Flag
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (value & MOS6502Constants.MASK_NEGATIVE) != 0);
+        // Zero and Negative Flags
+        setNZ(value);
 
         this.regACC = value;
 
@@ -1148,12 +2169,11 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets NEGATIVE_FLAG if bit 7 of X register is a 1
      * @throws ProcessorException Can throw a ProcessorException when issues reading memory
      */
-    private void LDX() throws ProcessorException {
+    void LDX() throws ProcessorException {
         int value = cpuRead(this.regIntAddr);
         this.regX = value & 0x00FF;
 
-        setFlag(MOS6502Flags.ZERO_FLAG, this.regX == 0x00);
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regX & MOS6502Constants.MASK_NEGATIVE) != 0);
+        setNZ(this.regX);
 
         if (PRINT_TRACE)
             System.out.println("LDX : " + String.format("%02X", this.regX));
@@ -1165,12 +2185,11 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets NEGATIVE_FLAG if bit 7 of Y register is a 1
      * @throws ProcessorException Can throw a ProcessorException when issues reading memory
      */
-    private void LDY() throws ProcessorException {
+    void LDY() throws ProcessorException {
         int value = cpuRead(this.regIntAddr);
         this.regY = value & 0x00FF;
 
-        setFlag(MOS6502Flags.ZERO_FLAG, this.regY == 0x00);
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regY & MOS6502Constants.MASK_NEGATIVE) != 0);
+        setNZ(this.regY);
 
         if (PRINT_TRACE)
             System.out.println("LDY : " + String.format("%02X", this.regY));
@@ -1183,7 +2202,7 @@ public class MOS6502 extends Processor implements FlagListener {
      * Bit 7 will always be set to 0
      * @throws ProcessorException
      */
-    private void LSR() throws ProcessorException {
+    void LSR() throws ProcessorException {
         int value = this.regACC;
 
         if (this.addressingMode != MOS6502AddressingMode.ACCUMULATOR){
@@ -1194,8 +2213,7 @@ public class MOS6502 extends Processor implements FlagListener {
         value >>>= 1;
         value = value & 0x00FF;
 
-        setFlag(MOS6502Flags.ZERO_FLAG, value == 0x00);
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (value & 0x0080) !=0);
+        setNZ(value);
 
         if (this.addressingMode != MOS6502AddressingMode.ACCUMULATOR){
             cpuWrite(this.regIntAddr, value);
@@ -1207,6 +2225,12 @@ public class MOS6502 extends Processor implements FlagListener {
             System.out.println("LSR Result : " + String.format("%02X", value));
     }
 
+    /**
+     * No Operation
+     */
+    void NOP() {
+    }
+
     /**
      * Performs an inclusive OR operation on a value in memory and
      * the accumulator string the result in the accumulator
@@ -1214,16 +2238,21 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets NEGATIVE_FLAG if bit 7 of accumulator becomes a 1
      * @throws ProcessorException Can throw a ProcessorException when issues reading memory
      */
-    private void ORA() throws ProcessorException {
+    void ORA() throws ProcessorException {
         int value = cpuRead(this.regIntAddr);
 
         this.regACC = this.regACC | value;
 
-        // Zero Flag
-        setFlag(MOS6502Flags.ZERO_FLAG, this.regACC == 0x00);
+        // Zero and Negative Flags
+        setNZ(this.regACC);
+    }
 
-        // Negative Flag
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regACC & MOS6502Constants.MASK_NEGATIVE) != 0);
+    /**
+     * Pushes a copy of the accumulator on to the stack
+     * @throws ProcessorException Thrown on memory error
+     */
+    void PHA() throws ProcessorException {
+        pushToStack(this.regACC);
     }
 
     /**
@@ -1232,9 +2261,9 @@ public class MOS6502 extends Processor implements FlagListener {
      * are always set in the stack but not on the actual flags
      * http://wiki.nesdev.com/w/index.php/Status_flags
      */
-    private void PHP() throws ProcessorException {
+    void PHP() throws ProcessorException {
 
-        int value = this.regStatus | 0b00110000;
+        int value = status() | 0b00110000;
 
         pushToStack(value);
 
@@ -1248,15 +2277,12 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets NEGATIVE_FLAG if bit 7 of accumulator is a 1
      * @throws ProcessorException Can throw memory exception on error reading memory
      */
-    private void PLA() throws ProcessorException {
+    void PLA() throws ProcessorException {
 
         this.regACC = pullFromStack();
 
-        // Zero Flag
-        setFlag(MOS6502Flags.ZERO_FLAG, this.regACC == 0x00);
-
-        // Negative Flag
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (this.regACC & MOS6502Constants.MASK_NEGATIVE) != 0);
+        // Zero and Negative Flags
+        setNZ(this.regACC);
 
         if (PRINT_TRACE)
             System.out.println("PLA : " + String.format("%02X", this.regY));
@@ -1268,7 +2294,7 @@ public class MOS6502 extends Processor implements FlagListener {
      * http://wiki.nesdev.com/w/index.php/Status_flags
      * @throws ProcessorException Can throw memory exception on error reading memory
      */
-    private void PLP() throws ProcessorException {
+    void PLP() throws ProcessorException {
         int flags = pullFromStack();
         if (PRINT_TRACE)
             System.out.println("PLPFlags Pulled: " + String.format("%02X", flags));
@@ -1278,7 +2304,7 @@ public class MOS6502 extends Processor implements FlagListener {
         if (PRINT_TRACE)
             System.out.println("PLP Flags Masked: " + String.format("%02X", flags));
 
-        this.regStatus = flags;
+        setStatus(flags);
     }
 
     /**
@@ -1287,7 +2313,7 @@ public class MOS6502 extends Processor implements FlagListener {
      * Sets CARRY_FLAG to original bit 7
      * @throws ProcessorException Can throw processor exception on memory errors
      */
-    private void ROL() throws ProcessorException {
+    void ROL() throws ProcessorException {
         int value = this.regACC;
 
         if (this.addressingMode != MOS6502AddressingMode.ACCUMULATOR){
@@ -1304,11 +2330,8 @@ public class MOS6502 extends Processor implements FlagListener {
         value = ((value << 1) + tmp) & MOS6502Constants.MASK_LAST_BYTE;
 
 
-        // Negative Flag
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (value & MOS6502Constants.MASK_NEGATIVE) != 0);
-
-        // Zero Flag
-        setFlag(MOS6502Flags.ZERO_FLAG, value == 0x00);
+        // Zero and Negative Flags
+        setNZ(value);
 
         if (this.addressingMode != MOS6502AddressingMode.ACCUMULATOR){
             cpuWrite(regIntAddr, value);
@@ -1324,7 +2347,7 @@ public class MOS6502 extends Processor implements FlagListener {
      * Moves each bit one place to the right
      * @throws ProcessorException Can throw processor exception on memory errors
      */
-    private void ROR() throws ProcessorException {
+    void ROR() throws ProcessorException {
         int value = this.regACC;
 
         if (this.addressingMode != MOS6502AddressingMode.ACCUMULATOR){
@@ -1340,11 +2363,8 @@ public class MOS6502 extends Processor implements FlagListener {
 
         value = ((value >> 1) + tmp) & MOS6502Constants.MASK_LAST_BYTE;
 
-        // Negative Flag
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (value & 0b10000000) == 0b10000000);
-
-        // Zero Flag
-        setFlag(MOS6502Flags.ZERO_FLAG, value == 0x00);
+        // Zero and Negative Flags
+        setNZ(value);
 
         if (this.addressingMode != MOS6502AddressingMode.ACCUMULATOR){
             cpuWrite(regIntAddr, value);
@@ -1361,7 +2381,7 @@ public class MOS6502 extends Processor implements FlagListener {
      * When pulling the processor flags bits 5 and 4 are ignored
      * https://wiki.nesdev.com/w/index.php/Status_flags
      */
-    private void RTI() throws ProcessorException {
+    void RTI() throws ProcessorException {
         int flags = pullFromStack();
         if (PRINT_TRACE)
             System.out.println("RTI Flags Pulled: " + String.format("%02X", flags));
@@ -1371,7 +2391,7 @@ public class MOS6502 extends Processor implements FlagListener {
         if (PRINT_TRACE)
             System.out.println("RTI Flags Masked: " + String.format("%02X", flags));
 
-        this.regStatus = flags;
+        setStatus(flags);
 
         this.regPC = pullFromStack();
         this.regPC = this.regPC | (pullFromStack() << 8);
@@ -1386,7 +2406,7 @@ public class MOS6502 extends Processor implements FlagListener {
      * For this emulator will also increment the PC after pulling from stack
      * @throws ProcessorException Can throw a ProcessorException if there is an issue reading from memory
      */
-    private void RTS() throws ProcessorException {
+    void RTS() throws ProcessorException {
 
         this.regPC = pullFromStack() & 0xFF;
         this.regPC = this.regPC | (pullFromStack() << 8);
@@ -1408,7 +2428,7 @@ public class MOS6502 extends Processor implements FlagListener {
      *
      * @throws ProcessorException Can throw a ProcessorException if there is an issue writing to memory
      */
-    private void SBC() throws ProcessorException {
+    void SBC() throws ProcessorException {
         int value = cpuRead(this.regIntAddr);
 
         value = (value ^ 0x00FF);
@@ -1418,13 +2438,114 @@ public class MOS6502 extends Processor implements FlagListener {
             result ++;
 
         setFlag(MOS6502Flags.CARRY_FLAG, (result & 0xFF00) != 0);
-        setFlag(MOS6502Flags.ZERO_FLAG, (result & 0x00FF) == 0);
+        setNZ(result);
         setFlag(MOS6502Flags.OVERFLOW_FLAG, ((result ^ this.regACC) & (result ^ value) & 0x0080) != 0);
-        setFlag(MOS6502Flags.NEGATIVE_FLAG, (result & 0x0080) != 0);
 
         this.regACC = (result & 0x0FF);
     }
 
+    /**
+     * Set carry flag
+     */
+    void SEC() {
+        setFlag(MOS6502Flags.CARRY_FLAG, true);
+    }
+
+    /**
+     * Set decimal mode
+     */
+    void SED() {
+        setFlag(MOS6502Flags.DECIMAL_MODE, true);
+    }
+
+    /**
+     * Set interrupt disable
+     */
+    void SEI() {
+        setFlag(MOS6502Flags.INTERRUPT_DIS, true);
+    }
+
+    /**
+     * Stores the contents of the accumulator to the memory address set
+     * @throws ProcessorException Thrown on memory error
+     */
+    void STA() throws ProcessorException {
+        ST(this.regACC);
+    }
+
+    /**
+     * Stores the contents of the X register to the memory address set
+     * @throws ProcessorException Thrown on memory error
+     */
+    void STX() throws ProcessorException {
+        ST(this.regX);
+    }
+
+    /**
+     * Stores the contents of the Y register to the memory address set
+     * @throws ProcessorException Thrown on memory error
+     */
+    void STY() throws ProcessorException {
+        ST(this.regY);
+    }
+
+    /**
+     * Copies the accumulator into the X register
+     * Sets ZERO_FLAG if == 0x0
+     * Sets NEGATIVE_FLAG if bit 7 is set to a 1
+     */
+    void TAX() {
+        this.regX = this.regACC;
+        setNZ(this.regX);
+    }
+
+    /**
+     * Copies the accumulator into the Y register
+     * Sets ZERO_FLAG if == 0x0
+     * Sets NEGATIVE_FLAG if bit 7 is set to a 1
+     */
+    void TAY() {
+        this.regY = this.regACC;
+        setNZ(this.regY);
+    }
+
+    /**
+     * Copies the stack pointer into the X register
+     * Sets ZERO_FLAG if == 0x0
+     * Sets NEGATIVE_FLAG if bit 7 is set to a 1
+     */
+    void TSX() {
+        this.regX = this.regSP;
+        setNZ(this.regX);
+    }
+
+    /**
+     * Copies the X register into the accumulator
+     * Sets ZERO_FLAG if == 0x0
+     * Sets NEGATIVE_FLAG if bit 7 is set to a 1
+     */
+    void TXA() {
+        this.regACC = this.regX;
+        setNZ(this.regACC);
+    }
+
+    /**
+     * Copies the X register into the stack pointer
+     */
+    void TXS() {
+        this.regSP = this.regX;
+    }
+
+    /**
+     * Copies the Y register into the accumulator
+     * Sets ZERO_FLAG if == 0x0
+     * Sets NEGATIVE_FLAG if bit 7 is set to a 1
+     */
+    void TYA() {
+        this.regACC = this.regY;
+        setNZ(this.regACC);
+    }
+
     /**
      * Stores the value to the memory address set. Used for STA, STX, STY
      * @param value value to store in memory
@@ -0,0 +1,45 @@
+package com.rosscon.llce.components.processors.MOS6502;
+
+/**
+ * Straight line run of instructions compiled from the instruction cache.
+ *
+ * A block starts at an address that is jumped or branched to and runs until the first instruction that
+ * can change the flow of the program. Each instruction is held already decoded with its operand bytes,
+ * so running a block is a loop over the opcode handlers without reading or decoding anything.
+ */
+final class MOS6502Block {
+
+    /**
+     * Address of the first instruction in the block
+     */
+    final int firstAddress;
+
+    /**
+     * Address of the last byte of the last instruction in the block
+     */
+    final int lastAddress;
+
+    /**
+     * Decoded details of each instruction in order
+     */
+    final MOS6502InstructionDetails[] details;
+
+    /**
+     * Operand bytes of each instruction in order
+     */
+    final int[] operands;
+
+    /**
+     * Most cycles the block can take including page crosses and branches, the block is only run when
+     * at least this many cycles are left to run
+     */
+    final int maxCycles;
+
+    MOS6502Block(int firstAddress, int lastAddress, MOS6502InstructionDetails[] details, int[] operands, int maxCycles){
+        this.firstAddress = firstAddress;
+        this.lastAddress = lastAddress;
+        this.details = details;
+        this.operands = operands;
+        this.maxCycles = maxCycles;
+    }
+}
@@ -29,6 +29,9 @@ public class MOS6502Constants {
     public static final String EX_ERROR_LISTENING_TO_FLAG =
             "Unable to register as listener with interrupt flag";
 
+    public static final String EX_INVALID_LOCAL_PAGES =
+            "Local pages must be within the address space and backed by whole pages of memory";
+
     /**
      * Vectors / Pages
      */
@@ -0,0 +1,10 @@
+package com.rosscon.llce.components.processors.MOS6502;
+
+/**
+ * How the processor dispatches an instruction once it has been decoded
+ * TABLE - a single lookup of the opcode in MOS6502OpcodeTable, addressing and instruction in one handler
+ * SWITCH - switch over the addressing mode then switch over the instruction
+ */
+public enum MOS6502DispatchMode {
+    TABLE, SWITCH
+}
@@ -25,6 +25,11 @@ public class MOS6502InstructionDetails {
      */
     public MOS6502Instruction instruction;
 
+    /**
+     * Opcode the details are held against, used to find the opcode's handler
+     */
+    public int opcode;
+
     public MOS6502InstructionDetails(MOS6502Instruction instruction,
                                      MOS6502AddressingMode addressingMode,
                                      int instructionSize,
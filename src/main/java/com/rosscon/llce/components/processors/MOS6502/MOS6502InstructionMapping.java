@@ -604,6 +604,10 @@ public class MOS6502InstructionMapping  {
         details[0xFC] =
                 new MOS6502InstructionDetails(MOS6502Instruction.NOP, MOS6502AddressingMode.ABSOLUTE, 3, 4);
 
+        for (int opcode = 0; opcode < details.length; opcode++){
+            if (details[opcode] != null)
+                details[opcode].opcode = opcode;
+        }
     }
 
 
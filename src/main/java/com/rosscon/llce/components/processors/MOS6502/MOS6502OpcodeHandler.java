@@ -0,0 +1,17 @@
+package com.rosscon.llce.components.processors.MOS6502;
+
+import com.rosscon.llce.components.processors.ProcessorException;
+
+/**
+ * Executes a single opcode, resolving its addressing mode and then performing the instruction
+ */
+@FunctionalInterface
+interface MOS6502OpcodeHandler {
+
+    /**
+     * Executes the opcode against a processor
+     * @param cpu processor to execute against
+     * @throws ProcessorException Thrown on memory error
+     */
+    void execute(MOS6502 cpu) throws ProcessorException;
+}
@@ -0,0 +1,212 @@
+package com.rosscon.llce.components.processors.MOS6502;
+
+import java.util.Arrays;
+
+/**
+ * Table of opcode handlers indexed by opcode.
+ *
+ * Each handler performs the addressing for its opcode followed by the instruction, so executing an instruction
+ * is a single lookup in the table rather than a switch over the addressing mode and then the instruction.
+ * Opcodes with no mapping are treated as NOP, the same as when they are decoded.
+ */
+final class MOS6502OpcodeTable {
+
+    /**
+     * Handler for every opcode, never modified once built
+     */
+    static final MOS6502OpcodeHandler[] HANDLERS = createHandlers();
+
+    private MOS6502OpcodeTable(){
+    }
+
+    /**
+     * Builds the table of handlers
+     * @return handlers indexed by opcode
+     */
+    private static MOS6502OpcodeHandler[] createHandlers(){
+
+        MOS6502OpcodeHandler[] table = new MOS6502OpcodeHandler[256];
+        Arrays.fill(table, (MOS6502OpcodeHandler) MOS6502::NOP);
+
+        table[MOS6502Instructions.INS_BRK_IMP] = cpu -> cpu.BRK();
+        table[MOS6502Instructions.INS_ORA_INX] = cpu -> { cpu.addressIndexedIndirectX(); cpu.ORA(); };
+        table[0x04] = cpu -> { cpu.addressImmediate(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_ORA_ZP] = cpu -> { cpu.addressZeroPage(); cpu.ORA(); };
+        table[MOS6502Instructions.INS_ASL_ZP] = cpu -> { cpu.addressZeroPage(); cpu.ASL(); };
+        table[MOS6502Instructions.INS_PHP_IMP] = cpu -> cpu.PHP();
+        table[MOS6502Instructions.INS_ORA_IMM] = cpu -> { cpu.addressImmediate(); cpu.ORA(); };
+        table[MOS6502Instructions.INS_ASL_ACC] = cpu -> cpu.ASL();
+        table[0x0C] = cpu -> { cpu.addressAbsolute(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_ORA_ABS] = cpu -> { cpu.addressAbsolute(); cpu.ORA(); };
+        table[MOS6502Instructions.INS_ASL_ABS] = cpu -> { cpu.addressAbsolute(); cpu.ASL(); };
+        table[MOS6502Instructions.INS_BPL_REL] = cpu -> { cpu.addressRelative(); cpu.BPL(); };
+        table[MOS6502Instructions.INS_ORA_INY] = cpu -> { cpu.addressIndirectIndexedY(); cpu.ORA(); };
+        table[0x14] = cpu -> { cpu.addressImmediate(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_ORA_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.ORA(); };
+        table[MOS6502Instructions.INS_ASL_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.ASL(); };
+        table[MOS6502Instructions.INS_CLC_IMP] = cpu -> cpu.CLC();
+        table[MOS6502Instructions.INS_ORA_ABY] = cpu -> { cpu.addressAbsoluteY(); cpu.ORA(); };
+        table[0x1A] = cpu -> cpu.NOP();
+        table[0x1C] = cpu -> { cpu.addressAbsolute(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_ORA_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.ORA(); };
+        table[MOS6502Instructions.INS_ASL_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.ASL(); };
+        table[MOS6502Instructions.INS_JSR_ABS] = cpu -> { cpu.addressAbsolute(); cpu.JSR(); };
+        table[MOS6502Instructions.INS_AND_INX] = cpu -> { cpu.addressIndexedIndirectX(); cpu.AND(); };
+        table[MOS6502Instructions.INS_BIT_ZP] = cpu -> { cpu.addressZeroPage(); cpu.BIT(); };
+        table[MOS6502Instructions.INS_AND_ZP] = cpu -> { cpu.addressZeroPage(); cpu.AND(); };
+        table[MOS6502Instructions.INS_ROL_ZP] = cpu -> { cpu.addressZeroPage(); cpu.ROL(); };
+        table[MOS6502Instructions.INS_PLP_IMP] = cpu -> cpu.PLP();
+        table[MOS6502Instructions.INS_AND_IMM] = cpu -> { cpu.addressImmediate(); cpu.AND(); };
+        table[MOS6502Instructions.INS_ROL_ACC] = cpu -> cpu.ROL();
+        table[MOS6502Instructions.INS_BIT_ABS] = cpu -> { cpu.addressAbsolute(); cpu.BIT(); };
+        table[MOS6502Instructions.INS_AND_ABS] = cpu -> { cpu.addressAbsolute(); cpu.AND(); };
+        table[MOS6502Instructions.INS_ROL_ABS] = cpu -> { cpu.addressAbsolute(); cpu.ROL(); };
+        table[MOS6502Instructions.INS_BMI_REL] = cpu -> { cpu.addressRelative(); cpu.BMI(); };
+        table[MOS6502Instructions.INS_AND_INY] = cpu -> { cpu.addressIndirectIndexedY(); cpu.AND(); };
+        table[0x34] = cpu -> { cpu.addressImmediate(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_AND_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.AND(); };
+        table[MOS6502Instructions.INS_ROL_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.ROL(); };
+        table[MOS6502Instructions.INS_SEC_IMP] = cpu -> cpu.SEC();
+        table[MOS6502Instructions.INS_AND_ABY] = cpu -> { cpu.addressAbsoluteY(); cpu.AND(); };
+        table[0x3A] = cpu -> cpu.NOP();
+        table[0x3C] = cpu -> { cpu.addressAbsolute(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_AND_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.AND(); };
+        table[MOS6502Instructions.INS_ROL_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.ROL(); };
+        table[MOS6502Instructions.INS_RTI_IMP] = cpu -> cpu.RTI();
+        table[MOS6502Instructions.INS_EOR_INX] = cpu -> { cpu.addressIndexedIndirectX(); cpu.EOR(); };
+        table[0x44] = cpu -> { cpu.addressImmediate(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_EOR_ZP] = cpu -> { cpu.addressZeroPage(); cpu.EOR(); };
+        table[MOS6502Instructions.INS_LSR_ZP] = cpu -> { cpu.addressZeroPage(); cpu.LSR(); };
+        table[MOS6502Instructions.INS_PHA_IMP] = cpu -> cpu.PHA();
+        table[MOS6502Instructions.INS_EOR_IMM] = cpu -> { cpu.addressImmediate(); cpu.EOR(); };
+        table[MOS6502Instructions.INS_LSR_ACC] = cpu -> cpu.LSR();
+        table[MOS6502Instructions.INS_JMP_ABS] = cpu -> { cpu.addressAbsolute(); cpu.JMP(); };
+        table[MOS6502Instructions.INS_EOR_ABS] = cpu -> { cpu.addressAbsolute(); cpu.EOR(); };
+        table[MOS6502Instructions.INS_LSR_ABS] = cpu -> { cpu.addressAbsolute(); cpu.LSR(); };
+        table[MOS6502Instructions.INS_BVC_REL] = cpu -> { cpu.addressRelative(); cpu.BVC(); };
+        table[MOS6502Instructions.INS_EOR_INY] = cpu -> { cpu.addressIndirectIndexedY(); cpu.EOR(); };
+        table[0x54] = cpu -> { cpu.addressImmediate(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_EOR_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.EOR(); };
+        table[MOS6502Instructions.INS_LSR_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.LSR(); };
+        table[MOS6502Instructions.INS_CLI_IMP] = cpu -> cpu.CLI();
+        table[MOS6502Instructions.INS_EOR_ABY] = cpu -> { cpu.addressAbsoluteY(); cpu.EOR(); };
+        table[0x5A] = cpu -> cpu.NOP();
+        table[0x5C] = cpu -> { cpu.addressAbsolute(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_EOR_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.EOR(); };
+        table[MOS6502Instructions.INS_LSR_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.LSR(); };
+        table[MOS6502Instructions.INS_RTS_IMP] = cpu -> cpu.RTS();
+        table[MOS6502Instructions.INS_ADC_INX] = cpu -> { cpu.addressIndexedIndirectX(); cpu.ADC(); };
+        table[0x64] = cpu -> { cpu.addressImmediate(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_ADC_ZP] = cpu -> { cpu.addressZeroPage(); cpu.ADC(); };
+        table[MOS6502Instructions.INS_ROR_ZP] = cpu -> { cpu.addressZeroPage(); cpu.ROR(); };
+        table[MOS6502Instructions.INS_PLA_IMP] = cpu -> cpu.PLA();
+        table[MOS6502Instructions.INS_ADC_IMM] = cpu -> { cpu.addressImmediate(); cpu.ADC(); };
+        table[MOS6502Instructions.INS_ROR_ACC] = cpu -> cpu.ROR();
+        table[MOS6502Instructions.INS_JMP_IND] = cpu -> { cpu.addressIndirect(); cpu.JMP(); };
+        table[MOS6502Instructions.INS_ADC_ABS] = cpu -> { cpu.addressAbsolute(); cpu.ADC(); };
+        table[MOS6502Instructions.INS_ROR_ABS] = cpu -> { cpu.addressAbsolute(); cpu.ROR(); };
+        table[MOS6502Instructions.INS_BVS_REL] = cpu -> { cpu.addressRelative(); cpu.BVS(); };
+        table[MOS6502Instructions.INS_ADC_INY] = cpu -> { cpu.addressIndirectIndexedY(); cpu.ADC(); };
+        table[0x74] = cpu -> { cpu.addressImmediate(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_ADC_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.ADC(); };
+        table[MOS6502Instructions.INS_ROR_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.ROR(); };
+        table[MOS6502Instructions.INS_SEI_IMP] = cpu -> cpu.SEI();
+        table[MOS6502Instructions.INS_ADC_ABY] = cpu -> { cpu.addressAbsoluteY(); cpu.ADC(); };
+        table[0x7A] = cpu -> cpu.NOP();
+        table[0x7C] = cpu -> { cpu.addressAbsolute(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_ADC_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.ADC(); };
+        table[MOS6502Instructions.INS_ROR_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.ROR(); };
+        table[0x80] = cpu -> { cpu.addressImmediate(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_STA_INX] = cpu -> { cpu.addressIndexedIndirectX(); cpu.STA(); };
+        table[0x82] = cpu -> { cpu.addressImmediate(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_STY_ZP] = cpu -> { cpu.addressZeroPage(); cpu.STY(); };
+        table[MOS6502Instructions.INS_STA_ZP] = cpu -> { cpu.addressZeroPage(); cpu.STA(); };
+        table[MOS6502Instructions.INS_STX_ZP] = cpu -> { cpu.addressZeroPage(); cpu.STX(); };
+        table[MOS6502Instructions.INS_DEY_IMP] = cpu -> cpu.DEY();
+        table[0x8A] = cpu -> cpu.TXA();
+        table[MOS6502Instructions.INS_STY_ABS] = cpu -> { cpu.addressAbsolute(); cpu.STY(); };
+        table[MOS6502Instructions.INS_STA_ABS] = cpu -> { cpu.addressAbsolute(); cpu.STA(); };
+        table[MOS6502Instructions.INS_STX_ABS] = cpu -> { cpu.addressAbsolute(); cpu.STX(); };
+        table[MOS6502Instructions.INS_BCC_REL] = cpu -> { cpu.addressRelative(); cpu.BCC(); };
+        table[MOS6502Instructions.INS_STA_INY] = cpu -> { cpu.addressIndirectIndexedY(); cpu.STA(); };
+        table[MOS6502Instructions.INS_STY_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.STY(); };
+        table[MOS6502Instructions.INS_STA_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.STA(); };
+        table[MOS6502Instructions.INS_STX_ZPY] = cpu -> { cpu.addressZeroPageY(); cpu.STX(); };
+        table[0x98] = cpu -> cpu.TYA();
+        table[MOS6502Instructions.INS_STA_ABY] = cpu -> { cpu.addressAbsoluteY(); cpu.STA(); };
+        table[0x9A] = cpu -> cpu.TXS();
+        table[MOS6502Instructions.INS_STA_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.STA(); };
+        table[MOS6502Instructions.INS_LDY_IMM] = cpu -> { cpu.addressImmediate(); cpu.LDY(); };
+        table[MOS6502Instructions.INS_LDA_INX] = cpu -> { cpu.addressIndexedIndirectX(); cpu.LDA(); };
+        table[MOS6502Instructions.INS_LDX_IMM] = cpu -> { cpu.addressImmediate(); cpu.LDX(); };
+        table[MOS6502Instructions.INS_LDY_ZP] = cpu -> { cpu.addressZeroPage(); cpu.LDY(); };
+        table[MOS6502Instructions.INS_LDA_ZP] = cpu -> { cpu.addressZeroPage(); cpu.LDA(); };
+        table[MOS6502Instructions.INS_LDX_ZP] = cpu -> { cpu.addressZeroPage(); cpu.LDX(); };
+        table[0xA8] = cpu -> cpu.TAY();
+        table[MOS6502Instructions.INS_LDA_IMM] = cpu -> { cpu.addressImmediate(); cpu.LDA(); };
+        table[0xAA] = cpu -> cpu.TAX();
+        table[MOS6502Instructions.INS_LDY_ABS] = cpu -> { cpu.addressAbsolute(); cpu.LDY(); };
+        table[MOS6502Instructions.INS_LDA_ABS] = cpu -> { cpu.addressAbsolute(); cpu.LDA(); };
+        table[MOS6502Instructions.INS_LDX_ABS] = cpu -> { cpu.addressAbsolute(); cpu.LDX(); };
+        table[MOS6502Instructions.INS_BCS_REL] = cpu -> { cpu.addressRelative(); cpu.BCS(); };
+        table[MOS6502Instructions.INS_LDA_INY] = cpu -> { cpu.addressIndirectIndexedY(); cpu.LDA(); };
+        table[MOS6502Instructions.INS_LDY_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.LDY(); };
+        table[MOS6502Instructions.INS_LDA_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.LDA(); };
+        table[MOS6502Instructions.INS_LDX_ZPY] = cpu -> { cpu.addressZeroPageY(); cpu.LDX(); };
+        table[MOS6502Instructions.INS_CLV_IMP] = cpu -> cpu.CLV();
+        table[MOS6502Instructions.INS_LDA_ABY] = cpu -> { cpu.addressAbsoluteY(); cpu.LDA(); };
+        table[0xBA] = cpu -> cpu.TSX();
+        table[MOS6502Instructions.INS_LDY_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.LDY(); };
+        table[MOS6502Instructions.INS_LDA_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.LDA(); };
+        table[MOS6502Instructions.INS_LDX_ABY] = cpu -> { cpu.addressAbsoluteY(); cpu.LDX(); };
+        table[MOS6502Instructions.INS_CPY_IMM] = cpu -> { cpu.addressImmediate(); cpu.CPY(); };
+        table[MOS6502Instructions.INS_CMP_INX] = cpu -> { cpu.addressIndexedIndirectX(); cpu.CMP(); };
+        table[0xC2] = cpu -> { cpu.addressImmediate(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_CPY_ZP] = cpu -> { cpu.addressZeroPage(); cpu.CPY(); };
+        table[MOS6502Instructions.INS_CMP_ZP] = cpu -> { cpu.addressZeroPage(); cpu.CMP(); };
+        table[MOS6502Instructions.INS_DEC_ZP] = cpu -> { cpu.addressZeroPage(); cpu.DEC(); };
+        table[MOS6502Instructions.INS_INY_IMP] = cpu -> cpu.INY();
+        table[MOS6502Instructions.INS_CMP_IMM] = cpu -> { cpu.addressImmediate(); cpu.CMP(); };
+        table[MOS6502Instructions.INS_DEX_IMP] = cpu -> cpu.DEX();
+        table[MOS6502Instructions.INS_CPY_ABS] = cpu -> { cpu.addressAbsolute(); cpu.CPY(); };
+        table[MOS6502Instructions.INS_CMP_ABS] = cpu -> { cpu.addressAbsolute(); cpu.CMP(); };
+        table[MOS6502Instructions.INS_DEC_ABS] = cpu -> { cpu.addressAbsolute(); cpu.DEC(); };
+        table[MOS6502Instructions.INS_BNE_REL] = cpu -> { cpu.addressRelative(); cpu.BNE(); };
+        table[MOS6502Instructions.INS_CMP_INY] = cpu -> { cpu.addressIndirectIndexedY(); cpu.CMP(); };
+        table[0xD4] = cpu -> { cpu.addressImmediate(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_CMP_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.CMP(); };
+        table[MOS6502Instructions.INS_DEC_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.DEC(); };
+        table[MOS6502Instructions.INS_CLD_IMP] = cpu -> cpu.CLD();
+        table[MOS6502Instructions.INS_CMP_ABY] = cpu -> { cpu.addressAbsoluteY(); cpu.CMP(); };
+        table[0xDA] = cpu -> cpu.NOP();
+        table[0xDC] = cpu -> { cpu.addressAbsolute(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_CMP_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.CMP(); };
+        table[MOS6502Instructions.INS_DEC_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.DEC(); };
+        table[MOS6502Instructions.INS_CPX_IMM] = cpu -> { cpu.addressImmediate(); cpu.CPX(); };
+        table[MOS6502Instructions.INS_SBC_INX] = cpu -> { cpu.addressIndexedIndirectX(); cpu.SBC(); };
+        table[0xE2] = cpu -> { cpu.addressImmediate(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_CPX_ZP] = cpu -> { cpu.addressZeroPage(); cpu.CPX(); };
+        table[MOS6502Instructions.INS_SBC_ZP] = cpu -> { cpu.addressZeroPage(); cpu.SBC(); };
+        table[MOS6502Instructions.INS_INC_ZP] = cpu -> { cpu.addressZeroPage(); cpu.INC(); };
+        table[MOS6502Instructions.INS_INX_IMP] = cpu -> cpu.INX();
+        table[MOS6502Instructions.INS_SBC_IMM] = cpu -> { cpu.addressImmediate(); cpu.SBC(); };
+        table[MOS6502Instructions.INS_NOP_IMP] = cpu -> cpu.NOP();
+        table[0xEB] = cpu -> { cpu.addressImmediate(); cpu.SBC(); };
+        table[MOS6502Instructions.INS_CPX_ABS] = cpu -> { cpu.addressAbsolute(); cpu.CPX(); };
+        table[MOS6502Instructions.INS_SBC_ABS] = cpu -> { cpu.addressAbsolute(); cpu.SBC(); };
+        table[MOS6502Instructions.INS_INC_ABS] = cpu -> { cpu.addressAbsolute(); cpu.INC(); };
+        table[MOS6502Instructions.INS_BEQ_REL] = cpu -> { cpu.addressRelative(); cpu.BEQ(); };
+        table[MOS6502Instructions.INS_SBC_INY] = cpu -> { cpu.addressIndirectIndexedY(); cpu.SBC(); };
+        table[0xF4] = cpu -> { cpu.addressImmediate(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_SBC_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.SBC(); };
+        table[MOS6502Instructions.INS_INC_ZPX] = cpu -> { cpu.addressZeroPageX(); cpu.INC(); };
+        table[MOS6502Instructions.INS_SED_IMP] = cpu -> cpu.SED();
+        table[MOS6502Instructions.INS_SBC_ABY] = cpu -> { cpu.addressAbsoluteY(); cpu.SBC(); };
+        table[0xFA] = cpu -> cpu.NOP();
+        table[0xFC] = cpu -> { cpu.addressAbsolute(); cpu.NOP(); };
+        table[MOS6502Instructions.INS_SBC_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.SBC(); };
+        table[MOS6502Instructions.INS_INC_ABX] = cpu -> { cpu.addressAbsoluteX(); cpu.INC(); };
+
+        return table;
+    }
+}
@@ -3,7 +3,9 @@ package com.rosscon.llce.components.processors;
 import com.rosscon.llce.components.busses.IntegerBus;
 import com.rosscon.llce.components.clocks.Clock;
 import com.rosscon.llce.components.clocks.ClockListener;
+import com.rosscon.llce.components.clocks.Scheduler;
 import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.memory.MemoryDevice;
 
 public abstract class Processor implements ClockListener  {
 
@@ -28,6 +30,26 @@ public abstract class Processor implements ClockListener  {
      */
     protected RWFlag flgRW;
 
+    /**
+     * Optional device used to access memory directly instead of the busses and R/W flag
+     */
+    protected MemoryDevice memoryDevice;
+
+    /**
+     * Number of cycles executed through run
+     */
+    protected long cycleCount;
+
+    /**
+     * Scheduler running the processor in batches, null when driven one tick at a time by a clock
+     */
+    protected Scheduler scheduler;
+
+    /**
+     * Cycles the processor must sit out, stolen by another component such as a DMA controller
+     */
+    protected int stallCycles;
+
     /**
      * Default constructor connects the minimum requirements to communicate with busses
      * @param clock Clock
@@ -43,4 +65,81 @@ public abstract class Processor implements ClockListener  {
 
         this.clock.addListener(this);
     }
+
+    /**
+     * Attaches a device for the processor to read and write memory directly, bypassing the
+     * address bus, data bus and R/W flag. Passing null returns to using the busses.
+     * @param memoryDevice Device to access memory through
+     */
+    public void setMemoryDevice(MemoryDevice memoryDevice){
+        this.memoryDevice = memoryDevice;
+    }
+
+    /**
+     * Runs the processor for a number of cycles without waiting on the clock. Implementations may return
+     * early when the processor can not continue until another component has run, for example when halted.
+     * @param cycles maximum number of cycles to run
+     * @return number of cycles actually run
+     * @throws ProcessorException Thrown when a cycle fails to execute
+     */
+    public int run(int cycles) throws ProcessorException {
+        for (int i = 0; i < cycles; i++){
+            this.cycleCount++;
+            onTick();
+        }
+        return cycles;
+    }
+
+    /**
+     * Number of cycles until the processor next does something that another component can observe,
+     * for example raising an interrupt. Other processors can be run ahead by up to this many cycles.
+     * @return number of cycles until the next event, Integer.MAX_VALUE if there are none
+     */
+    public int cyclesUntilNextEvent(){
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Get the number of cycles executed through run
+     * @return number of cycles
+     */
+    public long getCycleCount(){
+        return this.cycleCount;
+    }
+
+    /**
+     * Stalls the processor for a number of cycles, used when another component takes over the bus. The
+     * processor sits the cycles out once its current operation completes, processors that can not be stalled
+     * ignore them.
+     * @param cycles number of cycles to stall for
+     */
+    public void stall(int cycles){
+        this.stallCycles += cycles;
+    }
+
+    /**
+     * Get the number of cycles the processor still has to sit out
+     * @return number of cycles
+     */
+    public int getStallCycles(){
+        return this.stallCycles;
+    }
+
+    /**
+     * Attaches the scheduler that is running this processor in batches
+     * @param scheduler scheduler, null when driven one tick at a time
+     */
+    public void setScheduler(Scheduler scheduler){
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Brings the processor up to the current point in time before its state is accessed by another
+     * component. Does nothing unless the processor is being run in batches by a scheduler.
+     * @throws ProcessorException Thrown when the processor fails while catching up
+     */
+    protected void synchronise() throws ProcessorException {
+        if (this.scheduler != null)
+            this.scheduler.synchronise(this);
+    }
 }
@@ -9,13 +9,18 @@ import com.rosscon.llce.components.cartridges.NES.NESCartridge;
 import com.rosscon.llce.components.cartridges.NES.NESCartridgeFactory;
 import com.rosscon.llce.components.clocks.Clock;
 import com.rosscon.llce.components.clocks.ClockThreaded;
+import com.rosscon.llce.components.clocks.Scheduler;
 import com.rosscon.llce.components.clocks.dividers.Divider;
 import com.rosscon.llce.components.controllers.NES.NESControllerKeyboard;
+import com.rosscon.llce.components.dma.DMAController;
+import com.rosscon.llce.components.flags.AddressDecodedRWFlag;
 import com.rosscon.llce.components.flags.HaltFlag;
 import com.rosscon.llce.components.flags.NMIFlag;
 import com.rosscon.llce.components.flags.RWFlag;
 import com.rosscon.llce.components.flags.FlagException;
 import com.rosscon.llce.components.graphics.NES2C02.NES2C02;
+import com.rosscon.llce.components.graphics.NES2C02.NES2C02Constants;
+import com.rosscon.llce.components.graphics.NES2C02.NES2C02StatusFlags;
 import com.rosscon.llce.components.mappers.MirroredMapper;
 import com.rosscon.llce.components.memory.RandomAccessMemory;
 import com.rosscon.llce.components.memory.MemoryException;
@@ -86,12 +91,18 @@ import java.io.IOException;
  */
 public class NES extends Computer {
 
+    /**
+     * NTSC timing, the master clock runs at 21.477272MHz and the PPU draws 60.0988 frames per second
+     */
+    private static final long MASTER_CYCLES_PER_FRAME = 357366;
+    private static final double FRAME_RATE = 60.0988;
+
     /**
      * Main Busses and flags
      */
     private IntegerBus cpuAddressBus;
     private IntegerBus cpuDataBus;
-    private RWFlag rwRWFlagCpu;
+    private AddressDecodedRWFlag rwRWFlagCpu;
 
     /**
      * Internal RAM and mapper
@@ -105,7 +116,7 @@ public class NES extends Computer {
     /**
      * PPU busses and flags
      */
-    private RWFlag rwRWFlagPPU;
+    private AddressDecodedRWFlag rwRWFlagPPU;
     private IntegerBus ppuAddressBus;
     private IntegerBus ppuDataBus;
 
@@ -131,6 +142,11 @@ public class NES extends Computer {
 
     private NES2C02 ppu;
 
+    /**
+     * DMA
+     */
+    private DMAController dmaController;
+
     private NESControllerKeyboard controller;
 
     public NES () throws InvalidBusWidthException, IOException, CartridgeException, ProcessorException, MemoryException, InvalidBusDataException, FlagException {
@@ -140,7 +156,7 @@ public class NES extends Computer {
          */
         this.cpuAddressBus = new IntegerBus(16);
         this.cpuDataBus = new IntegerBus(8);
-        this.rwRWFlagCpu = new RWFlag();
+        this.rwRWFlagCpu = new AddressDecodedRWFlag(this.cpuAddressBus, this.cpuDataBus);
 
         /*
          * Internal RAM and mirroring mapper
@@ -160,7 +176,7 @@ public class NES extends Computer {
          */
         this.ppuAddressBus = new IntegerBus(16);
         this.ppuDataBus = new IntegerBus(8);
-        this.rwRWFlagPPU = new RWFlag();
+        this.rwRWFlagPPU = new AddressDecodedRWFlag(this.ppuAddressBus, this.ppuDataBus);
 
 
         /*
@@ -218,7 +234,7 @@ public class NES extends Computer {
          * Lastly add the CPU and PPU as they call reset() on start
          */
         //this.masterClock = new ClockThreaded(10);
-        this.masterClock = new ClockThreaded(10);
+        this.masterClock = new Scheduler(MASTER_CYCLES_PER_FRAME, FRAME_RATE);
         Clock clock = new Clock();
 
         this.cpuDivider = new Divider(12, masterClock);
@@ -239,6 +255,32 @@ public class NES extends Computer {
 
         controller = new NESControllerKeyboard(this.cpuAddressBus, this.cpuDataBus, this.rwRWFlagCpu, 1);
 
+        /*
+         * Everything is wired up, let the CPU and PPU access memory directly through the decoded flags
+         */
+        this.cpu.setMemoryDevice(this.rwRWFlagCpu);
+        this.cpu.setLocalPages(0x00, 0x1F, this.internalRAM.getBackingArray());
+
+        /*
+         * OAM DMA copies whole pages in one step, usually from internal RAM, and stalls the CPU for the transfer
+         */
+        this.dmaController = new DMAController(this.cpu, this.rwRWFlagCpu);
+        this.dmaController.mapPages(0x00, 0x1F, this.internalRAM.getBackingArray());
+        this.ppu.setDMAController(this.dmaController);
+        this.cpu.enableInstructionCache(0x6000, 0xFFFF);
+        this.cpu.enableBlockCompilation();
+
+        /*
+         * Games wait for the next frame polling RAM set by the NMI handler or the vertical blank bit of PPUSTATUS,
+         * neither can change until the scheduler stops the CPU for the PPU's next event so idle loops can be skipped
+         */
+        this.cpu.addPolledAddresses(0x0000, 0x1FFF, 0xFF);
+        for (int address = NES2C02Constants.REG_PPUSTATUS; address <= NES2C02Constants.REG_MAXIMUM_ADDRESS; address += 8)
+            this.cpu.addPolledAddresses(address, address, NES2C02StatusFlags.VBLANK_STARTED);
+        this.ppu.setMemoryDevice(this.rwRWFlagCpu);
+        this.ppu.setPpuMemoryDevice(this.rwRWFlagPPU);
+        this.ppu.setPatternTableCache(this.cartridge.getPatternTableCache());
+
         Thread thread = new Thread(this.masterClock);
         thread.start();
 
@@ -257,4 +299,20 @@ public class NES extends Computer {
         return this.ppu;
     }
 
+    /**
+     * Sets how many frames are emulated per frame of real time, 1 = real time
+     * @param speedMultiplier fast forward multiplier
+     */
+    public void setSpeedMultiplier(int speedMultiplier){
+        this.masterClock.setSpeedMultiplier(speedMultiplier);
+    }
+
+    /**
+     * Pauses or resumes emulation, while paused the emulation thread uses no CPU time
+     * @param paused true = pause, false = resume
+     */
+    public void setPaused(boolean paused){
+        this.masterClock.setPaused(paused);
+    }
+
 }
@@ -2,13 +2,21 @@ package com.rosscon.llce.gui;
 
 import com.rosscon.llce.components.graphics.NES2C02.NES2C02;
 import com.rosscon.llce.components.graphics.NES2C02.NES2C02Constants;
+import com.rosscon.llce.components.graphics.FrameScaler;
+import com.rosscon.llce.components.graphics.ScalingFilter;
+import com.rosscon.llce.components.graphics.TripleBuffer;
 import javafx.animation.AnimationTimer;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.WritableImage;
 
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.util.ResourceBundle;
 
 public class NESGraphicsController implements Initializable {
@@ -18,6 +26,21 @@ public class NESGraphicsController implements Initializable {
 
     private NES2C02 gpu;
 
+    /**
+     * Scales frames off the FX thread before they are shown
+     */
+    private FrameScaler scaler;
+
+    /**
+     * Pixels of the image shown, only changed inside PixelBuffer.updateBuffer
+     */
+    private IntBuffer pixels;
+
+    /**
+     * Pixel buffer the image is backed by
+     */
+    private PixelBuffer<IntBuffer> pixelBuffer;
+
     public void setGpu(NES2C02 gpu){
         this.gpu = gpu;
     }
@@ -25,42 +48,44 @@ public class NESGraphicsController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
 
-        int screenScaling = 1;
+        int screenScaling = 3;
 
-        WritableImage image = new WritableImage(256 * screenScaling, 240 * screenScaling);
-        imageView.setImage(image);
+        this.scaler = new FrameScaler(NES2C02Constants.WIDTH_VISIBLE_PIXELS, NES2C02Constants.HEIGHT_VISIBLE_SCANLINES,
+                ScalingFilter.SCALE3X, screenScaling);
 
-        new AnimationTimer() {
+        int width = this.scaler.getScaledWidth();
+        int height = this.scaler.getScaledHeight();
+
+        // Frames are fully opaque so ARGB and premultiplied ARGB are the same
+        this.pixels = ByteBuffer.allocateDirect(width * height * Integer.BYTES)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+        this.pixelBuffer = new PixelBuffer<>(width, height, this.pixels, PixelFormat.getIntArgbPreInstance());
+        imageView.setImage(new WritableImage(this.pixelBuffer));
 
-            /*NES console;
-            {
-                try {
-                    console = new NES();
-                    imageView.getParent().getParent().getParent().getScene().setOnKeyPressed(console.getKeyPressHandler());
-                    imageView.getParent().getParent().getParent().getScene().setOnKeyReleased(console.getKeyReleaseHandler());
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }*/
+        new AnimationTimer() {
 
             @Override
             public void handle(long l) {
-                if (gpu != null) {
-                    int[] screenBuffer = gpu.getScreenBuffer();
-                    for (int x = 0; x < NES2C02Constants.WIDTH_VISIBLE_PIXELS; x++) {
-                        for (int y = 0; y < NES2C02Constants.HEIGHT_VISIBLE_SCANLINES; y++) {
-
-                            // TODO find a fast scaling algorithm
-                            //for (int dx = x * screenScaling; dx < (x * screenScaling) + screenScaling; dx++){
-                            //    for (int dy = y * screenScaling; dy < (y * screenScaling) + screenScaling; dy++){
-                            //        image.getPixelWriter().setArgb(dx, dy, screenBuffer[(y * NES2C02Constants.WIDTH_VISIBLE_PIXELS) + x]);
-                            //    }
-                            //}
-
-                            image.getPixelWriter().setArgb(x, y, screenBuffer[(y * NES2C02Constants.WIDTH_VISIBLE_PIXELS) + x]);
-                        }
-                    }
-                }
+                if (gpu == null)
+                    return;
+
+                // The PPU's front frame is only moved on once the scaler has finished reading it
+                TripleBuffer<int[]> frames = gpu.getFrameBuffers();
+                if (!scaler.isBusy() && frames.update())
+                    scaler.submit(frames.getFrontBuffer());
+
+                // Nothing to upload when no frame has been scaled since the last pulse
+                TripleBuffer<int[]> scaledFrames = scaler.getScaledFrames();
+                if (!scaledFrames.update())
+                    return;
+
+                int[] frame = scaledFrames.getFrontBuffer();
+
+                pixelBuffer.updateBuffer(buffer -> {
+                    pixels.clear();
+                    pixels.put(frame);
+                    return null;
+                });
             }
         }.start();
 
@@ -0,0 +1,96 @@
+package com.rosscon.llce.components.cartridges.NES;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusDataException;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.cartridges.CartridgeException;
+import com.rosscon.llce.components.flags.FlagException;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.memory.MemoryException;
+import com.rosscon.llce.components.memory.ReadOnlyMemory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class PatternTableCacheTest {
+
+    IntegerBus ppuAddressBus;
+    IntegerBus ppuDataBus;
+    RWFlag ppuRwFlag;
+
+    @Before
+    public void reset() throws InvalidBusWidthException {
+        ppuAddressBus = new IntegerBus(16);
+        ppuDataBus = new IntegerBus(8);
+        ppuRwFlag = new RWFlag();
+    }
+
+    @Test
+    @DisplayName("Pattern bytes should be decoded to 2 bits per pixel with the leftmost pixel highest")
+    public void testDecode() {
+        assertEquals(0b0100000000000001, PatternTableCache.decode(0x0000, 0b10000001, false));
+        assertEquals(0b1000000000000010, PatternTableCache.decode(0x0008, 0b10000001, false));
+        assertEquals(0b0001000000000000, PatternTableCache.decode(0x0010, 0b01000000, false));
+        assertEquals(0b0000000000000100, PatternTableCache.decode(0x0010, 0b01000000, true));
+        assertEquals(0b0000000000001000, PatternTableCache.decode(0x1FF8, 0b01000000, true));
+    }
+
+    @Test
+    @DisplayName("Decoded planes of a tile row should combine into its pixels")
+    public void testCacheFromROM() throws MemoryException {
+
+        byte[] chr = new byte[PatternTableCache.PATTERN_TABLE_SIZE];
+        chr[0x0123] = (byte) 0b11110000;
+        chr[0x012B] = (byte) 0b00111100;
+
+        PatternTableCache cache = new PatternTableCache(
+                new ReadOnlyMemory(ppuAddressBus, ppuDataBus, ppuRwFlag, 0x0000, 0x1FFF, chr));
+
+        // Pixels 1, 1, 3, 3, 2, 2, 0, 0
+        assertEquals(0b0101111110100000, cache.getPlane(0x0123) | cache.getPlane(0x012B));
+        assertEquals(0b0000101011110101, cache.getFlippedPlane(0x0123) | cache.getFlippedPlane(0x012B));
+        assertEquals(0, cache.getPlane(0x0124));
+    }
+
+    @Test
+    @DisplayName("Writing CHR RAM through the busses or directly should invalidate the tile written")
+    public void testCHRRAMWritesInvalidate() throws MemoryException, InvalidBusDataException, FlagException {
+
+        CharacterRandomAccessMemory chrRam = new CharacterRandomAccessMemory(ppuAddressBus, ppuDataBus, ppuRwFlag);
+        PatternTableCache cache = new PatternTableCache(chrRam);
+        chrRam.setPatternTableCache(cache);
+
+        assertEquals(0, cache.getPlane(0x1000));
+
+        ppuAddressBus.writeDataToBus(0x1000);
+        ppuDataBus.writeDataToBus(0x80);
+        ppuRwFlag.setFlagValue(RWFlag.WRITE);
+        assertEquals(0x4000, cache.getPlane(0x1000));
+
+        chrRam.write(0x1008, 0x01);
+        assertEquals(0x0002, cache.getPlane(0x1008));
+        assertEquals(0x8000, cache.getFlippedPlane(0x1008));
+    }
+
+    @Test
+    @DisplayName("Cartridges without CHR ROM should provide a cache of their CHR RAM")
+    public void testCartridgeWithCHRRAM() throws CartridgeException, InvalidBusWidthException,
+            InvalidBusDataException, FlagException {
+
+        NESCartridge_001 cart = new NESCartridge_001(new IntegerBus(16), new IntegerBus(8), new RWFlag(),
+                ppuAddressBus, ppuDataBus, ppuRwFlag, new byte[16384], new byte[]{}, new byte[]{},
+                NESNametableMirroring.HORIZONTAL);
+
+        PatternTableCache cache = cart.getPatternTableCache();
+        assertNotNull(cache);
+        assertEquals(0, cache.getPlane(0x0F00));
+
+        ppuAddressBus.writeDataToBus(0x0F00);
+        ppuDataBus.writeDataToBus(0xFF);
+        ppuRwFlag.setFlagValue(RWFlag.WRITE);
+        assertEquals(0x5555, cache.getPlane(0x0F00));
+    }
+}
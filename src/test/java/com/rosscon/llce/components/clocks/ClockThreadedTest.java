@@ -0,0 +1,72 @@
+package com.rosscon.llce.components.clocks;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests pacing, pausing and stopping a threaded clock
+ */
+public class ClockThreadedTest {
+
+    ClockThreaded clock;
+    AtomicLong ticks;
+    Thread thread;
+
+    @Before
+    public void reset(){
+        clock = new ClockThreaded(100, 50.0);
+        ticks = new AtomicLong();
+        clock.addListener(ticks::incrementAndGet);
+        thread = new Thread(clock);
+    }
+
+    @Test
+    @DisplayName("Paced clock should run whole frames and stop when asked")
+    public void testPacedWholeFrames() throws InterruptedException {
+
+        thread.start();
+        Thread.sleep(100);
+        clock.stop();
+        thread.join(1000);
+
+        assertTrue(!thread.isAlive());
+        assertTrue(ticks.get() > 0);
+        assertEquals(0, ticks.get() % 100);
+    }
+
+    @Test
+    @DisplayName("Paced clock should not run faster than its frame rate")
+    public void testPacedFrameRate() throws InterruptedException {
+
+        thread.start();
+        Thread.sleep(200);
+        clock.stop();
+        thread.join(1000);
+
+        // 50 frames a second for 200ms is 10 frames, allow for the first frame starting immediately
+        assertTrue(ticks.get() <= 12 * 100);
+    }
+
+    @Test
+    @DisplayName("Paused clock should not tick until resumed")
+    public void testPaused() throws InterruptedException {
+
+        clock.setPaused(true);
+        thread.start();
+        Thread.sleep(100);
+        assertEquals(0, ticks.get());
+
+        clock.setPaused(false);
+        Thread.sleep(100);
+        clock.stop();
+        thread.join(1000);
+
+        assertTrue(ticks.get() > 0);
+    }
+}
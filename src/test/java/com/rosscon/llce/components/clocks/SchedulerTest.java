@@ -0,0 +1,102 @@
+package com.rosscon.llce.components.clocks;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.clocks.dividers.Divider;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.processors.Processor;
+import com.rosscon.llce.components.processors.ProcessorException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the scheduler keeps processors on different dividers in step
+ */
+public class SchedulerTest {
+
+    /**
+     * Processor that counts ticks and can look at another processor part way through a tick
+     */
+    static class CountingProcessor extends Processor {
+
+        int ticks;
+        CountingProcessor watched;
+        int watchOnTick;
+        int watchedTicksSeen = -1;
+        int eventOnTick;
+        CountingProcessor signalled;
+        int signalledTicksSeen = -1;
+
+        CountingProcessor(Clock clock) throws InvalidBusWidthException {
+            super(clock, new IntegerBus(16), new IntegerBus(8), new RWFlag());
+        }
+
+        @Override
+        public void onTick() throws ProcessorException {
+            ticks++;
+            if (signalled != null && ticks == eventOnTick)
+                signalledTicksSeen = signalled.ticks;
+            if (watched != null && ticks == watchOnTick){
+                watched.synchronise();
+                watchedTicksSeen = watched.ticks;
+            }
+        }
+
+        @Override
+        public int cyclesUntilNextEvent(){
+            return eventOnTick > ticks ? eventOnTick - ticks : Integer.MAX_VALUE;
+        }
+    }
+
+    Scheduler scheduler;
+    CountingProcessor cpu;
+    CountingProcessor ppu;
+
+    @Before
+    public void reset() throws InvalidBusWidthException {
+        scheduler = new Scheduler(0);
+        cpu = new CountingProcessor(new Divider(12, scheduler));
+        ppu = new CountingProcessor(new Divider(4, scheduler));
+    }
+
+    @Test
+    @DisplayName("Scheduler should run every processor the same number of cycles as ticking one at a time")
+    public void testSchedulerCycleCounts() throws ClockException {
+
+        scheduler.tick(3);
+        scheduler.tick(12 * 1000 + 7);
+
+        assertEquals(1000, cpu.ticks);
+        assertEquals(3002, ppu.ticks);
+    }
+
+    @Test
+    @DisplayName("Scheduler should bring a follower up to the lead when it is accessed")
+    public void testSchedulerSynchronise() throws ClockException {
+
+        cpu.watched = ppu;
+        cpu.watchOnTick = 500;
+
+        scheduler.tick(12 * 1000);
+
+        // The CPU divider ticks first so the PPU has not run its third cycle of the 500th CPU cycle
+        assertEquals(3 * 500 - 1, cpu.watchedTicksSeen);
+        assertEquals(3000, ppu.ticks);
+    }
+
+    @Test
+    @DisplayName("Scheduler should run a follower through its event before the lead could observe it")
+    public void testSchedulerStopsAtEvents() throws ClockException {
+
+        ppu.eventOnTick = 1234;
+        ppu.signalled = cpu;
+
+        scheduler.tick(12 * 1000);
+
+        // PPU cycle 1234 happens on master tick 4936, after CPU cycle 411 and before CPU cycle 412
+        assertEquals(411, ppu.signalledTicksSeen);
+    }
+}
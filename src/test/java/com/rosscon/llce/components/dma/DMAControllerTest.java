@@ -0,0 +1,126 @@
+package com.rosscon.llce.components.dma;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.clocks.Clock;
+import com.rosscon.llce.components.clocks.ClockException;
+import com.rosscon.llce.components.flags.HaltFlag;
+import com.rosscon.llce.components.flags.NMIFlag;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.memory.MemoryException;
+import com.rosscon.llce.components.memory.RandomAccessMemory;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502Instructions;
+import com.rosscon.llce.components.processors.ProcessorException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DMAControllerTest {
+
+    Clock clock;
+    RandomAccessMemory ram;
+    MOS6502 cpu;
+    byte[] store;
+    DMAController dma;
+
+    @Before
+    public void reset() throws InvalidBusWidthException, MemoryException, ProcessorException {
+
+        IntegerBus addressBus = new IntegerBus(16);
+        IntegerBus dataBus = new IntegerBus(8);
+        RWFlag rwFlag = new RWFlag();
+        clock = new Clock();
+        ram = new RandomAccessMemory(addressBus, dataBus, rwFlag);
+
+        /*
+         * 0x0200 LDA #$42
+         */
+        ram.write(0x0200, MOS6502Instructions.INS_LDA_IMM);
+        ram.write(0x0201, 0x42);
+        ram.write(0xFFFC, 0x00);
+        ram.write(0xFFFD, 0x02);
+
+        cpu = new MOS6502(clock, addressBus, dataBus, rwFlag, new NMIFlag(), new HaltFlag());
+
+        // Pages 0x00 - 0x07 mirror two pages of memory, everything else is read through the RAM
+        store = new byte[0x200];
+        for (int i = 0; i < store.length; i++)
+            store[i] = (byte) i;
+        for (int i = 0; i < 0x100; i++)
+            ram.write(0x0800 + i, 0xFF - i);
+
+        dma = new DMAController(cpu, ram);
+        dma.mapPages(0x00, 0x07, store);
+    }
+
+    @Test
+    @DisplayName("Mapped pages should be copied from their store and mirror when the range is larger")
+    public void testCopyMappedPages() throws MemoryException {
+
+        byte[] destination = new byte[0x100];
+        dma.copy(0x0300, destination, 0, destination.length);
+        for (int i = 0; i < destination.length; i++)
+            assertEquals((byte) i, destination[i]);
+
+        assertEquals(0x01, dma.read(0x0301));
+        assertEquals(0x00, dma.getStolenCycles());
+    }
+
+    @Test
+    @DisplayName("Copies crossing into unmapped pages should read them through the device")
+    public void testCopyUnmappedPages() throws MemoryException {
+
+        byte[] destination = new byte[0x100];
+        dma.copy(0x0780, destination, 0, destination.length);
+        for (int i = 0; i < 0x80; i++)
+            assertEquals((byte) (0x80 + i), destination[i]);
+        for (int i = 0; i < 0x80; i++)
+            assertEquals((byte) (0xFF - i), destination[0x80 + i]);
+
+        assertEquals(0xFF, dma.read(0x0800));
+    }
+
+    @Test
+    @DisplayName("Invalid pages and unmapped sources without a device should throw")
+    public void testInvalid() {
+        assertThrows(MemoryException.class, () -> dma.mapPages(0x00, 0x01, new byte[0x80]));
+        assertThrows(MemoryException.class, () -> dma.mapPages(0x02, 0x01, store));
+        assertThrows(MemoryException.class, () -> dma.mapPages(0x00, 0x100, store));
+
+        DMAController unmapped = new DMAController(cpu, null);
+        assertThrows(MemoryException.class, () -> unmapped.copy(0x0800, new byte[0x10], 0, 0x10));
+    }
+
+    @Test
+    @DisplayName("Stolen cycles should be sat out before the next instruction one tick at a time")
+    public void testStealTicked() throws ClockException {
+
+        dma.steal(513);
+        assertEquals(513, dma.getStolenCycles());
+
+        clock.tick(513);
+        assertEquals(0, cpu.getStallCycles());
+        assertEquals(0x00, cpu.getRegACC());
+
+        clock.tick(2);
+        assertEquals(0x42, cpu.getRegACC());
+    }
+
+    @Test
+    @DisplayName("Stolen cycles should be sat out in one step when run in batches")
+    public void testStealRun() throws ProcessorException {
+
+        dma.steal(514);
+        assertEquals(514, cpu.run(514));
+        assertEquals(0, cpu.getStallCycles());
+        assertEquals(514, cpu.getCycleCount());
+        assertEquals(0x00, cpu.getRegACC());
+
+        cpu.run(2);
+        assertEquals(0x42, cpu.getRegACC());
+    }
+}
@@ -0,0 +1,137 @@
+package com.rosscon.llce.components.flags;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusDataException;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.mappers.MirroredMapper;
+import com.rosscon.llce.components.memory.MemoryException;
+import com.rosscon.llce.components.memory.RandomAccessMemory;
+import com.rosscon.llce.components.memory.ReadOnlyMemory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the page table routing of an address decoded RW flag
+ */
+public class AddressDecodedRWFlagTest {
+
+    IntegerBus addressBus;
+    IntegerBus dataBus;
+    AddressDecodedRWFlag rwFlag;
+
+    private RandomAccessMemory ram;
+    private ReadOnlyMemory rom;
+    private MirroredMapper mapper;
+
+    /**
+     * Counts the number of times it has been notified
+     */
+    private int notifications;
+
+    @Before
+    public void reset() throws InvalidBusWidthException, MemoryException {
+
+        this.addressBus = new IntegerBus(16);
+        this.dataBus = new IntegerBus(8);
+        this.rwFlag = new AddressDecodedRWFlag(this.addressBus, this.dataBus);
+
+        this.ram = new RandomAccessMemory(new IntegerBus(16), new IntegerBus(8), new RWFlag(), 0x0000, 0x07FF);
+        this.mapper = new MirroredMapper(this.addressBus, this.dataBus, this.rwFlag, this.ram,
+                0x0000, 0x1FFF, 0x07FF);
+
+        this.rom = new ReadOnlyMemory(this.addressBus, this.dataBus, this.rwFlag, 0x8000, 0x8003,
+                new int[]{ 0x11, 0x22, 0x33, 0x44 });
+
+        this.notifications = 0;
+    }
+
+    @Test
+    @DisplayName("Accesses should be routed to the device owning the page")
+    public void testRoutesToOwningDevice() throws InvalidBusDataException, FlagException {
+
+        addressBus.writeDataToBus(0x0802);
+        dataBus.writeDataToBus(0x5A);
+        rwFlag.setFlagValue(RWFlag.WRITE);
+
+        dataBus.writeDataToBus(0x00);
+        addressBus.writeDataToBus(0x0002);
+        rwFlag.setFlagValue(RWFlag.READ);
+        assertEquals(0x5A, dataBus.readDataFromBus());
+
+        addressBus.writeDataToBus(0x8002);
+        rwFlag.setFlagValue(RWFlag.READ);
+        assertEquals(0x33, dataBus.readDataFromBus());
+    }
+
+    @Test
+    @DisplayName("Devices sharing a page should only be notified for addresses in their range")
+    public void testSharedPageRespectsRange() throws InvalidBusDataException, FlagException {
+
+        rwFlag.addListener(flag -> notifications++, 0x8010, 0x8010);
+
+        addressBus.writeDataToBus(0x8001);
+        rwFlag.setFlagValue(RWFlag.READ);
+        assertEquals(0x22, dataBus.readDataFromBus());
+        assertEquals(0, notifications);
+
+        addressBus.writeDataToBus(0x8010);
+        rwFlag.setFlagValue(RWFlag.READ);
+        assertEquals(1, notifications);
+    }
+
+    @Test
+    @DisplayName("Listeners added without a range should be notified of every access")
+    public void testUnrangedListenerNotified() throws InvalidBusDataException, FlagException {
+
+        rwFlag.addListener(flag -> notifications++);
+
+        addressBus.writeDataToBus(0x4000);
+        rwFlag.setFlagValue(RWFlag.READ);
+        addressBus.writeDataToBus(0x0000);
+        rwFlag.setFlagValue(RWFlag.READ);
+
+        assertEquals(2, notifications);
+    }
+
+    @Test
+    @DisplayName("Adding a range for an unranged listener should stop it receiving every access")
+    public void testRangeReplacesBroadcast() throws InvalidBusDataException, FlagException {
+
+        FlagListener listener = flag -> notifications++;
+        rwFlag.addListener(listener);
+        rwFlag.addListener(listener, 0x4016, 0x4016);
+
+        addressBus.writeDataToBus(0x4000);
+        rwFlag.setFlagValue(RWFlag.READ);
+        assertEquals(0, notifications);
+
+        addressBus.writeDataToBus(0x4016);
+        rwFlag.setFlagValue(RWFlag.READ);
+        assertEquals(1, notifications);
+    }
+
+    @Test
+    @DisplayName("Direct accesses should reach the owning device without using the busses")
+    public void testDirectAccess() throws MemoryException {
+
+        rwFlag.write(0x1001, 0x77);
+        assertEquals(0x77, rwFlag.read(0x0001));
+        assertEquals(0x44, rwFlag.read(0x8003));
+        assertEquals(0x00, rwFlag.read(0x4000));
+        assertEquals(0x00, addressBus.readDataFromBus());
+    }
+
+    @Test
+    @DisplayName("Direct accesses should fall back to the busses for listeners that are not memory devices")
+    public void testDirectAccessFallsBack() throws MemoryException {
+
+        rwFlag.addListener(flag -> notifications++, 0x4016, 0x4016);
+
+        rwFlag.read(0x4016);
+        rwFlag.write(0x4016, 0x01);
+        assertEquals(2, notifications);
+    }
+}
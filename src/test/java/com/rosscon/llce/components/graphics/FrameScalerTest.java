@@ -0,0 +1,127 @@
+package com.rosscon.llce.components.graphics;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FrameScalerTest {
+
+    private static final int W = 0xFFFFFFFF;
+    private static final int K = 0xFF000000;
+
+    private static final int WIDTH = 256;
+    private static final int HEIGHT = 240;
+
+    int[] frame;
+
+    @Before
+    public void reset() {
+        // Blocks of a few colours so the filters find edges to smooth
+        Random random = new Random(42);
+        frame = new int[WIDTH * HEIGHT];
+        for (int i = 0; i < frame.length; i++)
+            frame[i] = 0xFF000000 | (random.nextInt(3) * 0x404040);
+    }
+
+    private int[] scale(FrameScaler scaler, int[] source){
+        int[] destination = new int[scaler.getScaledWidth() * scaler.getScaledHeight()];
+        scaler.scale(source, destination);
+        return destination;
+    }
+
+    @Test
+    @DisplayName("Nearest neighbour scaling should repeat each pixel across and down")
+    public void testNearest() {
+
+        FrameScaler scaler = new FrameScaler(WIDTH, HEIGHT, ScalingFilter.NEAREST, 4);
+        int[] scaled = scale(scaler, frame);
+
+        assertEquals(WIDTH * 4, scaler.getScaledWidth());
+        assertEquals(HEIGHT * 4, scaler.getScaledHeight());
+        for (int y = 0; y < HEIGHT * 4; y++){
+            for (int x = 0; x < WIDTH * 4; x++)
+                assertEquals(frame[(y / 4) * WIDTH + x / 4], scaled[y * WIDTH * 4 + x]);
+        }
+    }
+
+    @Test
+    @DisplayName("Scale2x should round off a diagonal edge")
+    public void testScale2x() {
+
+        int[] source = new int[]{
+                W, W, K,
+                W, K, K,
+                K, K, K
+        };
+
+        FrameScaler scaler = new FrameScaler(3, 3, ScalingFilter.SCALE2X, 1);
+        int[] scaled = scale(scaler, source);
+
+        assertEquals(6, scaler.getScaledWidth());
+        // Centre pixel, only the corner facing the white pixels is filled in
+        assertEquals(W, scaled[14]);
+        assertEquals(K, scaled[15]);
+        assertEquals(K, scaled[20]);
+        assertEquals(K, scaled[21]);
+    }
+
+    @Test
+    @DisplayName("Scale3x should round off a diagonal edge and leave single pixels square")
+    public void testScale3x() {
+
+        int[] source = new int[]{
+                W, W, K, K,
+                W, K, K, K,
+                K, K, W, K,
+                K, K, K, K
+        };
+
+        FrameScaler scaler = new FrameScaler(4, 4, ScalingFilter.SCALE3X, 1);
+        int[] scaled = scale(scaler, source);
+        int width = scaler.getScaledWidth();
+
+        // Pixel (1, 1), the corner facing the white pixels and the centre of its edges are filled in
+        int corner = 3 * width + 3;
+        assertEquals(W, scaled[corner]);
+        assertEquals(K, scaled[corner + 1]);
+        assertEquals(K, scaled[corner + width]);
+        assertEquals(K, scaled[corner + width + 1]);
+
+        // Pixel (2, 2) has no matching neighbours so stays as a 3x3 block
+        for (int y = 6; y < 9; y++){
+            for (int x = 6; x < 9; x++)
+                assertEquals(W, scaled[y * width + x]);
+        }
+    }
+
+    @Test
+    @DisplayName("Scaling bands in parallel should give the same frame as scaling on one thread")
+    public void testParallelMatchesSingleThread() {
+
+        for (ScalingFilter filter : ScalingFilter.values()){
+            int[] single = scale(new FrameScaler(WIDTH, HEIGHT, filter, 4, 1), frame);
+            int[] parallel = scale(new FrameScaler(WIDTH, HEIGHT, filter, 4, 4), frame);
+            assertArrayEquals(single, parallel);
+        }
+    }
+
+    @Test
+    @DisplayName("Submitted frames should be scaled off the calling thread and published")
+    public void testSubmit() throws InterruptedException {
+
+        FrameScaler scaler = new FrameScaler(WIDTH, HEIGHT, ScalingFilter.SCALE2X, 2);
+        assertTrue(scaler.submit(frame));
+
+        while (scaler.isBusy())
+            Thread.sleep(1);
+
+        assertTrue(scaler.getScaledFrames().update());
+        assertArrayEquals(scale(scaler, frame), scaler.getScaledFrames().getFrontBuffer());
+    }
+}
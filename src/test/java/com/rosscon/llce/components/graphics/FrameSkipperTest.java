@@ -0,0 +1,63 @@
+package com.rosscon.llce.components.graphics;
+
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FrameSkipperTest {
+
+    private static final long BUDGET = 1000;
+
+    long now;
+
+    @Test
+    @DisplayName("A fixed skipper should draw one frame then skip the set number")
+    public void testFixed() {
+
+        FrameSkipper skipper = new FrameSkipper(2);
+
+        for (int frame = 0; frame < 9; frame++)
+            assertEquals(frame % 3 == 0, skipper.nextFrame());
+
+        assertEquals(3, skipper.getDrawnFrameCount());
+        assertEquals(6, skipper.getSkippedFrameCount());
+    }
+
+    @Test
+    @DisplayName("An adaptive skipper should draw every frame while within budget")
+    public void testAdaptiveOnTime() {
+
+        FrameSkipper skipper = new FrameSkipper(BUDGET, 4, () -> now);
+
+        for (int frame = 0; frame < 10; frame++){
+            assertTrue(skipper.nextFrame());
+            now += BUDGET - 10;
+        }
+        assertEquals(0, skipper.getSkippedFrameCount());
+    }
+
+    @Test
+    @DisplayName("An adaptive skipper should skip frames to catch up, drawing at least one in every max + 1")
+    public void testAdaptiveBehind() {
+
+        FrameSkipper skipper = new FrameSkipper(BUDGET, 2, () -> now);
+        assertTrue(skipper.nextFrame());
+
+        // One slow frame, the next is skipped then frames are drawn again once caught up
+        now += BUDGET * 2 - 100;
+        assertFalse(skipper.nextFrame());
+        now += 10;
+        assertTrue(skipper.nextFrame());
+        now += BUDGET;
+        assertTrue(skipper.nextFrame());
+
+        // Every frame slow, skipping stops at the maximum then draws
+        for (int frame = 0; frame < 6; frame++){
+            now += BUDGET * 3;
+            assertEquals(frame % 3 == 2, skipper.nextFrame());
+        }
+    }
+}
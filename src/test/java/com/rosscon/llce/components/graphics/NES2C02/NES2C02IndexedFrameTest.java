@@ -0,0 +1,30 @@
+package com.rosscon.llce.components.graphics.NES2C02;
+
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+
+public class NES2C02IndexedFrameTest {
+
+    @Test
+    @DisplayName("Converting an indexed frame should colour each line with its own emphasis")
+    public void testToArgb() {
+
+        NES2C02IndexedFrame frame = new NES2C02IndexedFrame();
+        int width = NES2C02Constants.WIDTH_VISIBLE_PIXELS;
+
+        for (int i = 0; i < frame.getPixels().length; i++)
+            frame.getPixels()[i] = (byte) (i & 0x3F);
+        frame.getEmphasis()[1] = 0x01;
+        frame.getEmphasis()[2] = 0x06;
+
+        int[] argb = frame.toArgb();
+
+        assertEquals(NES2C02Constants.PALETTE[0x21], argb[0x21]);
+        assertEquals(NES2C02Palette.getColour(0x21, NES2C02MaskFlags.EMPHASIZE_RED), argb[width + 0x21]);
+        assertEquals(NES2C02Palette.getColour(0x21, NES2C02MaskFlags.EMPHASIZE_GREEN | NES2C02MaskFlags.EMPHASIZE_BLUE),
+                argb[width * 2 + 0x21]);
+        assertEquals(NES2C02Constants.PALETTE[0x21], argb[width * 3 + 0x21]);
+    }
+}
@@ -0,0 +1,115 @@
+package com.rosscon.llce.components.graphics.NES2C02;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.cartridges.NES.NESNametableMirroring;
+import com.rosscon.llce.components.cartridges.NES.NametableMirror;
+import com.rosscon.llce.components.clocks.Clock;
+import com.rosscon.llce.components.flags.HaltFlag;
+import com.rosscon.llce.components.flags.NMIFlag;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.memory.MemoryException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+
+public class NES2C02NametableMirroringTest {
+
+    NametableMirror nametableMirror;
+    NES2C02 ppu;
+
+    @Before
+    public void reset() throws InvalidBusWidthException {
+        nametableMirror = new NametableMirror(NESNametableMirroring.HORIZONTAL);
+        ppu = new NES2C02(new Clock(), new IntegerBus(16), new IntegerBus(8), new RWFlag(),
+                new IntegerBus(16), new IntegerBus(8), new RWFlag(),
+                new NMIFlag(), new HaltFlag(), nametableMirror);
+    }
+
+    private void writeVram(int address, int data) throws MemoryException {
+        ppu.write(NES2C02Constants.REG_PPUADDR, address >> 8);
+        ppu.write(NES2C02Constants.REG_PPUADDR, address & 0xFF);
+        ppu.write(NES2C02Constants.REG_PPUDATA, data);
+    }
+
+    private int readVram(int address) throws MemoryException {
+        ppu.write(NES2C02Constants.REG_PPUADDR, address >> 8);
+        ppu.write(NES2C02Constants.REG_PPUADDR, address & 0xFF);
+        ppu.read(NES2C02Constants.REG_PPUDATA);  // Nametable reads are buffered
+        return ppu.read(NES2C02Constants.REG_PPUDATA);
+    }
+
+    /**
+     * Writes a different value to the first byte of each logical nametable then reads them back
+     * @return value read from each logical nametable
+     */
+    private int[] writeAndReadNametables() throws MemoryException {
+        for (int nametable = 0; nametable < 4; nametable++)
+            writeVram(0x2000 + nametable * 0x400, 0x10 + nametable);
+
+        int[] values = new int[4];
+        for (int nametable = 0; nametable < 4; nametable++)
+            values[nametable] = readVram(0x2000 + nametable * 0x400);
+        return values;
+    }
+
+    @Test
+    @DisplayName("Horizontal mirroring should share the top and bottom pairs of nametables")
+    public void testHorizontal() throws MemoryException {
+        int[] values = writeAndReadNametables();
+        assertEquals(0x11, values[0]);
+        assertEquals(0x11, values[1]);
+        assertEquals(0x13, values[2]);
+        assertEquals(0x13, values[3]);
+    }
+
+    @Test
+    @DisplayName("Vertical mirroring should share the left and right pairs of nametables")
+    public void testVertical() throws MemoryException {
+        nametableMirror.setMirrorMode(NESNametableMirroring.VERTICAL);
+        int[] values = writeAndReadNametables();
+        assertEquals(0x12, values[0]);
+        assertEquals(0x13, values[1]);
+        assertEquals(0x12, values[2]);
+        assertEquals(0x13, values[3]);
+    }
+
+    @Test
+    @DisplayName("Single screen mirroring should map every nametable to the same bank")
+    public void testSingleScreen() throws MemoryException {
+        nametableMirror.setMirrorMode(NESNametableMirroring.SINGLE_SCREEN_A);
+        writeVram(0x2005, 0xA0);
+        nametableMirror.setMirrorMode(NESNametableMirroring.SINGLE_SCREEN_B);
+        writeVram(0x2C05, 0xB0);
+
+        assertEquals(0xB0, readVram(0x2405));
+        nametableMirror.setMirrorMode(NESNametableMirroring.SINGLE_SCREEN_A);
+        assertEquals(0xA0, readVram(0x2805));
+        assertEquals(0xA0, readVram(0x3005));
+    }
+
+    @Test
+    @DisplayName("Four screen VRAM should give every nametable its own bank")
+    public void testFourScreen() throws MemoryException {
+        nametableMirror.setMirrorMode(NESNametableMirroring.FOUR_SCREEN);
+        int[] values = writeAndReadNametables();
+        for (int nametable = 0; nametable < 4; nametable++)
+            assertEquals(0x10 + nametable, values[nametable]);
+    }
+
+    @Test
+    @DisplayName("Mappers should be able to map nametables to banks individually")
+    public void testSetBank() throws MemoryException {
+        nametableMirror.setBank(0, 1);
+        nametableMirror.setBank(1, 0);
+        nametableMirror.setBank(2, 0);
+        nametableMirror.setBank(3, 1);
+        int[] values = writeAndReadNametables();
+        assertEquals(0x13, values[0]);
+        assertEquals(0x12, values[1]);
+        assertEquals(0x12, values[2]);
+        assertEquals(0x13, values[3]);
+    }
+}
@@ -0,0 +1,112 @@
+package com.rosscon.llce.components.graphics.NES2C02;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.cartridges.NES.NESNametableMirroring;
+import com.rosscon.llce.components.cartridges.NES.NametableMirror;
+import com.rosscon.llce.components.clocks.Clock;
+import com.rosscon.llce.components.flags.HaltFlag;
+import com.rosscon.llce.components.flags.NMIFlag;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.memory.MemoryException;
+import com.rosscon.llce.components.memory.RandomAccessMemory;
+import com.rosscon.llce.components.processors.ProcessorException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NES2C02PaletteTest {
+
+    private static final int DOTS_PER_FRAME = NES2C02Constants.CYCLES_PER_SCANLINE * NES2C02Constants.SCANLINES_PER_FRAME;
+
+    NES2C02 ppu;
+
+    @Before
+    public void reset() throws InvalidBusWidthException, MemoryException {
+        IntegerBus ppuAddressBus = new IntegerBus(16);
+        IntegerBus ppuDataBus = new IntegerBus(8);
+        RWFlag ppuRwFlag = new RWFlag();
+        new RandomAccessMemory(ppuAddressBus, ppuDataBus, ppuRwFlag, 0x0000, 0x1FFF);
+
+        ppu = new NES2C02(new Clock(), new IntegerBus(16), new IntegerBus(8), new RWFlag(),
+                ppuAddressBus, ppuDataBus, ppuRwFlag,
+                new NMIFlag(), new HaltFlag(), new NametableMirror(NESNametableMirroring.VERTICAL));
+    }
+
+    /**
+     * Fills every palette entry with the same colour index
+     * @param index colour index
+     */
+    private void fillPalette(int index) throws MemoryException {
+        ppu.write(NES2C02Constants.REG_PPUADDR, 0x3F);
+        ppu.write(NES2C02Constants.REG_PPUADDR, 0x00);
+        for (int i = 0; i < 32; i++)
+            ppu.write(NES2C02Constants.REG_PPUDATA, index);
+    }
+
+    /**
+     * Renders a frame and checks every pixel is the expected colour, the first line and column are skipped
+     * as they are never drawn
+     * @param expected ARGB colour
+     */
+    private void assertFrameColour(int expected) throws ProcessorException {
+        ppu.run(DOTS_PER_FRAME);
+        int[] frame = ppu.getScreenBuffer();
+        for (int i = NES2C02Constants.WIDTH_VISIBLE_PIXELS; i < frame.length; i++){
+            if (i % NES2C02Constants.WIDTH_VISIBLE_PIXELS != 0)
+                assertEquals(expected, frame[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Colours with no emphasis should match the base palette")
+    public void testNoEmphasis() {
+        for (int index = 0; index < NES2C02Constants.PALETTE.length; index++)
+            assertEquals(NES2C02Constants.PALETTE[index], NES2C02Palette.getColour(index, 0x1E));
+    }
+
+    @Test
+    @DisplayName("Emphasis should darken the channels not emphasised and leave the blacks alone")
+    public void testEmphasis() {
+
+        int base = NES2C02Constants.PALETTE[0x20];
+        int red = NES2C02Palette.getColour(0x20, NES2C02MaskFlags.EMPHASIZE_RED);
+        assertEquals(base & 0xFFFF0000, red & 0xFFFF0000);
+        assertTrue((red & 0xFF00) < (base & 0xFF00));
+        assertTrue((red & 0xFF) < (base & 0xFF));
+
+        int all = NES2C02Palette.getColour(0x20, NES2C02Palette.EMPHASIS_MASK);
+        assertTrue((all & 0xFF0000) < (base & 0xFF0000));
+
+        for (int index = 0x0E; index < NES2C02Constants.PALETTE.length; index += 0x10){
+            assertEquals(NES2C02Constants.PALETTE[index], NES2C02Palette.getColour(index, NES2C02Palette.EMPHASIS_MASK));
+            assertEquals(NES2C02Constants.PALETTE[index + 1], NES2C02Palette.getColour(index + 1, NES2C02Palette.EMPHASIS_MASK));
+        }
+    }
+
+    @Test
+    @DisplayName("Frames should follow palette writes and greyscale and emphasis changes to PPUMASK")
+    public void testResolvedPaletteFollowsWrites() throws MemoryException, ProcessorException {
+
+        fillPalette(0x21);
+        assertFrameColour(NES2C02Constants.PALETTE[0x21]);
+
+        ppu.write(NES2C02Constants.REG_PPUMASK, NES2C02MaskFlags.GREYSCALE);
+        assertFrameColour(NES2C02Constants.PALETTE[0x20]);
+
+        ppu.write(NES2C02Constants.REG_PPUMASK, NES2C02MaskFlags.EMPHASIZE_BLUE);
+        assertFrameColour(NES2C02Palette.getColour(0x21, NES2C02MaskFlags.EMPHASIZE_BLUE));
+
+        fillPalette(0x16);
+        assertFrameColour(NES2C02Palette.getColour(0x16, NES2C02MaskFlags.EMPHASIZE_BLUE));
+
+        // Greyscale still applies to palette reads through PPUDATA
+        ppu.write(NES2C02Constants.REG_PPUMASK, NES2C02MaskFlags.GREYSCALE);
+        ppu.write(NES2C02Constants.REG_PPUADDR, 0x3F);
+        ppu.write(NES2C02Constants.REG_PPUADDR, 0x11);
+        assertEquals(0x10, ppu.read(NES2C02Constants.REG_PPUDATA));
+    }
+}
@@ -0,0 +1,321 @@
+package com.rosscon.llce.components.graphics.NES2C02;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.cartridges.NES.CharacterRandomAccessMemory;
+import com.rosscon.llce.components.cartridges.NES.NESNametableMirroring;
+import com.rosscon.llce.components.cartridges.NES.NametableMirror;
+import com.rosscon.llce.components.cartridges.NES.PatternTableCache;
+import com.rosscon.llce.components.clocks.Clock;
+import com.rosscon.llce.components.dma.DMAController;
+import com.rosscon.llce.components.flags.HaltFlag;
+import com.rosscon.llce.components.flags.NMIFlag;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.graphics.FrameSkipper;
+import com.rosscon.llce.components.memory.MemoryException;
+import com.rosscon.llce.components.memory.RandomAccessMemory;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502;
+import com.rosscon.llce.components.processors.ProcessorException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests rendering a scanline at a time draws the same picture as rendering a dot at a time
+ */
+public class NES2C02RenderModeTest {
+
+    private static final int DOTS_PER_FRAME = NES2C02Constants.CYCLES_PER_SCANLINE * NES2C02Constants.SCANLINES_PER_FRAME;
+
+    NES2C02 dotPpu;
+    NES2C02 scanlinePpu;
+
+    @Before
+    public void reset() throws InvalidBusWidthException, MemoryException, ProcessorException {
+        dotPpu = createPpu(NES2C02RenderMode.DOT, false);
+        scanlinePpu = createPpu(NES2C02RenderMode.SCANLINE, false);
+    }
+
+    /**
+     * Creates a PPU with patterns, nametables, a palette and sprites set up, sprite 0 overlaps the background
+     * and some sprites are flipped or behind the background
+     * @param renderMode render mode to use
+     * @param cachePatterns true to render from a pattern table cache
+     * @return PPU ready to render
+     */
+    private NES2C02 createPpu(NES2C02RenderMode renderMode, boolean cachePatterns) throws InvalidBusWidthException, MemoryException, ProcessorException {
+        return createPpu(renderMode, cachePatterns, null);
+    }
+
+    /**
+     * Creates a PPU as above, copying OAM through a DMA controller stalling a CPU when one is given
+     * @param renderMode render mode to use
+     * @param cachePatterns true to render from a pattern table cache
+     * @param cpu CPU stalled by OAM DMA, null for the PPU to halt the CPU and copy OAM itself
+     * @return PPU ready to render
+     */
+    private NES2C02 createPpu(NES2C02RenderMode renderMode, boolean cachePatterns, MOS6502 cpu) throws InvalidBusWidthException, MemoryException, ProcessorException {
+
+        IntegerBus addressBus = new IntegerBus(16);
+        IntegerBus dataBus = new IntegerBus(8);
+        RWFlag rwFlag = new RWFlag();
+        RandomAccessMemory cpuRam = new RandomAccessMemory(addressBus, dataBus, rwFlag, 0x0000, 0x07FF);
+
+        IntegerBus ppuAddressBus = new IntegerBus(16);
+        IntegerBus ppuDataBus = new IntegerBus(8);
+        RWFlag ppuRwFlag = new RWFlag();
+        CharacterRandomAccessMemory patterns = new CharacterRandomAccessMemory(ppuAddressBus, ppuDataBus, ppuRwFlag);
+
+        for (int address = 0; address < 0x2000; address++)
+            patterns.write(address, (address * 37 + (address >> 4) * 11) & 0xFF);
+
+        for (int i = 0; i < 256; i += 4){
+            cpuRam.write(0x0200 + i, (i * 3 + 20) & 0xFF);
+            cpuRam.write(0x0201 + i, i);
+            cpuRam.write(0x0202 + i, i & 0xE3);
+            cpuRam.write(0x0203 + i, (i * 5) & 0xFF);
+        }
+        cpuRam.write(0x0200, 40);
+        cpuRam.write(0x0203, 40);
+
+        NES2C02 ppu = new NES2C02(new Clock(), addressBus, dataBus, rwFlag, ppuAddressBus, ppuDataBus, ppuRwFlag,
+                new NMIFlag(), new HaltFlag(), new NametableMirror(NESNametableMirroring.VERTICAL));
+        ppu.setRenderMode(renderMode);
+
+        if (cachePatterns){
+            PatternTableCache cache = new PatternTableCache(patterns);
+            patterns.setPatternTableCache(cache);
+            ppu.setPatternTableCache(cache);
+        }
+
+        ppu.write(NES2C02Constants.REG_PPUADDR, 0x3F);
+        ppu.write(NES2C02Constants.REG_PPUADDR, 0x00);
+        for (int i = 0; i < 32; i++)
+            ppu.write(NES2C02Constants.REG_PPUDATA, (i * 7 + 1) & 0x3F);
+
+        ppu.write(NES2C02Constants.REG_PPUADDR, 0x20);
+        ppu.write(NES2C02Constants.REG_PPUADDR, 0x00);
+        for (int i = 0; i < 2048; i++)
+            ppu.write(NES2C02Constants.REG_PPUDATA, (i * 13) & 0xFF);
+
+        // Copying OAM itself holds the PPU in place, a DMA controller copies it without the PPU moving on
+        if (cpu != null){
+            DMAController dmaController = new DMAController(cpu, cpuRam);
+            dmaController.mapPages(0x00, 0x07, cpuRam.getBackingArray());
+            ppu.setDMAController(dmaController);
+            ppu.write(NES2C02Constants.REG_OAMDMA, 0x02);
+        } else {
+            ppu.write(NES2C02Constants.REG_OAMDMA, 0x02);
+            ppu.run(520);
+        }
+
+        ppu.write(NES2C02Constants.REG_PPUCTRL, 0x80);
+        ppu.write(NES2C02Constants.REG_PPUMASK, 0x1E);
+        return ppu;
+    }
+
+    /**
+     * Runs both PPUs for the same number of cycles
+     * @param cycles number of cycles to run
+     */
+    private void runBoth(int cycles) throws ProcessorException {
+        assertEquals(cycles, dotPpu.run(cycles));
+        assertEquals(cycles, scanlinePpu.run(cycles));
+    }
+
+    /**
+     * Writes a value to a register of both PPUs
+     * @param address register address
+     * @param data value to write
+     */
+    private void writeBoth(int address, int data) throws MemoryException {
+        dotPpu.write(address, data);
+        scanlinePpu.write(address, data);
+    }
+
+    @Test
+    @DisplayName("Scanline rendering should draw the same frames as dot rendering")
+    public void testScanlineMatchesDot() throws ProcessorException, MemoryException {
+
+        for (int frame = 0; frame < 4; frame++){
+
+            writeBoth(NES2C02Constants.REG_PPUSCROLL, frame * 3);
+            writeBoth(NES2C02Constants.REG_PPUSCROLL, frame);
+
+            // Odd sized runs so some lines are split between runs
+            for (int run = 0; run < 20; run++)
+                runBoth(DOTS_PER_FRAME / 40 + run);
+
+            // Scroll part way through a line
+            writeBoth(NES2C02Constants.REG_PPUSCROLL, frame * 5 + 1);
+            writeBoth(NES2C02Constants.REG_PPUSCROLL, 0);
+
+            runBoth(DOTS_PER_FRAME - (DOTS_PER_FRAME / 40) * 20 - 190);
+
+            assertArrayEquals(dotPpu.getScreenBuffer(), scanlinePpu.getScreenBuffer());
+            assertEquals(dotPpu.getCycleCount(), scanlinePpu.getCycleCount());
+        }
+
+        assertEquals(dotPpu.read(NES2C02Constants.REG_PPUSTATUS), scanlinePpu.read(NES2C02Constants.REG_PPUSTATUS));
+    }
+
+    @Test
+    @DisplayName("Scanline rendering should draw the same frames as dot rendering with the background or sprites hidden")
+    public void testScanlineMatchesDotLayersHidden() throws ProcessorException, MemoryException {
+
+        int[] masks = new int[]{ 0x00, 0x08, 0x10, 0x16, 0x1F };
+
+        for (int mask : masks){
+            writeBoth(NES2C02Constants.REG_PPUMASK, mask);
+            runBoth(DOTS_PER_FRAME * 2 + 17);
+            assertArrayEquals(dotPpu.getScreenBuffer(), scanlinePpu.getScreenBuffer());
+        }
+    }
+
+    @Test
+    @DisplayName("Rendering from a pattern table cache should draw the same frames as reading pattern memory")
+    public void testPatternTableCacheMatchesMemory() throws ProcessorException, MemoryException, InvalidBusWidthException {
+
+        scanlinePpu = createPpu(NES2C02RenderMode.SCANLINE, true);
+        NES2C02 cachedDotPpu = createPpu(NES2C02RenderMode.DOT, true);
+
+        for (int frame = 0; frame < 3; frame++){
+
+            // Rewrite part of the pattern tables through PPUDATA, cached tiles must be decoded again
+            for (NES2C02 ppu : new NES2C02[]{ dotPpu, scanlinePpu, cachedDotPpu }){
+                ppu.write(NES2C02Constants.REG_PPUADDR, frame << 4);
+                ppu.write(NES2C02Constants.REG_PPUADDR, 0x00);
+                for (int i = 0; i < 512; i++)
+                    ppu.write(NES2C02Constants.REG_PPUDATA, (i * (frame + 3)) & 0xFF);
+                ppu.write(NES2C02Constants.REG_PPUSCROLL, frame);
+                ppu.write(NES2C02Constants.REG_PPUSCROLL, frame * 2);
+            }
+
+            runBoth(DOTS_PER_FRAME + 101);
+            assertEquals(DOTS_PER_FRAME + 101, cachedDotPpu.run(DOTS_PER_FRAME + 101));
+
+            assertArrayEquals(dotPpu.getScreenBuffer(), scanlinePpu.getScreenBuffer());
+            assertArrayEquals(dotPpu.getScreenBuffer(), cachedDotPpu.getScreenBuffer());
+        }
+    }
+
+    @Test
+    @DisplayName("Frames drawn as colour indexes should match frames drawn as colours once converted")
+    public void testIndexedMatchesArgb() throws ProcessorException, MemoryException, InvalidBusWidthException {
+
+        NES2C02 indexedDotPpu = createPpu(NES2C02RenderMode.DOT, false);
+        NES2C02 indexedScanlinePpu = createPpu(NES2C02RenderMode.SCANLINE, false);
+        indexedDotPpu.setFrameFormat(NES2C02FrameFormat.INDEXED);
+        indexedScanlinePpu.setFrameFormat(NES2C02FrameFormat.INDEXED);
+
+        int[] masks = new int[]{ 0x1E, 0x1F, 0x3E, 0xDE, 0xFF };
+
+        for (int mask : masks){
+            for (NES2C02 ppu : new NES2C02[]{ dotPpu, scanlinePpu, indexedDotPpu, indexedScanlinePpu }){
+                ppu.write(NES2C02Constants.REG_PPUMASK, mask);
+                assertEquals(DOTS_PER_FRAME * 2, ppu.run(DOTS_PER_FRAME * 2));
+            }
+
+            int[] expected = dotPpu.getScreenBuffer();
+            int[] indexedDot = indexedDotPpu.getScreenBuffer();
+            int[] indexedScanline = indexedScanlinePpu.getScreenBuffer();
+
+            // The first column is never drawn so is left as 0 rather than a colour
+            for (int i = 0; i < expected.length; i += NES2C02Constants.WIDTH_VISIBLE_PIXELS){
+                expected[i] = 0;
+                indexedDot[i] = 0;
+                indexedScanline[i] = 0;
+            }
+
+            assertArrayEquals(expected, indexedDot);
+            assertArrayEquals(expected, indexedScanline);
+        }
+    }
+
+    /**
+     * Determine if a frame is one of the most recently drawn frames
+     * @param drawn frames drawn, most recent first
+     * @param frame frame to find
+     * @param count number of recent frames to look through
+     * @return true if found
+     */
+    private boolean isRecentFrame(List<int[]> drawn, int[] frame, int count){
+        for (int i = 0; i < Math.min(count, drawn.size()); i++){
+            if (Arrays.equals(drawn.get(i), frame))
+                return true;
+        }
+        return false;
+    }
+
+    @Test
+    @DisplayName("Skipped frames should keep the same timing, status flags and drawn frames as drawing every frame")
+    public void testFrameSkipMatchesDrawing() throws ProcessorException, MemoryException, InvalidBusWidthException {
+
+        NES2C02 skippingDotPpu = createPpu(NES2C02RenderMode.DOT, false);
+        FrameSkipper dotSkipper = new FrameSkipper(1);
+        FrameSkipper scanlineSkipper = new FrameSkipper(2);
+        skippingDotPpu.setFrameSkipper(dotSkipper);
+        scanlinePpu.setFrameSkipper(scanlineSkipper);
+
+        NES2C02[] ppus = new NES2C02[]{ dotPpu, scanlinePpu, skippingDotPpu };
+        boolean spriteZeroHit = false;
+        List<int[]> drawn = new ArrayList<>();
+
+        for (int frame = 0; frame < 6; frame++){
+
+            for (NES2C02 ppu : ppus){
+                ppu.write(NES2C02Constants.REG_PPUSCROLL, frame * 7);
+                ppu.write(NES2C02Constants.REG_PPUSCROLL, frame * 3);
+            }
+
+            // Uneven runs so sprite zero lines are sometimes run whole and sometimes split
+            int remaining = DOTS_PER_FRAME;
+            for (int run = 0; remaining > 0; run++){
+                int dots = Math.min(remaining, 300 + (run * 97) % 500);
+                int status = -1;
+                for (NES2C02 ppu : ppus){
+                    assertEquals(dots, ppu.run(dots));
+                    int ppuStatus = ppu.read(NES2C02Constants.REG_PPUSTATUS);
+                    if (status != -1)
+                        assertEquals(status, ppuStatus);
+                    status = ppuStatus;
+                }
+                spriteZeroHit |= (status & NES2C02StatusFlags.SPRITE_ZERO_HIT) != 0;
+                remaining -= dots;
+            }
+
+            // A PPU skipping frames still shows the last frame it drew
+            drawn.add(0, dotPpu.getScreenBuffer());
+            assertTrue(isRecentFrame(drawn, scanlinePpu.getScreenBuffer(), 3));
+            assertTrue(isRecentFrame(drawn, skippingDotPpu.getScreenBuffer(), 2));
+        }
+
+        assertTrue(spriteZeroHit);
+        assertTrue(dotSkipper.getSkippedFrameCount() > 0);
+        assertTrue(scanlineSkipper.getSkippedFrameCount() > 0);
+    }
+
+    @Test
+    @DisplayName("OAM DMA through a DMA controller should draw the same sprites and stall the CPU for the transfer")
+    public void testDMAControllerMatchesHaltedDMA() throws InvalidBusWidthException, MemoryException, ProcessorException {
+
+        MOS6502 cpu = new MOS6502(new Clock(), new IntegerBus(16), new IntegerBus(8), new RWFlag(),
+                new NMIFlag(), new HaltFlag());
+        NES2C02 dmaPpu = createPpu(NES2C02RenderMode.SCANLINE, false, cpu);
+        assertEquals(NES2C02Constants.OAM_DMA_CYCLES, cpu.getStallCycles());
+
+        for (int frame = 0; frame < 2; frame++){
+            scanlinePpu.run(DOTS_PER_FRAME);
+            dmaPpu.run(DOTS_PER_FRAME);
+            assertArrayEquals(scanlinePpu.getScreenBuffer(), dmaPpu.getScreenBuffer());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.rosscon.llce.components.graphics.NES2C02;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class NES2C02SpriteBucketsTest {
+
+    byte[] oam;
+    NES2C02SpriteBuckets buckets;
+
+    @Before
+    public void reset() {
+        oam = new byte[256];
+        Random random = new Random(7);
+        for (int i = 0; i < oam.length; i++)
+            oam[i] = (byte) random.nextInt(256);
+        // Crowd some lines with more than 8 sprites
+        for (int i = 0; i < 12; i++)
+            oam[i * 4 * 3] = (byte) (100 + i);
+        buckets = new NES2C02SpriteBuckets(oam);
+    }
+
+    /**
+     * Checks each line holds the first 8 sprites found by searching OAM in order
+     * @param height sprite height
+     */
+    private void assertMatchesSearch(int height){
+        for (int line = 0; line < NES2C02Constants.HEIGHT_VISIBLE_SCANLINES; line++){
+            int count = buckets.getCount(line, height);
+            int found = 0;
+            for (int oamIndex = 0; oamIndex < 64 && found < 8; oamIndex++){
+                int diff = line - (oam[oamIndex * 4] & 0xFF);
+                if (diff >= 0 && diff < height)
+                    assertEquals(oamIndex, buckets.getSprites(line)[found++]);
+            }
+            assertEquals(found, count);
+        }
+    }
+
+    @Test
+    @DisplayName("Buckets should hold the same sprites as searching OAM for 8 and 16 pixel high sprites")
+    public void testMatchesSearch() {
+        assertMatchesSearch(8);
+        assertMatchesSearch(16);
+        assertMatchesSearch(8);
+        assertEquals(8, buckets.getCount(111, 8));
+    }
+
+    @Test
+    @DisplayName("Buckets should only pick up OAM changes once invalidated")
+    public void testInvalidate() {
+
+        oam[0] = 20;
+        assertMatchesSearch(8);
+
+        oam[0] = (byte) 200;
+        assertEquals(0, buckets.getSprites(20)[0]);
+
+        buckets.invalidate();
+        assertMatchesSearch(8);
+    }
+}
@@ -0,0 +1,67 @@
+package com.rosscon.llce.components.graphics.NES2C02;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.cartridges.NES.NESNametableMirroring;
+import com.rosscon.llce.components.cartridges.NES.NametableMirror;
+import com.rosscon.llce.components.clocks.Clock;
+import com.rosscon.llce.components.flags.HaltFlag;
+import com.rosscon.llce.components.flags.NMIFlag;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.memory.MemoryException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+
+public class NES2C02VramAddressTest {
+
+    NES2C02 ppu;
+
+    @Before
+    public void reset() throws InvalidBusWidthException {
+        ppu = new NES2C02(new Clock(), new IntegerBus(16), new IntegerBus(8), new RWFlag(),
+                new IntegerBus(16), new IntegerBus(8), new RWFlag(),
+                new NMIFlag(), new HaltFlag(), new NametableMirror(NESNametableMirroring.FOUR_SCREEN));
+    }
+
+    private void setAddress(int address) throws MemoryException {
+        ppu.write(NES2C02Constants.REG_PPUADDR, address >> 8);
+        ppu.write(NES2C02Constants.REG_PPUADDR, address & 0xFF);
+    }
+
+    @Test
+    @DisplayName("PPUDATA should increment the VRAM address by 1 or 32 depending on PPUCTRL")
+    public void testIncrement() throws MemoryException {
+
+        setAddress(0x2100);
+        ppu.write(NES2C02Constants.REG_PPUDATA, 0x11);
+        ppu.write(NES2C02Constants.REG_PPUDATA, 0x22);
+        ppu.write(NES2C02Constants.REG_PPUCTRL, 0x04);
+        ppu.write(NES2C02Constants.REG_PPUDATA, 0x33);
+        ppu.write(NES2C02Constants.REG_PPUDATA, 0x44);
+
+        ppu.write(NES2C02Constants.REG_PPUCTRL, 0x00);
+        setAddress(0x2100);
+        ppu.read(NES2C02Constants.REG_PPUDATA);
+        assertEquals(0x11, ppu.read(NES2C02Constants.REG_PPUDATA));
+        assertEquals(0x22, ppu.read(NES2C02Constants.REG_PPUDATA));
+
+        setAddress(0x2122);
+        ppu.read(NES2C02Constants.REG_PPUDATA);
+        assertEquals(0x44, ppu.read(NES2C02Constants.REG_PPUDATA));
+    }
+
+    @Test
+    @DisplayName("The first PPUADDR write should only keep the low 6 bits of the upper byte")
+    public void testUpperByteMasked() throws MemoryException {
+
+        setAddress(0xE3C0);
+        ppu.write(NES2C02Constants.REG_PPUDATA, 0x55);
+
+        setAddress(0x23C0);
+        ppu.read(NES2C02Constants.REG_PPUDATA);
+        assertEquals(0x55, ppu.read(NES2C02Constants.REG_PPUDATA));
+    }
+}
@@ -0,0 +1,101 @@
+package com.rosscon.llce.components.graphics;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class TripleBufferTest {
+
+    TripleBuffer<int[]> frames;
+
+    @Before
+    public void reset() {
+        frames = new TripleBuffer<>(() -> new int[64]);
+    }
+
+    @Test
+    @DisplayName("The consumer should only see a new frame once it has been published")
+    public void testPublishAndUpdate() {
+
+        assertFalse(frames.update());
+
+        frames.getBackBuffer()[0] = 1;
+        assertFalse(frames.update());
+        assertEquals(0, frames.getFrontBuffer()[0]);
+
+        frames.publish();
+        assertTrue(frames.update());
+        assertEquals(1, frames.getFrontBuffer()[0]);
+        assertFalse(frames.update());
+        assertEquals(1, frames.getFrontBuffer()[0]);
+    }
+
+    @Test
+    @DisplayName("The consumer should get the most recent frame when several are published between updates")
+    public void testOlderFramesDropped() {
+
+        for (int frame = 1; frame <= 5; frame++){
+            frames.getBackBuffer()[0] = frame;
+            frames.publish();
+        }
+
+        assertTrue(frames.update());
+        assertEquals(5, frames.getFrontBuffer()[0]);
+    }
+
+    @Test
+    @DisplayName("The producer should never draw into the buffer the consumer is reading")
+    public void testBackNeverFront() {
+
+        for (int frame = 0; frame < 20; frame++){
+            assertNotSame(frames.getFrontBuffer(), frames.getBackBuffer());
+            frames.publish();
+            if (frame % 3 == 0)
+                frames.update();
+        }
+    }
+
+    @Test
+    @DisplayName("Frames exchanged between threads should always be complete and in order")
+    public void testConcurrentExchange() throws InterruptedException {
+
+        AtomicBoolean failed = new AtomicBoolean(false);
+        int frameCount = 200000;
+
+        Thread producer = new Thread(() -> {
+            for (int frame = 1; frame <= frameCount; frame++){
+                Arrays.fill(frames.getBackBuffer(), frame);
+                frames.publish();
+            }
+        });
+        producer.start();
+
+        int last = 0;
+        while (last < frameCount && !failed.get()){
+            if (!frames.update())
+                continue;
+
+            int[] front = frames.getFrontBuffer();
+            int frame = front[0];
+            for (int value : front){
+                if (value != frame)
+                    failed.set(true);
+            }
+            if (frame <= last)
+                failed.set(true);
+            last = frame;
+        }
+
+        producer.join();
+        assertFalse(failed.get());
+        assertEquals(frameCount, last);
+    }
+}
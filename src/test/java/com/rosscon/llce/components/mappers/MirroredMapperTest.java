@@ -97,4 +97,11 @@ public class MirroredMapperTest {
         assertEquals(0x02, dataBus.readDataFromBus());
     }
 
+    @Test
+    @DisplayName("Mapper should read directly from ROM at a mirrored location")
+    public void TestMapperDirectReadMirroredAddress() {
+
+        assertEquals(0x03, mapper.read(0x1003));
+        assertEquals(0x00, mapper.read(0x4003));
+    }
 }
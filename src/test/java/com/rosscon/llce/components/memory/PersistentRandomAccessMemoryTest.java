@@ -0,0 +1,73 @@
+package com.rosscon.llce.components.memory;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusDataException;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.flags.FlagException;
+import com.rosscon.llce.components.flags.RWFlag;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests Random Access Memory persisted to a file
+ */
+public class PersistentRandomAccessMemoryTest {
+
+    IntegerBus addressBus;
+    IntegerBus dataBus;
+    RWFlag rwFlag;
+    Path saveFile;
+
+    @Before
+    public void reset() throws InvalidBusWidthException, IOException {
+
+        addressBus = new IntegerBus(16);
+        dataBus = new IntegerBus(8);
+        rwFlag = new RWFlag();
+        saveFile = Files.createTempFile("llce", ".sav");
+        Files.delete(saveFile);
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(saveFile);
+    }
+
+    @Test
+    @DisplayName("Persistent RAM should create a zero filled file the size of its address range")
+    public void testPersistentCreatesFile() throws MemoryException, IOException {
+
+        PersistentRandomAccessMemory memory = new PersistentRandomAccessMemory(addressBus, dataBus, rwFlag,
+                0x6000, 0x7FFF, saveFile);
+
+        assertEquals(0x2000, Files.size(saveFile));
+        assertEquals(0x00, memory.read(0x6000));
+    }
+
+    @Test
+    @DisplayName("Persistent RAM should write through to the file and be restored by a new instance")
+    public void testPersistentReadWrite() throws MemoryException, IOException, InvalidBusDataException, FlagException {
+
+        PersistentRandomAccessMemory memory = new PersistentRandomAccessMemory(addressBus, dataBus, rwFlag,
+                0x6000, 0x7FFF, saveFile);
+
+        dataBus.writeDataToBus(0xA5);
+        addressBus.writeDataToBus(0x6001);
+        rwFlag.setFlagValue(RWFlag.WRITE);
+        memory.flush();
+
+        assertEquals((byte) 0xA5, Files.readAllBytes(saveFile)[1]);
+
+        PersistentRandomAccessMemory restored = new PersistentRandomAccessMemory(addressBus, dataBus, new RWFlag(),
+                0x6000, 0x7FFF, saveFile);
+        assertEquals(0xA5, restored.read(0x6001));
+    }
+}
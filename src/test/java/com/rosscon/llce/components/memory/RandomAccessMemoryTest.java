@@ -11,6 +11,7 @@ import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Tests all functions of Random Access Memory
@@ -70,4 +71,49 @@ public class RandomAccessMemoryTest {
 
         assertEquals(0x43, dataBus.readDataFromBus());
     }
+
+    @Test
+    @DisplayName("RAM should be readable and writable directly without using the busses")
+    public void TestRAMDirectReadWrite() throws InvalidBusDataException, MemoryException, FlagException {
+
+        randomAccessMemory.write(0x0010, 0x42);
+        assertEquals(0x42, randomAccessMemory.read(0x0010));
+
+        // Direct writes should be visible through the bus
+        addressBus.writeDataToBus(0x0010);
+        rwFlag.setFlagValue(RWFlag.READ);
+        assertEquals(0x42, dataBus.readDataFromBus());
+    }
+
+    @Test
+    @DisplayName("RAM should ignore direct accesses outside its range")
+    public void TestRAMDirectOutOfRange() throws MemoryException {
+
+        randomAccessMemory.write(0x0100, 0x42);
+        assertEquals(0x00, randomAccessMemory.read(0x0100));
+    }
+
+    @Test
+    @DisplayName("RAM backing array should share contents with memory")
+    public void TestRAMBackingArray() throws MemoryException {
+
+        byte[] contents = randomAccessMemory.getBackingArray();
+        assertEquals(0x100, contents.length);
+
+        randomAccessMemory.write(0x0010, 0x42);
+        assertEquals(0x42, contents[0x10]);
+
+        contents[0x20] = (byte) 0x99;
+        assertEquals(0x99, randomAccessMemory.read(0x0020));
+    }
+
+    @Test
+    @DisplayName("RAM wider than 8 bits should not provide a backing array")
+    public void TestRAMBackingArrayWide() throws InvalidBusWidthException, MemoryException {
+
+        RandomAccessMemory wide = new RandomAccessMemory(addressBus, new IntegerBus(16), rwFlag,
+                0x0000, 0x00FF);
+
+        assertThrows(MemoryException.class, wide::getBackingArray);
+    }
 }
@@ -72,5 +72,43 @@ public class ReadOnlyMemoryTest {
         });
     }
 
+    @Test
+    @DisplayName("Create ROM from packed bytes should read values back unsigned")
+    public void testValidPredefinedPackedBytes () throws MemoryException, InvalidBusDataException, InvalidBusWidthException, FlagException {
+
+        IntegerBus addressBus = new IntegerBus(16);
+        IntegerBus dataBus = new IntegerBus(8);
+        RWFlag rwFlag = new RWFlag();
+
+        byte[] data = new byte[]{
+                (byte) 0xFF, 0x01
+        };
+
+        ReadOnlyMemory testRom = new ReadOnlyMemory(addressBus, dataBus, rwFlag,
+                0x0000, 0x0001, data);
+
+        addressBus.writeDataToBus(0x00);
+        rwFlag.setFlagValue(RWFlag.READ);
+        assertEquals(0xFF, dataBus.readDataFromBus());
+        assertEquals(0x01, testRom.read(0x01));
+    }
 
+    @Test
+    @DisplayName("Create ROM wider than 8 bits should pack each value into multiple bytes")
+    public void testWidePredefinedMemoryMap () throws MemoryException, InvalidBusWidthException {
+
+        IntegerBus addressBus = new IntegerBus(16);
+        IntegerBus dataBus = new IntegerBus(16);
+        RWFlag rwFlag = new RWFlag();
+
+        int[] data = new int[]{
+                0xBEEF, 0x0102
+        };
+
+        ReadOnlyMemory testRom = new ReadOnlyMemory(addressBus, dataBus, rwFlag,
+                0x0000, 0x0001, data);
+
+        assertEquals(0xBEEF, testRom.read(0x00));
+        assertEquals(0x0102, testRom.read(0x01));
+    }
 }
@@ -0,0 +1,75 @@
+package com.rosscon.llce.components.memory;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusDataException;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.flags.FlagException;
+import com.rosscon.llce.components.flags.RWFlag;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests sparse Random Access Memory covering a wide address bus
+ */
+public class SparseRandomAccessMemoryTest {
+
+    IntegerBus addressBus;
+    IntegerBus dataBus;
+    RWFlag rwFlag;
+    SparseRandomAccessMemory sparseMemory;
+
+    @Before
+    public void reset() throws InvalidBusWidthException, MemoryException {
+
+        addressBus = new IntegerBus(31);
+        dataBus = new IntegerBus(8);
+        rwFlag = new RWFlag();
+        sparseMemory = new SparseRandomAccessMemory(addressBus, dataBus, rwFlag);
+    }
+
+    @Test
+    @DisplayName("Sparse RAM should read untouched pages as zero without allocating them")
+    public void testSparseReadUntouched() throws InvalidBusDataException, FlagException {
+
+        dataBus.writeDataToBus(0x42);
+        addressBus.writeDataToBus(0x7FFFFFFF);
+        rwFlag.setFlagValue(RWFlag.READ);
+
+        assertEquals(0x00, dataBus.readDataFromBus());
+        assertEquals(0, sparseMemory.getAllocatedPages());
+    }
+
+    @Test
+    @DisplayName("Sparse RAM should allocate a page on the first write and read back the value")
+    public void testSparseReadWrite() throws InvalidBusDataException, FlagException {
+
+        dataBus.writeDataToBus(0xFF);
+        addressBus.writeDataToBus(0x40001234);
+        rwFlag.setFlagValue(RWFlag.WRITE);
+
+        dataBus.writeDataToBus(0x00);
+        rwFlag.setFlagValue(RWFlag.READ);
+        assertEquals(0xFF, dataBus.readDataFromBus());
+
+        sparseMemory.write(0x40001235, 0x01);
+        assertEquals(0x01, sparseMemory.read(0x40001235));
+        assertEquals(0x00, sparseMemory.read(0x40002234));
+        assertEquals(1, sparseMemory.getAllocatedPages());
+    }
+
+    @Test
+    @DisplayName("Sparse RAM wider than 8 bits should hold full values per address")
+    public void testSparseWideData() throws InvalidBusWidthException, MemoryException {
+
+        SparseRandomAccessMemory wide = new SparseRandomAccessMemory(new IntegerBus(24), new IntegerBus(16),
+                new RWFlag(), 0x000100, 0xFFFFFF);
+
+        wide.write(0x123456, 0xBEEF);
+        assertEquals(0xBEEF, wide.read(0x123456));
+        assertEquals(0x0000, wide.read(0x123457));
+        assertEquals(0x0000, wide.read(0x000000));
+    }
+}
@@ -0,0 +1,103 @@
+package com.rosscon.llce.components.processors.MOS6502Integer;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.clocks.Clock;
+import com.rosscon.llce.components.flags.HaltFlag;
+import com.rosscon.llce.components.flags.NMIFlag;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.memory.RandomAccessMemory;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502DispatchMode;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502Instructions;
+import com.rosscon.llce.components.processors.ProcessorException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares dispatching instructions through the opcode handler table against the addressing mode and
+ * instruction switches. Not run as part of the tests, run main or use the JMH runner.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MOS6502DispatchBenchmark {
+
+    /**
+     * Number of CPU cycles run per invocation
+     */
+    private static final int CYCLES = 100_000;
+
+    @Param({"TABLE", "SWITCH"})
+    public MOS6502DispatchMode dispatchMode;
+
+    MOS6502 cpu;
+
+    @Setup
+    public void setup() throws Exception {
+
+        IntegerBus addressBus = new IntegerBus(16);
+        IntegerBus dataBus = new IntegerBus(8);
+        RWFlag rwFlag = new RWFlag();
+        RandomAccessMemory ram = new RandomAccessMemory(addressBus, dataBus, rwFlag);
+
+        /*
+         * 0x0200 LDX #$00
+         * 0x0202 LDA $0300,X
+         * 0x0205 CLC
+         * 0x0206 ADC #$01
+         * 0x0208 STA $0300,X
+         * 0x020B INX
+         * 0x020C BNE $0202
+         * 0x020E JMP $0200
+         */
+        int[] program = new int[]{
+                MOS6502Instructions.INS_LDX_IMM, 0x00,
+                MOS6502Instructions.INS_LDA_ABX, 0x00, 0x03,
+                MOS6502Instructions.INS_CLC_IMP,
+                MOS6502Instructions.INS_ADC_IMM, 0x01,
+                MOS6502Instructions.INS_STA_ABX, 0x00, 0x03,
+                MOS6502Instructions.INS_INX_IMP,
+                MOS6502Instructions.INS_BNE_REL, 0xF4,
+                MOS6502Instructions.INS_JMP_ABS, 0x00, 0x02
+        };
+        for (int i = 0; i < program.length; i++)
+            ram.write(0x0200 + i, program[i]);
+
+        ram.write(0xFFFC, 0x00);
+        ram.write(0xFFFD, 0x02);
+
+        cpu = new MOS6502(new Clock(), addressBus, dataBus, rwFlag, new NMIFlag(), new HaltFlag());
+        cpu.setDispatchMode(dispatchMode);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CYCLES)
+    public long run() throws ProcessorException {
+        cpu.run(CYCLES);
+        return cpu.getCycleCount();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MOS6502DispatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,128 @@
+package com.rosscon.llce.components.processors.MOS6502Integer;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.clocks.Clock;
+import com.rosscon.llce.components.flags.HaltFlag;
+import com.rosscon.llce.components.flags.NMIFlag;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.memory.MemoryException;
+import com.rosscon.llce.components.memory.RandomAccessMemory;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502Instructions;
+import com.rosscon.llce.components.processors.ProcessorException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MOS6502TestBlockCompilation {
+
+    /*
+     * 0x0200 LDX #$00
+     * 0x0202 LDA $0300,X
+     * 0x0205 CLC
+     * 0x0206 ADC #$03
+     * 0x0208 STA $0300,X
+     * 0x020B JSR $0220
+     * 0x020E INX
+     * 0x020F BNE $0202
+     * 0x0211 INC $0207     changes the operand of ADC, inside a compiled block
+     * 0x0214 JMP $0200
+     * 0x0220 INY
+     * 0x0221 STY $0400
+     * 0x0224 RTS
+     */
+    private static final int[] PROGRAM = new int[]{
+            MOS6502Instructions.INS_LDX_IMM, 0x00,
+            MOS6502Instructions.INS_LDA_ABX, 0x00, 0x03,
+            MOS6502Instructions.INS_CLC_IMP,
+            MOS6502Instructions.INS_ADC_IMM, 0x03,
+            MOS6502Instructions.INS_STA_ABX, 0x00, 0x03,
+            MOS6502Instructions.INS_JSR_ABS, 0x20, 0x02,
+            MOS6502Instructions.INS_INX_IMP,
+            MOS6502Instructions.INS_BNE_REL, 0xF1,
+            MOS6502Instructions.INS_INC_ABS, 0x07, 0x02,
+            MOS6502Instructions.INS_JMP_ABS, 0x00, 0x02
+    };
+
+    private static final int[] SUBROUTINE = new int[]{
+            MOS6502Instructions.INS_INY_IMP,
+            MOS6502Instructions.INS_STY_ABS, 0x00, 0x04,
+            MOS6502Instructions.INS_RTS_IMP
+    };
+
+    RandomAccessMemory interpretedRam;
+    RandomAccessMemory compiledRam;
+    MOS6502 interpreted;
+    MOS6502 compiled;
+
+    @Before
+    public void reset() throws InvalidBusWidthException, MemoryException, ProcessorException {
+
+        IntegerBus addressBus = new IntegerBus(16);
+        IntegerBus dataBus = new IntegerBus(8);
+        RWFlag rwFlag = new RWFlag();
+        interpretedRam = createRam(addressBus, dataBus, rwFlag);
+        interpreted = new MOS6502(new Clock(), addressBus, dataBus, rwFlag, new NMIFlag(), new HaltFlag());
+        interpreted.enableInstructionCache(0x0200, 0x02FF);
+
+        addressBus = new IntegerBus(16);
+        dataBus = new IntegerBus(8);
+        rwFlag = new RWFlag();
+        compiledRam = createRam(addressBus, dataBus, rwFlag);
+        compiled = new MOS6502(new Clock(), addressBus, dataBus, rwFlag, new NMIFlag(), new HaltFlag());
+        compiled.enableInstructionCache(0x0200, 0x02FF);
+        compiled.enableBlockCompilation();
+    }
+
+    private RandomAccessMemory createRam(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag) throws MemoryException {
+        RandomAccessMemory ram = new RandomAccessMemory(addressBus, dataBus, rwFlag);
+        for (int i = 0; i < PROGRAM.length; i++)
+            ram.write(0x0200 + i, PROGRAM[i]);
+        for (int i = 0; i < SUBROUTINE.length; i++)
+            ram.write(0x0220 + i, SUBROUTINE[i]);
+        ram.write(0xFFFC, 0x00);
+        ram.write(0xFFFD, 0x02);
+        return ram;
+    }
+
+    @Test
+    @DisplayName("Compiled blocks should give the same registers and cycle counts as running one cycle at a time")
+    public void testCompiledMatchesInterpreted() throws ProcessorException {
+
+        boolean compiledBlocks = false;
+
+        for (int i = 0; i < 2000; i++){
+            // Odd sized runs so blocks regularly do not fit in the cycles left
+            interpreted.run(37);
+            compiled.run(37);
+
+            assertEquals(interpreted.getCycleCount(), compiled.getCycleCount());
+            assertEquals(interpreted.getRegPC(), compiled.getRegPC());
+            assertEquals(interpreted.getRegACC(), compiled.getRegACC());
+            assertEquals(interpreted.getRegX(), compiled.getRegX());
+            assertEquals(interpreted.getRegY(), compiled.getRegY());
+            assertEquals(interpreted.getRegSP(), compiled.getRegSP());
+            assertEquals(interpreted.getRegStatus(), compiled.getRegStatus());
+
+            compiledBlocks |= compiled.getCompiledBlockCount() > 0;
+        }
+
+        assertTrue(compiledBlocks);
+    }
+
+    @Test
+    @DisplayName("Compiled blocks should be thrown away when the CPU writes to them")
+    public void testCompiledSelfModifyingCode() throws ProcessorException, MemoryException {
+
+        interpreted.run(200_000);
+        compiled.run(200_000);
+
+        assertEquals(interpretedRam.read(0x0207), compiledRam.read(0x0207));
+        for (int address = 0x0300; address <= 0x0400; address++)
+            assertEquals(interpretedRam.read(address), compiledRam.read(address));
+    }
+}
@@ -0,0 +1,86 @@
+package com.rosscon.llce.components.processors.MOS6502Integer;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.clocks.Clock;
+import com.rosscon.llce.components.clocks.ClockException;
+import com.rosscon.llce.components.flags.HaltFlag;
+import com.rosscon.llce.components.flags.NMIFlag;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.memory.MemoryException;
+import com.rosscon.llce.components.memory.RandomAccessMemory;
+import com.rosscon.llce.components.memory.ReadOnlyMemory;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502DispatchMode;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502Instructions;
+import com.rosscon.llce.components.processors.ProcessorException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+
+public class MOS6502TestDispatch {
+
+    IntegerBus addressBus;
+    IntegerBus dataBus;
+    RWFlag rwFlag;
+    NMIFlag nmiFlag;
+    HaltFlag haltFlag;
+    Clock clock;
+    MOS6502 cpu;
+    ReadOnlyMemory bootRom;
+    RandomAccessMemory ram;
+
+    @Before
+    public void reset() throws InvalidBusWidthException, MemoryException, ProcessorException {
+
+        addressBus = new IntegerBus(16);
+        dataBus = new IntegerBus(8);
+        rwFlag = new RWFlag();
+        nmiFlag = new NMIFlag();
+        haltFlag = new HaltFlag();
+        clock = new Clock();
+
+        bootRom = new ReadOnlyMemory(addressBus, dataBus, rwFlag,
+                0xFFFC, 0xFFFD, new int[]{0, 0});
+        ram = new RandomAccessMemory(addressBus, dataBus, rwFlag, 0x0000, 0x01FF);
+
+        /*
+         * 0x00 LDX #$20
+         * 0x02 CLC
+         * 0x03 LDA #$05
+         * 0x05 ADC $00F0,X     crosses into page 1, 5 cycles
+         */
+        int[] program = new int[]{
+                MOS6502Instructions.INS_LDX_IMM, 0x20,
+                MOS6502Instructions.INS_CLC_IMP,
+                MOS6502Instructions.INS_LDA_IMM, 0x05,
+                MOS6502Instructions.INS_ADC_ABX, 0xF0, 0x00
+        };
+        for (int i = 0; i < program.length; i++)
+            ram.write(i, program[i]);
+
+        ram.write(0x0110, 0x03);
+
+        cpu = new MOS6502(clock, addressBus, dataBus, rwFlag, nmiFlag, haltFlag, false);
+    }
+
+    @Test
+    @DisplayName("Opcode table dispatch should execute a page crossing instruction once")
+    public void testTableDispatchPageCross() throws ClockException {
+        cpu.setDispatchMode(MOS6502DispatchMode.TABLE);
+        clock.tick(2 + 2 + 2 + 5);
+        assertEquals(0x08, cpu.getRegACC());
+        assertEquals(0x0008, cpu.getRegPC());
+    }
+
+    @Test
+    @DisplayName("Switch dispatch should execute a page crossing instruction once")
+    public void testSwitchDispatchPageCross() throws ClockException {
+        cpu.setDispatchMode(MOS6502DispatchMode.SWITCH);
+        clock.tick(2 + 2 + 2 + 5);
+        assertEquals(0x08, cpu.getRegACC());
+        assertEquals(0x0008, cpu.getRegPC());
+    }
+}
@@ -0,0 +1,159 @@
+package com.rosscon.llce.components.processors.MOS6502Integer;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.clocks.Clock;
+import com.rosscon.llce.components.flags.HaltFlag;
+import com.rosscon.llce.components.flags.NMIFlag;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.memory.MemoryException;
+import com.rosscon.llce.components.memory.RandomAccessMemory;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502Instructions;
+import com.rosscon.llce.components.processors.ProcessorException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MOS6502TestIdleLoop {
+
+    /*
+     * 0x0200 LDA $10       wait for $10 to be set between runs
+     * 0x0202 BEQ $0200
+     * 0x0204 INC $11
+     * 0x0206 LDA #$00
+     * 0x0208 STA $10
+     * 0x020A LDA $11
+     * 0x020C CMP #$03
+     * 0x020E BNE $0200
+     * 0x0210 BIT $12       BVC depends on a bit of $12 that is not stable
+     * 0x0212 BVC $0210
+     * 0x0214 JMP $0214
+     */
+    private static final int[] PROGRAM = new int[]{
+            MOS6502Instructions.INS_LDA_ZP, 0x10,
+            MOS6502Instructions.INS_BEQ_REL, 0xFC,
+            MOS6502Instructions.INS_INC_ZP, 0x11,
+            MOS6502Instructions.INS_LDA_IMM, 0x00,
+            MOS6502Instructions.INS_STA_ZP, 0x10,
+            MOS6502Instructions.INS_LDA_ZP, 0x11,
+            MOS6502Instructions.INS_CMP_IMM, 0x03,
+            MOS6502Instructions.INS_BNE_REL, 0xF0,
+            MOS6502Instructions.INS_BIT_ZP, 0x12,
+            MOS6502Instructions.INS_BVC_REL, 0xFC,
+            MOS6502Instructions.INS_JMP_ABS, 0x14, 0x02
+    };
+
+    RandomAccessMemory interpretedRam;
+    RandomAccessMemory idleRam;
+    MOS6502 interpreted;
+    MOS6502 idle;
+
+    @Before
+    public void reset() throws InvalidBusWidthException, MemoryException, ProcessorException {
+
+        IntegerBus addressBus = new IntegerBus(16);
+        IntegerBus dataBus = new IntegerBus(8);
+        RWFlag rwFlag = new RWFlag();
+        interpretedRam = createRam(addressBus, dataBus, rwFlag);
+        interpreted = new MOS6502(new Clock(), addressBus, dataBus, rwFlag, new NMIFlag(), new HaltFlag());
+        interpreted.enableInstructionCache(0x0200, 0x02FF);
+
+        addressBus = new IntegerBus(16);
+        dataBus = new IntegerBus(8);
+        rwFlag = new RWFlag();
+        idleRam = createRam(addressBus, dataBus, rwFlag);
+        idle = new MOS6502(new Clock(), addressBus, dataBus, rwFlag, new NMIFlag(), new HaltFlag());
+        idle.enableInstructionCache(0x0200, 0x02FF);
+        idle.addPolledAddresses(0x0010, 0x0011, 0xFF);
+        idle.addPolledAddresses(0x0012, 0x0012, 0x80);
+    }
+
+    private RandomAccessMemory createRam(IntegerBus addressBus, IntegerBus dataBus, RWFlag rwFlag) throws MemoryException {
+        RandomAccessMemory ram = new RandomAccessMemory(addressBus, dataBus, rwFlag);
+        for (int i = 0; i < PROGRAM.length; i++)
+            ram.write(0x0200 + i, PROGRAM[i]);
+        ram.write(0xFFFC, 0x00);
+        ram.write(0xFFFD, 0x02);
+        return ram;
+    }
+
+    private void assertSameState() throws MemoryException {
+        assertEquals(interpreted.getCycleCount(), idle.getCycleCount());
+        assertEquals(interpreted.getRegPC(), idle.getRegPC());
+        assertEquals(interpreted.getRegACC(), idle.getRegACC());
+        assertEquals(interpreted.getRegX(), idle.getRegX());
+        assertEquals(interpreted.getRegY(), idle.getRegY());
+        assertEquals(interpreted.getRegSP(), idle.getRegSP());
+        assertEquals(interpreted.getRegStatus(), idle.getRegStatus());
+        assertEquals(interpretedRam.read(0x0011), idleRam.read(0x0011));
+    }
+
+    @Test
+    @DisplayName("Skipping idle loops should give the same registers and cycle counts as running every pass")
+    public void testIdleMatchesInterpreted() throws ProcessorException, MemoryException {
+
+        for (int i = 0; i < 300; i++){
+            // Odd sized runs so loops are left part way through a pass
+            interpreted.run(1001);
+            idle.run(1001);
+            assertSameState();
+
+            // Set polled values between runs as an interrupt handler would
+            if (i % 10 == 9 && i < 30){
+                interpretedRam.write(0x0010, 0x01);
+                idleRam.write(0x0010, 0x01);
+            }
+            if (i == 150){
+                interpretedRam.write(0x0012, 0x40);
+                idleRam.write(0x0012, 0x40);
+            }
+        }
+
+        assertEquals(3, idleRam.read(0x0011));
+        assertTrue(idle.getSkippedIdleCycles() > 0);
+    }
+
+    @Test
+    @DisplayName("Idle loops depending on bits that are not stable should run every pass")
+    public void testUnstableBitsNotSkipped() throws ProcessorException, MemoryException {
+
+        interpretedRam.write(0x0010, 0x01);
+        interpretedRam.write(0x0011, 0x02);
+        idleRam.write(0x0010, 0x01);
+        idleRam.write(0x0011, 0x02);
+
+        // Runs into the BIT / BVC loop
+        for (int i = 0; i < 20; i++){
+            interpreted.run(1001);
+            idle.run(1001);
+            assertSameState();
+        }
+
+        assertEquals(3, idleRam.read(0x0011));
+        assertEquals(0, idle.getSkippedIdleCycles());
+    }
+
+    @Test
+    @DisplayName("A jump to itself should be skipped")
+    public void testJumpToSelfSkipped() throws ProcessorException, MemoryException {
+
+        interpretedRam.write(0x0010, 0x01);
+        interpretedRam.write(0x0011, 0x02);
+        interpretedRam.write(0x0012, 0x40);
+        idleRam.write(0x0010, 0x01);
+        idleRam.write(0x0011, 0x02);
+        idleRam.write(0x0012, 0x40);
+
+        for (int i = 0; i < 50; i++){
+            interpreted.run(997);
+            idle.run(997);
+            assertSameState();
+        }
+
+        assertTrue(idle.getSkippedIdleCycles() > 40 * 997);
+    }
+}
@@ -0,0 +1,101 @@
+package com.rosscon.llce.components.processors.MOS6502Integer;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.clocks.Clock;
+import com.rosscon.llce.components.clocks.ClockException;
+import com.rosscon.llce.components.flags.HaltFlag;
+import com.rosscon.llce.components.flags.NMIFlag;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.memory.MemoryException;
+import com.rosscon.llce.components.memory.RandomAccessMemory;
+import com.rosscon.llce.components.memory.ReadOnlyMemory;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502Instructions;
+import com.rosscon.llce.components.processors.ProcessorException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+
+public class MOS6502TestInstructionCache {
+
+    IntegerBus addressBus;
+    IntegerBus dataBus;
+    RWFlag rwFlag;
+    NMIFlag nmiFlag;
+    HaltFlag haltFlag;
+    Clock clock;
+    MOS6502 cpu;
+    ReadOnlyMemory bootRom;
+    RandomAccessMemory ram;
+
+    @Before
+    public void reset() throws InvalidBusWidthException, MemoryException, ProcessorException {
+
+        addressBus = new IntegerBus(16);
+        dataBus = new IntegerBus(8);
+        rwFlag = new RWFlag();
+        nmiFlag = new NMIFlag();
+        haltFlag = new HaltFlag();
+        clock = new Clock();
+
+        bootRom = new ReadOnlyMemory(addressBus, dataBus, rwFlag,
+                0xFFFC, 0xFFFD, new int[]{0, 0});
+        ram = new RandomAccessMemory(addressBus, dataBus, rwFlag, 0x0000, 0x00FF);
+
+        /*
+         * Loop that changes the operand of its own first instruction each time round
+         * 0x00 LDX $10
+         * 0x02 INC $01
+         * 0x04 JMP $0000
+         */
+        int[] program = new int[]{
+                MOS6502Instructions.INS_LDX_ZP, 0x10,
+                MOS6502Instructions.INS_INC_ZP, 0x01,
+                MOS6502Instructions.INS_JMP_ABS, 0x00, 0x00
+        };
+        for (int i = 0; i < program.length; i++)
+            ram.write(i, program[i]);
+
+        ram.write(0x10, 0x11);
+        ram.write(0x11, 0x22);
+        ram.write(0x12, 0x33);
+
+        cpu = new MOS6502(clock, addressBus, dataBus, rwFlag, nmiFlag, haltFlag, false);
+        cpu.enableInstructionCache(0x0000, 0xFFFF);
+    }
+
+    @Test
+    @DisplayName("Cached instructions should be invalidated when the CPU writes to them")
+    public void testCacheSelfModifyingCode() throws ClockException {
+
+        // First time round LDX, INC and JMP
+        clock.tick(3 + 5 + 3);
+        assertEquals(0x11, cpu.getRegX());
+
+        // Second LDX comes from the cache but its operand was changed by INC
+        clock.tick(3);
+        assertEquals(0x22, cpu.getRegX());
+
+        clock.tick(5 + 3 + 3);
+        assertEquals(0x33, cpu.getRegX());
+    }
+
+    @Test
+    @DisplayName("Cached instructions should be re-read after the cache is invalidated")
+    public void testCacheInvalidate() throws ClockException {
+
+        clock.tick(3 + 5 + 3);
+        assertEquals(0x11, cpu.getRegX());
+
+        // Change the program without the CPU knowing, LDX $10 becomes LDY $10
+        ram.write(0x00, MOS6502Instructions.INS_LDY_ZP);
+        ram.write(0x01, 0x10);
+        cpu.invalidateInstructionCache();
+
+        clock.tick(3);
+        assertEquals(0x11, cpu.getRegY());
+    }
+}
@@ -0,0 +1,83 @@
+package com.rosscon.llce.components.processors.MOS6502Integer;
+
+import com.rosscon.llce.components.busses.IntegerBus;
+import com.rosscon.llce.components.busses.InvalidBusWidthException;
+import com.rosscon.llce.components.clocks.Clock;
+import com.rosscon.llce.components.clocks.ClockException;
+import com.rosscon.llce.components.flags.HaltFlag;
+import com.rosscon.llce.components.flags.NMIFlag;
+import com.rosscon.llce.components.flags.RWFlag;
+import com.rosscon.llce.components.memory.MemoryException;
+import com.rosscon.llce.components.memory.RandomAccessMemory;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502;
+import com.rosscon.llce.components.processors.MOS6502.MOS6502Instructions;
+import com.rosscon.llce.components.processors.ProcessorException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MOS6502TestLocalPages {
+
+    IntegerBus addressBus;
+    IntegerBus dataBus;
+    RWFlag rwFlag;
+    Clock clock;
+    MOS6502 cpu;
+    RandomAccessMemory ram;
+    byte[] local;
+
+    @Before
+    public void reset() throws InvalidBusWidthException, MemoryException, ProcessorException {
+
+        addressBus = new IntegerBus(16);
+        dataBus = new IntegerBus(8);
+        rwFlag = new RWFlag();
+        clock = new Clock();
+        ram = new RandomAccessMemory(addressBus, dataBus, rwFlag);
+
+        /*
+         * 0x0200 LDA #$42
+         * 0x0202 STA $10
+         * 0x0204 LDA #$00
+         * 0x0206 LDA $0110
+         */
+        int[] program = new int[]{
+                MOS6502Instructions.INS_LDA_IMM, 0x42,
+                MOS6502Instructions.INS_STA_ZP, 0x10,
+                MOS6502Instructions.INS_LDA_IMM, 0x00,
+                MOS6502Instructions.INS_LDA_ABS, 0x10, 0x01
+        };
+        for (int i = 0; i < program.length; i++)
+            ram.write(0x0200 + i, program[i]);
+        ram.write(0xFFFC, 0x00);
+        ram.write(0xFFFD, 0x02);
+
+        cpu = new MOS6502(clock, addressBus, dataBus, rwFlag, new NMIFlag(), new HaltFlag());
+
+        // Pages 0x00 and 0x01 share one page of local RAM
+        local = new byte[0x100];
+        cpu.setLocalPages(0x00, 0x01, local);
+    }
+
+    @Test
+    @DisplayName("Local pages should be read and written directly and mirror when larger than the memory")
+    public void testLocalPagesReadWrite() throws ClockException, MemoryException {
+
+        clock.tick(2 + 3);
+        assertEquals(0x42, local[0x10]);
+        assertEquals(0x00, ram.read(0x0010));
+
+        clock.tick(2 + 4);
+        assertEquals(0x42, cpu.getRegACC());
+    }
+
+    @Test
+    @DisplayName("Local pages should be backed by whole pages of memory")
+    public void testLocalPagesInvalid() {
+        assertThrows(ProcessorException.class, () -> cpu.setLocalPages(0x00, 0x01, new byte[0x80]));
+        assertThrows(ProcessorException.class, () -> cpu.setLocalPages(0x02, 0x01, local));
+    }
+}